@@ -0,0 +1,59 @@
+package com.sistema.parkapi.benchmark;
+
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.web.dto.UsuarioCreateDto;
+import com.sistema.parkapi.web.exception.ErrorMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de construção das mensagens de erro devolvidas pelo {@code ApiExceptionHandler}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorMessageBenchmark {
+
+    private MockHttpServletRequest request;
+    private BindingResult result;
+
+    @Setup
+    public void setup() {
+        request = new MockHttpServletRequest("POST", "/api/v1/usuarios");
+        result = new BeanPropertyBindingResult(new UsuarioCreateDto("invalido", "1"), "usuarioCreateDto");
+        result.rejectValue("username", "Email", "Formato do email inválido");
+        result.rejectValue("password", "Size", "tamanho deve ser entre 6 e 6");
+    }
+
+    @Benchmark
+    public ErrorMessage notFound() {
+        return new ErrorMessage(request, HttpStatus.NOT_FOUND, "Usuário id = 0 não encontrado");
+    }
+
+    @Benchmark
+    public EntityNotFoundException notFoundException() {
+        return new EntityNotFoundException("Usuário id = 0 não encontrado");
+    }
+
+    @Benchmark
+    public ErrorMessage validation() {
+        return new ErrorMessage(request, HttpStatus.UNPROCESSABLE_ENTITY, "Campo(s) inválido(s)", result);
+    }
+}
@@ -0,0 +1,83 @@
+package com.sistema.parkapi.benchmark;
+
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.jwt.JwtAuthorizationFilter;
+import com.sistema.parkapi.jwt.JwtTokenVerifier;
+import com.sistema.parkapi.jwt.JwtUserDetails;
+import com.sistema.parkapi.jwt.JwtUserDetailsService;
+import com.sistema.parkapi.jwt.JwtUtils;
+import com.sistema.parkapi.repository.projection.UsuarioCredencial;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passagem completa de uma requisição autenticada pelo {@link JwtAuthorizationFilter}.
+ * <p>
+ * O carregamento do usuário é simulado em memória, então o resultado mede apenas o custo do filtro.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthorizationFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean principalFromClaims;
+
+    private JwtAuthorizationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setup() throws Exception {
+        UsuarioCredencial credencial = new UsuarioCredencial(100L, "ana@email.com", "", Usuario.Role.ROLE_ADMIN);
+        JwtUserDetailsService detailsService = new JwtUserDetailsService(null, null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return new JwtUserDetails(credencial);
+            }
+        };
+
+        filter = new JwtAuthorizationFilter();
+        ReflectionTestUtils.setField(filter, "detailsService", detailsService);
+        ReflectionTestUtils.setField(filter, "tokenVerifier", new JwtTokenVerifier(10_000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "principalFromClaims", principalFromClaims);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.afterPropertiesSet();
+
+        request = new MockHttpServletRequest("GET", "/api/v1/usuarios/100");
+        request.addHeader(JwtUtils.JWT_AUTHORIZATION,
+                JwtUtils.JWT_BEARER + JwtUtils.createToken("ana@email.com", "ADMIN").getToken());
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> { };
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
@@ -0,0 +1,70 @@
+package com.sistema.parkapi.benchmark;
+
+import com.sistema.parkapi.jwt.JwtKeys;
+import com.sistema.parkapi.jwt.JwtToken;
+import com.sistema.parkapi.jwt.JwtTokenVerifier;
+import com.sistema.parkapi.jwt.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de emissão e verificação de tokens JWT, por algoritmo de assinatura.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    @Param({JwtKeys.HS256, JwtKeys.ES256, JwtKeys.EDDSA})
+    private String algoritmo;
+
+    private String bearerToken;
+    private JwtTokenVerifier verifier;
+
+    @Setup
+    public void setup() {
+        if (!JwtKeys.HS256.equals(algoritmo)) {
+            JwtKeys.Chave chave = JwtKeys.gerar("benchmark", algoritmo);
+            JwtUtils.setKeys(JwtKeys.of(chave, List.of(chave)));
+        }
+        bearerToken = JwtUtils.JWT_BEARER + JwtUtils.createToken("ana@email.com", "ADMIN").getToken();
+        verifier = new JwtTokenVerifier(10_000, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public JwtToken createToken() {
+        return JwtUtils.createToken("ana@email.com", "ADMIN");
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return JwtUtils.isTokenValid(bearerToken);
+    }
+
+    @Benchmark
+    public Claims getClaimsFromToken() {
+        return JwtUtils.getClaimsFromToken(bearerToken);
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return verifier.verify(bearerToken);
+    }
+}
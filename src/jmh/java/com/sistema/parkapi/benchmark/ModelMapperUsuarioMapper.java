@@ -0,0 +1,40 @@
+package com.sistema.parkapi.benchmark;
+
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.web.dto.UsuarioCreateDto;
+import com.sistema.parkapi.web.dto.UsuarioResponseDto;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.PropertyMap;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cópia do {@code UsuarioMapper} baseado em ModelMapper, usada apenas como linha de base nos benchmarks.
+ */
+public class ModelMapperUsuarioMapper {
+
+	public static Usuario toUsuario(UsuarioCreateDto createDto) {
+		return new ModelMapper().map(createDto, Usuario.class);
+	}
+
+	public static UsuarioResponseDto toDto(Usuario usuario) {
+		String role = usuario.getRole().name().substring("ROLE_".length());
+
+		PropertyMap<Usuario, UsuarioResponseDto> props = new PropertyMap<Usuario,UsuarioResponseDto>() {
+			@Override
+			protected void configure() {
+				map().setRole(role);
+			}
+		};
+
+		ModelMapper mapper = new ModelMapper();
+		mapper.addMappings(props);
+
+		return mapper.map(usuario, UsuarioResponseDto.class);
+	}
+
+	public static List<UsuarioResponseDto> toListDto(List<Usuario> usuarios) {
+		return usuarios.stream().map(user -> toDto(user)).collect(Collectors.toList());
+	}
+}
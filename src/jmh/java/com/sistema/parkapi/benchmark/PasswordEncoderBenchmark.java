@@ -0,0 +1,50 @@
+package com.sistema.parkapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@link BCryptPasswordEncoder} em diferentes fatores de trabalho.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("123456");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("123456");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("123456", hash);
+    }
+}
@@ -0,0 +1,80 @@
+package com.sistema.parkapi.benchmark;
+
+import com.sistema.parkapi.config.SpringTimezoneConfig;
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.tarifa.FusoCompilado;
+import com.sistema.parkapi.tarifa.TarifaCompilada;
+import com.sistema.parkapi.tarifa.TarifaReferencia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo do valor de uma permanência pela {@link TarifaCompilada} e pela implementação de referência,
+ * fração por fração, para permanências curtas e longas. Rodar com {@code -prof gc} para confirmar que o
+ * cálculo compilado não aloca.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TarifaBenchmark {
+
+    private static final ZoneId ZONA = ZoneId.of(SpringTimezoneConfig.ZONA);
+
+    /**
+     * Duração da permanência, em minutos: 2h37, 3 dias e 30 dias.
+     */
+    @Param({"157", "4320", "43200"})
+    private long minutos;
+
+    private TarifaCompilada compilada;
+    private TarifaReferencia referencia;
+    private LocalDateTime entrada;
+    private LocalDateTime saida;
+
+    @Setup
+    public void setup() {
+        TabelaTarifaria tabela = new TabelaTarifaria();
+        tabela.setToleranciaMinutos(15);
+        tabela.setValorPrimeiraHora(1_200);
+        tabela.setMinutosFracao(15);
+        tabela.setValorFracao(300);
+        tabela.setValorFracaoNoturna(150);
+        tabela.setInicioNoturno(LocalTime.of(22, 0));
+        tabela.setFimNoturno(LocalTime.of(6, 0));
+        tabela.setTetoDiario(6_000);
+        tabela.setDescontoCliente(10);
+        tabela.setDescontoAdmin(100);
+        compilada = TarifaCompilada.compilar(tabela, FusoCompilado.compilar(ZONA, 2000, 2100));
+        referencia = new TarifaReferencia(tabela, ZONA);
+        entrada = LocalDateTime.of(2024, 3, 8, 18, 47, 12);
+        saida = entrada.plusMinutes(minutos);
+    }
+
+    @Benchmark
+    public long compilada() {
+        return compilada.calcular(entrada, saida, Usuario.Role.ROLE_CLIENTE);
+    }
+
+    @Benchmark
+    public long referencia() {
+        return referencia.calcular(entrada, saida, Usuario.Role.ROLE_CLIENTE);
+    }
+}
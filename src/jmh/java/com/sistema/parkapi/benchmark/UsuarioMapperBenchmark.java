@@ -0,0 +1,94 @@
+package com.sistema.parkapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.web.dto.UsuarioCreateDto;
+import com.sistema.parkapi.web.dto.UsuarioResponseDto;
+import com.sistema.parkapi.web.dto.mapper.UsuarioMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o {@link UsuarioMapper} atual com o mapeador anterior baseado em ModelMapper.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UsuarioMapperBenchmark {
+
+    @Param({"1", "100"})
+    private int quantidade;
+
+    private Usuario usuario;
+    private List<Usuario> usuarios;
+    private UsuarioCreateDto createDto;
+
+    @Setup
+    public void setup() throws Exception {
+        usuarios = new ArrayList<>(quantidade);
+        for (long i = 1; i <= quantidade; i++) {
+            Usuario u = new Usuario();
+            u.setId(i);
+            u.setUsername("usuario" + i + "@email.com");
+            u.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+            u.setRole(i % 2 == 0 ? Usuario.Role.ROLE_ADMIN : Usuario.Role.ROLE_CLIENTE);
+            usuarios.add(u);
+        }
+        usuario = usuarios.get(0);
+        createDto = new UsuarioCreateDto("novo@email.com", "123456");
+
+        // Garante que os dois mapeadores produzem exatamente o mesmo JSON
+        ObjectMapper json = new ObjectMapper();
+        String atual = json.writeValueAsString(UsuarioMapper.toListDto(usuarios));
+        String anterior = json.writeValueAsString(ModelMapperUsuarioMapper.toListDto(usuarios));
+        if (!atual.equals(anterior)) {
+            throw new IllegalStateException("JSON divergente:\n" + atual + "\n" + anterior);
+        }
+    }
+
+    @Benchmark
+    public UsuarioResponseDto toDto() {
+        return UsuarioMapper.toDto(usuario);
+    }
+
+    @Benchmark
+    public UsuarioResponseDto toDtoModelMapper() {
+        return ModelMapperUsuarioMapper.toDto(usuario);
+    }
+
+    @Benchmark
+    public List<UsuarioResponseDto> toListDto() {
+        return UsuarioMapper.toListDto(usuarios);
+    }
+
+    @Benchmark
+    public List<UsuarioResponseDto> toListDtoModelMapper() {
+        return ModelMapperUsuarioMapper.toListDto(usuarios);
+    }
+
+    @Benchmark
+    public Usuario toUsuario() {
+        return UsuarioMapper.toUsuario(createDto);
+    }
+
+    @Benchmark
+    public Usuario toUsuarioModelMapper() {
+        return ModelMapperUsuarioMapper.toUsuario(createDto);
+    }
+}
@@ -0,0 +1,90 @@
+package com.sistema.parkapi.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffer em memória dos eventos de auditoria, entre quem os produz e o {@link AuditoriaWriter}.
+ * <p>
+ * É um buffer circular de capacidade fixa ({@link ArrayBlockingQueue}): publicar um evento nunca
+ * bloqueia nem faz I/O na thread da requisição. Quando o buffer está cheio, o evento novo é
+ * descartado e contado em {@code auditoria.eventos.descartados}; a requisição segue normalmente.
+ * <p>
+ * Eventos publicados com o {@code ApplicationEventPublisher} dentro de uma transação só entram no
+ * buffer após o commit.
+ */
+@Slf4j
+@Component
+public class AuditoriaBuffer {
+
+    private static final long INTERVALO_ENTRE_AVISOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final ArrayBlockingQueue<AuditoriaEvento> fila;
+    private final Counter descartados;
+    private final AtomicLong ultimoAviso = new AtomicLong(System.nanoTime() - INTERVALO_ENTRE_AVISOS);
+
+    public AuditoriaBuffer(@Value("${park.auditoria.capacidade:10000}") int capacidade, MeterRegistry meterRegistry) {
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.descartados = Counter.builder("auditoria.eventos.descartados")
+                .description("Eventos de auditoria descartados por buffer cheio")
+                .register(meterRegistry);
+        Gauge.builder("auditoria.eventos.pendentes", fila, ArrayBlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Adiciona o evento ao buffer, descartando-o se o buffer estiver cheio.
+     *
+     * @param evento evento de auditoria.
+     */
+    public void publicar(AuditoriaEvento evento) {
+        if (!fila.offer(evento)) {
+            descartados.increment();
+            long agora = System.nanoTime();
+            long anterior = ultimoAviso.get();
+            if (agora - anterior >= INTERVALO_ENTRE_AVISOS && ultimoAviso.compareAndSet(anterior, agora)) {
+                log.warn("Buffer de auditoria cheio ({} eventos); descartando eventos novos", fila.size());
+            }
+        }
+    }
+
+    /**
+     * Recebe os eventos de auditoria publicados pela aplicação, após o commit da transação que os gerou.
+     *
+     * @param evento evento de auditoria.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuditoriaEvento(AuditoriaEvento evento) {
+        publicar(evento);
+    }
+
+    /**
+     * Move para o lote os eventos disponíveis, esperando pelo primeiro até o tempo informado.
+     *
+     * @param lote   lista que recebe os eventos.
+     * @param maximo quantidade máxima de eventos movidos.
+     * @param espera tempo máximo de espera pelo primeiro evento.
+     * @throws InterruptedException se a thread for interrompida durante a espera.
+     */
+    void drenar(List<AuditoriaEvento> lote, int maximo, Duration espera) throws InterruptedException {
+        AuditoriaEvento primeiro = fila.poll(espera.toNanos(), TimeUnit.NANOSECONDS);
+        if (primeiro != null) {
+            lote.add(primeiro);
+            fila.drainTo(lote, maximo - 1);
+        }
+    }
+
+    boolean isEmpty() {
+        return fila.isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package com.sistema.parkapi.audit;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de auditoria, imutável e somente de inclusão.
+ *
+ * @param tipo       tipo do evento.
+ * @param username   usuário afetado.
+ * @param autor      usuário autenticado que originou o evento, se houver.
+ * @param ip         endereço do cliente, quando conhecido.
+ * @param detalhe    informação complementar, se houver.
+ * @param dataEvento instante do evento.
+ */
+public record AuditoriaEvento(Tipo tipo, String username, String autor, String ip, String detalhe,
+                              LocalDateTime dataEvento) {
+
+    public enum Tipo {
+        USUARIO_CRIADO, SENHA_ALTERADA, ROLE_ALTERADA, LOGIN_SUCESSO, LOGIN_FALHA
+    }
+
+    /**
+     * Cria um evento no instante atual, com o autor lido do contexto de segurança da thread corrente.
+     * Os textos são truncados ao tamanho das colunas, já que o nome de usuário de um login pode vir
+     * de qualquer cliente.
+     *
+     * @param tipo     tipo do evento.
+     * @param username usuário afetado.
+     * @param ip       endereço do cliente, ou {@code null}.
+     * @param detalhe  informação complementar, ou {@code null}.
+     * @return o evento.
+     */
+    public static AuditoriaEvento of(Tipo tipo, String username, String ip, String detalhe) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String autor = authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+        return new AuditoriaEvento(tipo, limitar(username, 100), limitar(autor, 100), limitar(ip, 45),
+                limitar(detalhe, 255), LocalDateTime.now());
+    }
+
+    private static String limitar(String valor, int tamanho) {
+        return valor == null || valor.length() <= tamanho ? valor : valor.substring(0, tamanho);
+    }
+}
@@ -0,0 +1,80 @@
+package com.sistema.parkapi.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Estrutura da tabela {@code auditoria_eventos}.
+ * <p>
+ * No PostgreSQL a tabela é particionada por mês ({@code PARTITION BY RANGE (data_evento)}): as
+ * partições do mês corrente e dos próximos {@code park.auditoria.particoes-futuras} meses são criadas
+ * na subida e verificadas diariamente, e uma partição {@code DEFAULT} recebe qualquer evento fora
+ * delas. Consultas por período tocam só as partições do período, e o expurgo de um mês antigo é um
+ * {@code DROP TABLE} da partição. A tabela particionada é criada pela migração {@code V1}; aqui são
+ * mantidas apenas as partições mensais. Nos demais bancos (H2 nos testes) é criada uma tabela simples.
+ */
+@Slf4j
+@Component
+@DependsOnDatabaseInitialization
+public class AuditoriaSchema implements InitializingBean {
+
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String COLUNAS = "tipo varchar(30) not null, " +
+            "username varchar(100), " +
+            "autor varchar(100), " +
+            "ip varchar(45), " +
+            "detalhe varchar(255), " +
+            "data_evento timestamp not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int particoesFuturas;
+    private boolean particionada;
+
+    public AuditoriaSchema(JdbcTemplate jdbcTemplate,
+                           @Value("${park.auditoria.particoes-futuras:2}") int particoesFuturas) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.particoesFuturas = particoesFuturas;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String banco = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        particionada = "PostgreSQL".equalsIgnoreCase(banco);
+        if (particionada) {
+            criarParticoes();
+        } else {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS auditoria_eventos (" + COLUNAS + ")");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_auditoria_eventos_username ON auditoria_eventos (username, data_evento)");
+        }
+    }
+
+    /**
+     * Garante a existência das partições do mês corrente e dos meses seguintes.
+     */
+    @Scheduled(cron = "${park.auditoria.particoes-cron:0 0 3 * * *}")
+    public void criarParticoes() {
+        if (!particionada) {
+            return;
+        }
+        YearMonth mes = YearMonth.now();
+        for (int i = 0; i <= particoesFuturas; i++, mes = mes.plusMonths(1)) {
+            LocalDate inicio = mes.atDay(1);
+            LocalDate fim = mes.plusMonths(1).atDay(1);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS auditoria_eventos_%s PARTITION OF auditoria_eventos " +
+                            "FOR VALUES FROM ('%s') TO ('%s')", mes.format(SUFIXO), inicio, fim));
+        }
+        log.debug("Partições de auditoria garantidas até {}", mes.minusMonths(1));
+    }
+}
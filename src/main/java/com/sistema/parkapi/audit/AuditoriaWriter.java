@@ -0,0 +1,132 @@
+package com.sistema.parkapi.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Grava em segundo plano os eventos do {@link AuditoriaBuffer} na tabela {@code auditoria_eventos}.
+ * <p>
+ * Uma única thread drena o buffer em lotes de até {@code park.auditoria.tamanho-lote} eventos e os
+ * grava com um batch JDBC; com pouco tráfego, o lote é gravado após {@code park.auditoria.intervalo}.
+ * Uma falha de gravação é repetida algumas vezes com espera crescente; se persistir, o lote é
+ * descartado e contado em {@code auditoria.eventos.perdidos}. No desligamento, o buffer é esvaziado
+ * antes de o {@code DataSource} ser fechado.
+ */
+@Slf4j
+@Component
+public class AuditoriaWriter implements SmartLifecycle, Runnable {
+
+    private static final String INSERT = "INSERT INTO auditoria_eventos " +
+            "(tipo, username, autor, ip, detalhe, data_evento) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int TENTATIVAS = 3;
+
+    private final AuditoriaBuffer buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoLote;
+    private final Duration intervalo;
+    private final Timer gravacao;
+    private final Counter gravados;
+    private final Counter perdidos;
+    private volatile boolean executando;
+    private Thread thread;
+
+    public AuditoriaWriter(AuditoriaBuffer buffer,
+                           // Garante que a tabela exista antes da primeira gravação
+                           AuditoriaSchema schema,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${park.auditoria.tamanho-lote:500}") int tamanhoLote,
+                           @Value("${park.auditoria.intervalo:200ms}") Duration intervalo,
+                           MeterRegistry meterRegistry) {
+        this.buffer = buffer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.intervalo = intervalo;
+        this.gravacao = Timer.builder("auditoria.gravacao").register(meterRegistry);
+        this.gravados = Counter.builder("auditoria.eventos.gravados").register(meterRegistry);
+        this.perdidos = Counter.builder("auditoria.eventos.perdidos")
+                .description("Eventos de auditoria descartados após falhas de gravação")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        thread = new Thread(this, "auditoria-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        try {
+            thread.join(Duration.ofSeconds(10).toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    @Override
+    public void run() {
+        List<AuditoriaEvento> lote = new ArrayList<>(tamanhoLote);
+        while (executando || !buffer.isEmpty()) {
+            try {
+                buffer.drenar(lote, tamanhoLote, intervalo);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!lote.isEmpty()) {
+                gravar(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<AuditoriaEvento> lote) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                gravacao.record(() -> jdbcTemplate.batchUpdate(INSERT, lote, lote.size(), (ps, evento) -> {
+                    ps.setString(1, evento.tipo().name());
+                    ps.setString(2, evento.username());
+                    ps.setString(3, evento.autor());
+                    ps.setString(4, evento.ip());
+                    ps.setString(5, evento.detalhe());
+                    ps.setTimestamp(6, Timestamp.valueOf(evento.dataEvento()));
+                }));
+                gravados.increment(lote.size());
+                return;
+            } catch (DataAccessException ex) {
+                if (tentativa == TENTATIVAS) {
+                    perdidos.increment(lote.size());
+                    log.error("Falha ao gravar {} eventos de auditoria; lote descartado", lote.size(), ex);
+                    return;
+                }
+                log.warn("Falha ao gravar eventos de auditoria (tentativa {}): {}", tentativa, ex.getMessage());
+                try {
+                    Thread.sleep(100L << tentativa);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
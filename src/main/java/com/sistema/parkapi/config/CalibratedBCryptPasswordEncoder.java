@@ -0,0 +1,92 @@
+package com.sistema.parkapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link BCryptPasswordEncoder} com fator de trabalho calibrado para o hardware em que a aplicação roda.
+ * <p>
+ * Na subida, {@link #calibrar(Duration, int, int)} mede o custo de um hash e escolhe o maior fator
+ * cujo tempo estimado cabe no orçamento de latência configurado. Cada unidade do fator dobra o custo,
+ * então uma única medição basta para estimar os demais.
+ * <p>
+ * Diferente do {@link BCryptPasswordEncoder}, que só atualiza hashes com fator menor que o atual,
+ * {@link #upgradeEncoding(String)} pede o rehash sempre que o fator gravado difere do alvo, para
+ * cima ou para baixo, de modo que instâncias menores tragam os hashes para dentro do orçamento.
+ */
+@Slf4j
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$.{53}");
+
+    /**
+     * Fator usado na medição: caro o bastante para uma leitura estável, barato o bastante para a subida.
+     */
+    private static final int FATOR_DE_MEDICAO = 8;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Escolhe o fator de trabalho para o orçamento de latência informado.
+     *
+     * @param orcamento tempo máximo desejado para um hash.
+     * @param minimo    fator mínimo aceito, independentemente do hardware.
+     * @param maximo    fator máximo aceito.
+     * @return o encoder com o fator escolhido.
+     */
+    public static CalibratedBCryptPasswordEncoder calibrar(Duration orcamento, int minimo, int maximo) {
+        BCryptPasswordEncoder medicao = new BCryptPasswordEncoder(FATOR_DE_MEDICAO);
+        medicao.encode("aquecimento");
+        long melhor = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long inicio = System.nanoTime();
+            medicao.encode("calibracao");
+            melhor = Math.min(melhor, System.nanoTime() - inicio);
+        }
+
+        int strength = FATOR_DE_MEDICAO;
+        long estimado = melhor;
+        while (strength < maximo && estimado * 2 <= orcamento.toNanos()) {
+            strength++;
+            estimado *= 2;
+        }
+        while (strength > FATOR_DE_MEDICAO && estimado > orcamento.toNanos()) {
+            strength--;
+            estimado /= 2;
+        }
+        strength = Math.max(minimo, Math.min(maximo, strength));
+        log.info("BCrypt calibrado com fator {} (fator {} levou {} ms; orçamento de {} ms)",
+                strength, FATOR_DE_MEDICAO, Duration.ofNanos(melhor).toMillis(), orcamento.toMillis());
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    /**
+     * Retorna o fator de trabalho usado nos novos hashes.
+     *
+     * @return o fator de trabalho.
+     */
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        if (!matcher.matches()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
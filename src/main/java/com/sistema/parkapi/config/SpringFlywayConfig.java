@@ -0,0 +1,33 @@
+package com.sistema.parkapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Estratégia das migrações do esquema na subida da aplicação.
+ * <p>
+ * As migrações ({@code db/migration}) são aplicadas no deploy, com {@code flyway:migrate}; na subida a
+ * aplicação apenas valida que o esquema está na versão esperada e falha caso contrário. Com
+ * {@code park.flyway.migrate-on-startup=true} (ambientes locais e testes) a migração é feita na subida.
+ */
+@Slf4j
+@Configuration
+public class SpringFlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${park.flyway.migrate-on-startup:false}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                flyway.validate();
+                log.info("Esquema validado na versão {}", flyway.info().current() == null
+                        ? "-" : flyway.info().current().getVersion());
+            }
+        };
+    }
+}
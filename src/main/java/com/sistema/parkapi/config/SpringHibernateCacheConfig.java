@@ -0,0 +1,63 @@
+package com.sistema.parkapi.config;
+
+import com.sistema.parkapi.entity.Usuario;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Métricas do cache de segundo nível do Hibernate.
+ * <p>
+ * O cache é configurado em {@code application.properties} ({@code spring.jpa.properties.hibernate.cache.*})
+ * e as regiões, com tamanho e TTL, em {@code ehcache.xml}. Para cada região usada pelas entidades são
+ * publicados os contadores {@code hibernate.cache.requests} (tag {@code resultado}: {@code hit} ou
+ * {@code miss}) e {@code hibernate.cache.puts}, e o gauge {@code hibernate.cache.entries}, lidos das
+ * estatísticas do Hibernate ({@code hibernate.generate_statistics}).
+ */
+@Configuration
+public class SpringHibernateCacheConfig {
+
+    private static final List<String> REGIOES = List.of(Usuario.REGIAO_CACHE, Usuario.REGIAO_CACHE_NATURAL_ID);
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+            Statistics statistics = sessionFactory.getStatistics();
+            for (String regiao : REGIOES) {
+                // Sem o cache de segundo nível (ou com a região desativada) não há o que publicar
+                if (sessionFactory.getCache().getRegion(regiao) == null) {
+                    continue;
+                }
+                contador(registry, "hibernate.cache.requests", regiao, "hit", statistics, CacheRegionStatistics::getHitCount);
+                contador(registry, "hibernate.cache.requests", regiao, "miss", statistics, CacheRegionStatistics::getMissCount);
+                contador(registry, "hibernate.cache.puts", regiao, null, statistics, CacheRegionStatistics::getPutCount);
+                Gauge.builder("hibernate.cache.entries", statistics,
+                                s -> s.getDomainDataRegionStatistics(regiao).getElementCountInMemory())
+                        .tag("regiao", regiao)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static void contador(MeterRegistry registry, String nome, String regiao,
+                                 String resultado, Statistics statistics, ToDoubleFunction<CacheRegionStatistics> valor) {
+        FunctionCounter.Builder<Statistics> builder = FunctionCounter
+                .builder(nome, statistics, s -> valor.applyAsDouble(s.getDomainDataRegionStatistics(regiao)))
+                .tag("regiao", regiao);
+        if (resultado != null) {
+            builder.tag("resultado", resultado);
+        }
+        builder.register(registry);
+    }
+}
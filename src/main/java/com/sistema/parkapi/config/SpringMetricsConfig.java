@@ -0,0 +1,25 @@
+package com.sistema.parkapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuração das métricas da aplicação.
+ * <p>
+ * Habilita o {@link TimedAspect}, que registra os métodos anotados com {@code @Timed}
+ * (por exemplo, os métodos do {@code UsuarioService}) como timers no Micrometer.
+ * <p>
+ * As métricas ficam disponíveis em {@code /actuator/metrics} e no formato do Prometheus em
+ * {@code /actuator/prometheus}, ambos restritos ao papel ADMIN. Os percentis publicados são definidos em {@code application.properties}
+ * ({@code management.metrics.distribution.*}).
+ */
+@Configuration
+public class SpringMetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sistema.parkapi.config;
+
+import com.sistema.parkapi.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leituras em réplicas ({@code park.datasource.replicas.*}).
+ * <p>
+ * Ativa quando {@code park.datasource.replicas.urls} é informada. O pool da primária continua configurado
+ * por {@code spring.datasource.*}; cada réplica recebe um pool Hikari somente leitura. O
+ * {@code DataSource} da aplicação passa a ser um {@link LazyConnectionDataSourceProxy} sobre o
+ * {@link ReplicaRoutingDataSource}, de modo que as transações {@code readOnly} (entre elas a carga do
+ * usuário no filtro JWT) vão para as réplicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "park.datasource.replicas.urls")
+public class SpringReadReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${park.datasource.replicas.urls}") List<String> urls,
+            @Value("${park.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${park.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${park.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${park.datasource.replicas.health-check-interval:5s}") Duration intervaloDeVerificacao,
+            @Value("${park.datasource.replicas.read-your-writes:5s}") Duration readYourWrites) {
+        MicrometerMetricsTrackerFactory metricas = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primaria = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primaria));
+        primaria.setPoolName("primaria");
+        primaria.setMetricsTrackerFactory(metricas);
+
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            // A réplica fora do ar não impede a subida; a verificação de saúde a tira do rodízio
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(metricas);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaria, replicas, intervaloDeVerificacao, readYourWrites, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,12 @@
+package com.sistema.parkapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas ({@code @Scheduled}) da aplicação, como a manutenção dos refresh tokens.
+ */
+@EnableScheduling
+@Configuration
+public class SpringSchedulingConfig {
+}
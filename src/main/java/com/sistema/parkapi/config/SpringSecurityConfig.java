@@ -1,6 +1,10 @@
 package com.sistema.parkapi.config;
 
 import com.sistema.parkapi.jwt.JwtAuthorizationFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -9,12 +13,15 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
+import java.time.Duration;
+import java.util.Map;
+
 @EnableMethodSecurity
 @EnableWebMvc
 @Configuration
@@ -27,6 +34,12 @@ public class SpringSecurityConfig {
      * Ele também define as permissões de acesso para diferentes requisições HTTP:
      * <p>
      * - A requisição POST para "api/v1/usuarios" será permitida para todos os usuários.
+     * - A requisição GET para "/actuator/health" é liberada para o health check.
+     * - Os demais endpoints do actuator ("/actuator/prometheus", "/actuator/metrics") exigem o papel ADMIN; o scrape do
+     *   Prometheus envia um token de ADMIN no cabeçalho Authorization.
+     * - A requisição GET para "/.well-known/jwks.json" é liberada para a verificação dos tokens por outros serviços.
+     * - Os despachos assíncronos (respostas de {@code CompletableFuture} e streams) são liberados: a requisição
+     *   original já foi autorizada, e o filtro JWT não roda de novo nesses despachos.
      * - Todas as outras requisições exigem autenticação.
      * <p>
      * Além disso, a política de criação de sessões é configurada para **stateless**, o que significa que a aplicação
@@ -43,8 +56,13 @@ public class SpringSecurityConfig {
                 .formLogin(formLogin -> formLogin.disable())
                 .httpBasic(httpBasic -> httpBasic.disable())
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(HttpMethod.POST, "api/v1/usuarios").permitAll()
                         .requestMatchers(HttpMethod.POST, "api/v1/auth").permitAll()
+                        .requestMatchers(HttpMethod.POST, "api/v1/auth/refresh").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
                         .anyRequest().authenticated()
                 ).sessionManagement(
                         session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
@@ -63,12 +81,29 @@ public class SpringSecurityConfig {
      * <p>
      * O BCrypt é um algoritmo de hash seguro e amplamente utilizado para armazenar senhas de forma criptografada.
      * Ele aplica uma função de hash e um sal (salt) para gerar o hash da senha, dificultando ataques de força bruta.
+     * <p>
+     * O fator de trabalho é calibrado na subida para o orçamento {@code park.password-hashing.target-latency},
+     * ou fixado em {@code park.password-hashing.strength}. Os hashes são gravados com o prefixo do algoritmo
+     * ({@code {bcrypt}}); hashes antigos, sem prefixo, continuam sendo aceitos como BCrypt e são regravados
+     * no próximo login, assim como os hashes com fator diferente do alvo.
      *
      * @return O codificador de senha baseado no algoritmo BCrypt.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${park.password-hashing.strength:0}") int strength,
+                                           @Value("${park.password-hashing.target-latency:250ms}") Duration targetLatency,
+                                           @Value("${park.password-hashing.min-strength:10}") int minStrength,
+                                           @Value("${park.password-hashing.max-strength:14}") int maxStrength,
+                                           MeterRegistry meterRegistry) {
+        CalibratedBCryptPasswordEncoder bcrypt = strength > 0
+                ? new CalibratedBCryptPasswordEncoder(strength)
+                : CalibratedBCryptPasswordEncoder.calibrar(targetLatency, minStrength, maxStrength);
+        Gauge.builder("auth.password.hashing.strength", bcrypt, CalibratedBCryptPasswordEncoder::getStrength)
+                .register(meterRegistry);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     /**
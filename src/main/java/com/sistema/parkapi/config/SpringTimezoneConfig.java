@@ -7,8 +7,14 @@ import java.util.TimeZone;
 
 @Configuration
 public class SpringTimezoneConfig {
+
+    /**
+     * Fuso das horas locais gravadas pela aplicação.
+     */
+    public static final String ZONA = "America/Sao_Paulo";
+
     @PostConstruct
     public void timezoneConfig() {
-        TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
+        TimeZone.setDefault(TimeZone.getTimeZone(ZONA));
     }
 }
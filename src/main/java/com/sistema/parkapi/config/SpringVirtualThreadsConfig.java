@@ -0,0 +1,60 @@
+package com.sistema.parkapi.config;
+
+import com.sistema.parkapi.datasource.GovernedDataSource;
+import com.sistema.parkapi.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Suporte ao modo de execução com virtual threads ({@code spring.threads.virtual.enabled=true}, Java 21+).
+ * <p>
+ * Com a propriedade ativa, o Spring Boot passa a atender as requisições do Tomcat e as tarefas
+ * assíncronas em virtual threads. Esta configuração complementa o modo com:
+ * <p>
+ * - Um limitador de concorrência na frente do {@link DataSource} ({@code park.datasource.governor.*}),
+ * para que a quantidade de virtual threads não sobrecarregue o pool do Hikari.
+ * <p>
+ * - Um monitor de pinning das virtual threads ({@code park.virtual-threads.pinning-monitor.*}).
+ * <p>
+ * O pool de hash de senha continua em threads de plataforma, pois o BCrypt é trabalho de CPU.
+ */
+@Configuration
+public class SpringVirtualThreadsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "park.datasource.governor.enabled", havingValue = "true")
+    public static BeanPostProcessor dataSourceGovernorPostProcessor(Environment environment,
+                                                                    ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // O roteador de réplicas fica atrás do DataSource principal, que já é limitado
+                if (bean instanceof DataSource dataSource && !(bean instanceof GovernedDataSource)
+                        && !(bean instanceof ReplicaRoutingDataSource)) {
+                    int maxConcurrent = environment.getProperty("park.datasource.governor.max-concurrent", Integer.class,
+                            environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    Duration acquireTimeout = environment.getProperty("park.datasource.governor.acquire-timeout",
+                            Duration.class, Duration.ofSeconds(30));
+                    return new GovernedDataSource(dataSource, maxConcurrent, acquireTimeout, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "park.virtual-threads.pinning-monitor.enabled", havingValue = "true")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(Environment environment, MeterRegistry meterRegistry) {
+        Duration threshold = environment.getProperty("park.virtual-threads.pinning-monitor.threshold",
+                Duration.class, Duration.ofMillis(20));
+        return new VirtualThreadPinningMonitor(threshold, meterRegistry);
+    }
+}
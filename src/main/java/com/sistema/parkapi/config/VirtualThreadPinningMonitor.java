@@ -0,0 +1,66 @@
+package com.sistema.parkapi.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Monitora, via JFR, eventos {@code jdk.VirtualThreadPinned}: momentos em que uma virtual thread
+ * bloqueou sem liberar o carrier (por exemplo dentro de um bloco {@code synchronized} ou de código
+ * nativo do driver JDBC).
+ * <p>
+ * Cada ocorrência incrementa o contador {@code jvm.threads.virtual.pinned} e é registrada em log
+ * com os primeiros frames da pilha, para localizar o trecho responsável. Em JVMs anteriores ao
+ * Java 21 o evento não existe e o monitor não produz nada.
+ */
+@Slf4j
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int FRAMES_NO_LOG = 8;
+
+    private final RecordingStream stream;
+    private final Counter ocorrencias;
+
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.ocorrencias = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Ocorrências de virtual threads presas ao carrier")
+                .register(meterRegistry);
+        this.stream = new RecordingStream();
+        this.stream.enable(EVENTO).withThreshold(threshold).withStackTrace();
+        this.stream.onEvent(EVENTO, this::registrar);
+        this.stream.startAsync();
+    }
+
+    private void registrar(RecordedEvent event) {
+        ocorrencias.increment();
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        StringBuilder pilha = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            for (int i = 0; i < Math.min(FRAMES_NO_LOG, frames.size()); i++) {
+                RecordedFrame frame = frames.get(i);
+                pilha.append("\n\tat ")
+                        .append(frame.getMethod().getType().getName())
+                        .append('.')
+                        .append(frame.getMethod().getName())
+                        .append(':')
+                        .append(frame.getLineNumber());
+            }
+        }
+        log.warn("Virtual thread presa ao carrier por {} ms{}", event.getDuration().toMillis(), pilha);
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -0,0 +1,113 @@
+package com.sistema.parkapi.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link DataSource} que limita, por meio de um semáforo justo, quantas conexões podem estar
+ * emprestadas ao mesmo tempo.
+ * <p>
+ * Com virtual threads, milhares de requisições podem chegar ao banco simultaneamente; o semáforo
+ * faz com que elas esperem de forma barata (a virtual thread é desmontada do carrier) antes de
+ * chegar ao pool do Hikari, em vez de disputarem a fila interna do pool. A permissão é devolvida
+ * quando a conexão é fechada.
+ */
+public class GovernedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permissoes;
+    private final long acquireTimeoutNanos;
+    private final Timer tempoDeEspera;
+
+    public GovernedDataSource(DataSource target, int maxConcurrent, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        super(target);
+        this.permissoes = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.tempoDeEspera = Timer.builder("jdbc.governor.acquire")
+                .description("Tempo de espera por uma permissão de conexão")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.governor.available", permissoes, Semaphore::availablePermits)
+                .description("Permissões de conexão disponíveis")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.governor.waiting", permissoes, Semaphore::getQueueLength)
+                .description("Threads aguardando uma permissão de conexão")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        try {
+            return governar(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permissoes.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        try {
+            return governar(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permissoes.release();
+            throw ex;
+        }
+    }
+
+    private void adquirir() throws SQLException {
+        long inicio = System.nanoTime();
+        try {
+            if (!permissoes.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException(String.format(
+                        "Nenhuma conexão disponível após %d ms", TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos)));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão", ex);
+        } finally {
+            tempoDeEspera.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Envolve a conexão para que a permissão seja devolvida uma única vez, no {@code close()}.
+     */
+    private Connection governar(Connection connection) {
+        AtomicBoolean fechada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                GovernedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        if (!fechada.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            connection.close();
+                        } finally {
+                            permissoes.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,246 @@
+package com.sistema.parkapi.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link DataSource} que envia as transações somente leitura ({@code @Transactional(readOnly = true)})
+ * para um conjunto de réplicas e todo o resto para a base primária.
+ * <p>
+ * A escolha é feita quando a conexão é pedida, a partir do estado da transação corrente; por isso este
+ * {@code DataSource} deve ser usado atrás de um {@link LazyConnectionDataSourceProxy}, que só obtém a
+ * conexão física no primeiro comando, quando a transação já foi marcada como somente leitura.
+ * <p>
+ * As réplicas são usadas em rodízio. Uma réplica que falha ao entregar uma conexão, ou na verificação
+ * periódica ({@link Connection#isValid(int)}), sai do rodízio até voltar a responder; sem réplicas
+ * saudáveis as leituras vão para a primária.
+ * <p>
+ * Opcionalmente ({@code readYourWrites} maior que zero), uma escrita fixa as leituras seguintes na
+ * primária até o fim da mesma requisição e, para o usuário autenticado, pelo tempo informado, para
+ * que ele não leia da réplica um dado anterior à própria escrita.
+ * <p>
+ * Conexões pedidas com credenciais explícitas ({@link #getConnection(String, String)}) não passam pelo
+ * roteamento e vão sempre para a primária: as credenciais das réplicas são configuradas por pool e não
+ * valem necessariamente para elas.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final String FIXADO_NA_PRIMARIA = ReplicaRoutingDataSource.class.getName() + ".FIXADO";
+
+    private final DataSource primaria;
+    private final List<Replica> replicas;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final Cache<String, Boolean> usuariosFixados;
+    private final ScheduledExecutorService verificador;
+    private final Counter paraPrimaria;
+    private final Counter paraReplica;
+    private final Counter failovers;
+
+    /**
+     * Construtor da classe.
+     *
+     * @param primaria              a base primária, que recebe as escritas.
+     * @param replicas              as réplicas de leitura, na ordem do rodízio.
+     * @param intervaloDeVerificacao intervalo da verificação de saúde das réplicas.
+     * @param readYourWrites        por quanto tempo as leituras de um usuário ficam na primária após
+     *                              uma escrita dele; {@link Duration#ZERO} desativa a fixação.
+     * @param meterRegistry         registro onde as métricas de roteamento são publicadas.
+     */
+    public ReplicaRoutingDataSource(DataSource primaria, List<DataSource> replicas, Duration intervaloDeVerificacao,
+                                    Duration readYourWrites, MeterRegistry meterRegistry) {
+        this.primaria = primaria;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.usuariosFixados = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWrites)
+                .build();
+        this.paraPrimaria = Counter.builder("jdbc.routing").tag("destino", "primaria").register(meterRegistry);
+        this.paraReplica = Counter.builder("jdbc.routing").tag("destino", "replica").register(meterRegistry);
+        this.failovers = Counter.builder("jdbc.replicas.failover")
+                .description("Leituras desviadas para a primária por falha de uma réplica")
+                .register(meterRegistry);
+        Gauge.builder("jdbc.replicas.saudaveis", this.replicas, r -> r.stream().filter(Replica::isSaudavel).count())
+                .register(meterRegistry);
+
+        this.verificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replicas-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalo = intervaloDeVerificacao.toMillis();
+        verificador.scheduleWithFixedDelay(this::verificarReplicas, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!isLeitura()) {
+            if (usuariosFixados != null && TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                fixarNaPrimaria();
+            }
+            paraPrimaria.increment();
+            return primaria.getConnection();
+        }
+        int tamanho = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(tamanho, 1));
+        for (int i = 0; i < tamanho; i++) {
+            Replica replica = replicas.get((inicio + i) % tamanho);
+            if (!replica.isSaudavel()) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource().getConnection();
+                paraReplica.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replica.marcar(false, ex);
+            }
+        }
+        if (tamanho > 0) {
+            failovers.increment();
+        }
+        paraPrimaria.increment();
+        return primaria.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        paraPrimaria.increment();
+        return primaria.getConnection(username, password);
+    }
+
+    /**
+     * Indica se a conexão pedida agora pode ir para uma réplica.
+     */
+    private boolean isLeitura() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !isFixadoNaPrimaria();
+    }
+
+    private void fixarNaPrimaria() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(FIXADO_NA_PRIMARIA, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        String usuario = usuarioAutenticado();
+        if (usuario != null) {
+            usuariosFixados.put(usuario, Boolean.TRUE);
+        }
+    }
+
+    private boolean isFixadoNaPrimaria() {
+        if (usuariosFixados == null) {
+            return false;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(FIXADO_NA_PRIMARIA, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        String usuario = usuarioAutenticado();
+        return usuario != null && usuariosFixados.getIfPresent(usuario) != null;
+    }
+
+    private static String usuarioAutenticado() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    /**
+     * Verifica cada réplica e atualiza sua participação no rodízio.
+     */
+    void verificarReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource().getConnection()) {
+                replica.marcar(connection.isValid(2), null);
+            } catch (SQLException | RuntimeException ex) {
+                replica.marcar(false, ex);
+            }
+        }
+    }
+
+    /**
+     * Encerra a verificação de saúde e fecha os pools da primária e das réplicas.
+     */
+    @Override
+    public void close() {
+        verificador.shutdownNow();
+        fechar("primaria", primaria);
+        for (Replica replica : replicas) {
+            fechar(replica.nome(), replica.dataSource());
+        }
+    }
+
+    private static void fechar(String nome, DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                log.warn("Falha ao fechar o pool {}: {}", nome, ex.getMessage());
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String nome;
+        private final DataSource dataSource;
+        private volatile boolean saudavel = true;
+
+        Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        String nome() {
+            return nome;
+        }
+
+        DataSource dataSource() {
+            return dataSource;
+        }
+
+        boolean isSaudavel() {
+            return saudavel;
+        }
+
+        void marcar(boolean saudavel, Exception causa) {
+            if (this.saudavel == saudavel) {
+                return;
+            }
+            this.saudavel = saudavel;
+            if (saudavel) {
+                log.info("Réplica {} de volta ao rodízio de leitura", nome);
+            } else {
+                log.warn("Réplica {} fora do rodízio de leitura: {}", nome, causa == null ? "conexão inválida" : causa.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Plano mensal de um cliente. Assinantes ativos com {@code ROLE_CLIENTE} recebem no fim do mês uma
+ * fatura com a mensalidade, em centavos, e os tickets encerrados no mês.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "assinaturas")
+public class Assinatura implements Serializable {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long usuarioId;
+
+    @Column(name = "plano", nullable = false, length = 50)
+    private String plano;
+
+    @Column(name = "mensalidade", nullable = false)
+    private long mensalidade;
+
+    @Column(name = "ativa", nullable = false)
+    private boolean ativa;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Assinatura that = (Assinatura) o;
+        return Objects.equals(usuarioId, that.usuarioId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(usuarioId);
+    }
+
+    @Override
+    public String toString() {
+        return "Assinatura{" +
+                "usuarioId=" + usuarioId +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Par de chaves de assinatura JWT compartilhado entre as instâncias da aplicação.
+ * <p>
+ * Cada rotação cria uma nova {@code geracao} do algoritmo; a restrição única sobre
+ * (algoritmo, geração) garante que apenas uma instância crie a próxima chave. A chave nova é
+ * publicada antes da {@code dataAtivacao}, para que todas as instâncias já a conheçam quando
+ * os primeiros tokens assinados com ela chegarem. A {@code chavePrivada} é gravada cifrada pelo
+ * {@code JwtKeyRing}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "jwt_chaves", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_jwt_chaves_algoritmo_geracao", columnNames = {"algoritmo", "geracao"})
+})
+public class ChaveJwt implements Serializable {
+
+    @Id
+    @Column(name = "kid", length = 36)
+    private String kid;
+
+    @Column(name = "algoritmo", nullable = false, length = 10)
+    private String algoritmo;
+
+    @Column(name = "geracao", nullable = false)
+    private Long geracao;
+
+    @Column(name = "chave_publica", nullable = false, length = 512)
+    private String chavePublica;
+
+    @Column(name = "chave_privada", nullable = false, length = 512)
+    private String chavePrivada;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "data_ativacao", nullable = false)
+    private LocalDateTime dataAtivacao;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChaveJwt chaveJwt = (ChaveJwt) o;
+        return Objects.equals(kid, chaveJwt.kid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kid);
+    }
+
+    @Override
+    public String toString() {
+        return "ChaveJwt{" +
+                "kid='" + kid + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,75 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Estacionamento com vagas numeradas de 1 a {@code totalVagas}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "estacionamentos")
+@EntityListeners(AuditingEntityListener.class)
+public class Estacionamento implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "estacionamentos_seq")
+    @SequenceGenerator(name = "estacionamentos_seq", sequenceName = "estacionamentos_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "nome", nullable = false, unique = true, length = 100)
+    private String nome;
+
+    @Column(name = "total_vagas", nullable = false)
+    private int totalVagas;
+
+    @CreatedDate
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+
+    @LastModifiedDate
+    @Column(name = "data_modificacao")
+    private LocalDateTime dataModificacao;
+
+    @CreatedBy
+    @Column(name = "criado_por")
+    private String criadoPor;
+
+    @LastModifiedBy
+    @Column(name = "modificado_por")
+    private String modificadoPor;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Estacionamento that = (Estacionamento) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Estacionamento{" +
+                "id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,90 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Fatura mensal de um assinante; valores em centavos. A {@code competencia} é o primeiro dia do mês
+ * faturado. A fatura é criada {@code ABERTA} no início do faturamento, recebe os tickets a cada
+ * checkpoint e passa a {@code EMITIDA}, com o total, quando o mês inteiro foi processado.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "faturas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_faturas_usuario_competencia", columnNames = {"id_usuario", "competencia"})
+}, indexes = {
+        @Index(name = "idx_faturas_competencia", columnList = "competencia")
+})
+public class Fatura implements Serializable {
+
+    public enum Estado {
+        ABERTA, EMITIDA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "faturas_seq")
+    @SequenceGenerator(name = "faturas_seq", sequenceName = "faturas_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "competencia", nullable = false)
+    private LocalDate competencia;
+
+    @Column(name = "mensalidade", nullable = false)
+    private long mensalidade;
+
+    @Column(name = "quantidade_tickets", nullable = false)
+    private long quantidadeTickets;
+
+    @Column(name = "valor_tickets", nullable = false)
+    private long valorTickets;
+
+    @Column(name = "total")
+    private Long total;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 10)
+    private Estado estado = Estado.ABERTA;
+
+    @Column(name = "data_emissao")
+    private LocalDateTime dataEmissao;
+
+    public Fatura(Long usuarioId, LocalDate competencia, long mensalidade) {
+        this.usuarioId = usuarioId;
+        this.competencia = competencia;
+        this.mensalidade = mensalidade;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Fatura fatura = (Fatura) o;
+        return Objects.equals(id, fatura.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Fatura{" +
+                "usuarioId=" + usuarioId +
+                ", competencia=" + competencia +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progresso do faturamento de uma competência: os tickets até {@code ultimoTicketId} já estão somados
+ * às faturas abertas. Uma execução interrompida é retomada a partir daqui.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "faturamento_checkpoints")
+public class FaturamentoCheckpoint implements Serializable {
+
+    @Id
+    @Column(name = "competencia")
+    private LocalDate competencia;
+
+    @Column(name = "ultimo_ticket_id", nullable = false)
+    private long ultimoTicketId;
+
+    @Column(name = "tickets_processados", nullable = false)
+    private long ticketsProcessados;
+
+    @Column(name = "concluido", nullable = false)
+    private boolean concluido;
+
+    @Column(name = "data_atualizacao", nullable = false)
+    private LocalDateTime dataAtualizacao;
+}
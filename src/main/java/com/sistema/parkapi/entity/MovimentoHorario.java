@@ -0,0 +1,70 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Movimento de um estacionamento em uma hora local: entradas, saídas, maior quantidade de tickets
+ * abertos e receita das saídas, em centavos. Mantido incrementalmente a partir dos tickets; é a fonte
+ * dos painéis, que não agregam a tabela {@code tickets}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "movimentos_horarios", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_movimentos_horarios_estacionamento_hora", columnNames = {"id_estacionamento", "hora"})
+})
+public class MovimentoHorario implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimentos_horarios_seq")
+    @SequenceGenerator(name = "movimentos_horarios_seq", sequenceName = "movimentos_horarios_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_estacionamento", nullable = false)
+    private Long estacionamentoId;
+
+    @Column(name = "hora", nullable = false)
+    private LocalDateTime hora;
+
+    @Column(name = "entradas", nullable = false)
+    private long entradas;
+
+    @Column(name = "saidas", nullable = false)
+    private long saidas;
+
+    @Column(name = "pico_ocupacao", nullable = false)
+    private long picoOcupacao;
+
+    @Column(name = "receita", nullable = false)
+    private long receita;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MovimentoHorario that = (MovimentoHorario) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "MovimentoHorario{" +
+                "estacionamentoId=" + estacionamentoId +
+                ", hora=" + hora +
+                '}';
+    }
+}
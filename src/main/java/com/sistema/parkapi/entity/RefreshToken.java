@@ -0,0 +1,71 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Refresh token opaco emitido no login.
+ * <p>
+ * Apenas o hash SHA-256 do token é gravado. Os tokens de uma mesma cadeia de rotação compartilham
+ * a {@code familia}: quando um token já rotacionado é reapresentado, toda a família é revogada.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_familia", columnList = "familia"),
+        @Index(name = "idx_refresh_tokens_id_usuario", columnList = "id_usuario")
+})
+public class RefreshToken implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 43)
+    private String tokenHash;
+
+    @Column(name = "familia", nullable = false, length = 36)
+    private String familia;
+
+    @Column(name = "id_usuario", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "data_criacao", nullable = false)
+    private LocalDateTime dataCriacao;
+
+    @Column(name = "data_expiracao", nullable = false)
+    private LocalDateTime dataExpiracao;
+
+    @Column(name = "data_revogacao")
+    private LocalDateTime dataRevogacao;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RefreshToken that = (RefreshToken) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "RefreshToken{" +
+                "id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,81 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * Tabela tarifária de um estacionamento. Os valores são em centavos.
+ * <p>
+ * A permanência até {@code toleranciaMinutos} é gratuita. Acima dela, cobra-se a primeira hora e,
+ * depois dela, cada fração de {@code minutosFracao} iniciada, pelo valor noturno se a fração começa
+ * entre {@code inicioNoturno} e {@code fimNoturno}. A cada 24 horas de permanência, a cobrança é
+ * limitada a {@code tetoDiario} (zero = sem teto). Clientes e administradores têm desconto percentual.
+ * A tabela é usada na forma compilada ({@code TarifaCompilada}).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "tabelas_tarifarias")
+public class TabelaTarifaria implements Serializable {
+
+    @Id
+    @Column(name = "id_estacionamento")
+    private Long estacionamentoId;
+
+    @Column(name = "tolerancia_minutos", nullable = false)
+    private int toleranciaMinutos;
+
+    @Column(name = "valor_primeira_hora", nullable = false)
+    private long valorPrimeiraHora;
+
+    @Column(name = "minutos_fracao", nullable = false)
+    private int minutosFracao;
+
+    @Column(name = "valor_fracao", nullable = false)
+    private long valorFracao;
+
+    @Column(name = "valor_fracao_noturna", nullable = false)
+    private long valorFracaoNoturna;
+
+    @Column(name = "inicio_noturno", nullable = false)
+    private LocalTime inicioNoturno;
+
+    @Column(name = "fim_noturno", nullable = false)
+    private LocalTime fimNoturno;
+
+    @Column(name = "teto_diario", nullable = false)
+    private long tetoDiario;
+
+    @Column(name = "desconto_cliente", nullable = false)
+    private int descontoCliente;
+
+    @Column(name = "desconto_admin", nullable = false)
+    private int descontoAdmin;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TabelaTarifaria that = (TabelaTarifaria) o;
+        return Objects.equals(estacionamentoId, that.estacionamentoId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(estacionamentoId);
+    }
+
+    @Override
+    public String toString() {
+        return "TabelaTarifaria{" +
+                "estacionamentoId=" + estacionamentoId +
+                '}';
+    }
+}
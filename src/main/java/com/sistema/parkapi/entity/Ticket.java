@@ -0,0 +1,82 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Ticket de permanência de um veículo, aberto na entrada e encerrado na saída.
+ * <p>
+ * O {@code codigo} é gerado na entrada e é a referência usada pelas cancelas; o {@code id} só existe
+ * depois que o ticket é gravado na base, o que acontece em lote, após a confirmação à cancela.
+ * As chaves de idempotência das duas chamadas são guardadas para reconstruir a deduplicação na subida.
+ * O {@code valor}, em centavos, é calculado na saída pela tabela tarifária do estacionamento.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "tickets", indexes = {
+        @Index(name = "idx_tickets_data_entrada", columnList = "data_entrada"),
+        @Index(name = "idx_tickets_data_saida", columnList = "data_saida")
+})
+public class Ticket implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "codigo", nullable = false, unique = true, length = 36)
+    private String codigo;
+
+    @Column(name = "id_estacionamento", nullable = false)
+    private Long estacionamentoId;
+
+    @Column(name = "placa", nullable = false, length = 10)
+    private String placa;
+
+    @Column(name = "id_usuario")
+    private Long usuarioId;
+
+    @Column(name = "data_entrada", nullable = false)
+    private LocalDateTime dataEntrada;
+
+    @Column(name = "data_saida")
+    private LocalDateTime dataSaida;
+
+    @Column(name = "chave_entrada", nullable = false, length = 64)
+    private String chaveEntrada;
+
+    @Column(name = "chave_saida", length = 64)
+    private String chaveSaida;
+
+    @Column(name = "valor")
+    private Long valor;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Ticket ticket = (Ticket) o;
+        return Objects.equals(codigo, ticket.codigo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(codigo);
+    }
+
+    @Override
+    public String toString() {
+        return "Ticket{" +
+                "codigo='" + codigo + '\'' +
+                '}';
+    }
+}
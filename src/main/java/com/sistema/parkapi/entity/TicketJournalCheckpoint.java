@@ -0,0 +1,32 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Última sequência do diário de tickets de uma instância já gravada na base. É atualizada na mesma
+ * transação do lote gravado, de modo que a recuperação do diário na subida não grave um evento duas vezes.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ticket_journal_checkpoints")
+public class TicketJournalCheckpoint implements Serializable {
+
+    @Id
+    @Column(name = "instancia", length = 100)
+    private String instancia;
+
+    @Column(name = "sequencia", nullable = false)
+    private long sequencia;
+}
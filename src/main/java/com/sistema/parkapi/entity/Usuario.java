@@ -2,6 +2,10 @@ package com.sistema.parkapi.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -10,6 +14,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 @Getter
@@ -17,16 +22,35 @@ import java.util.Objects;
 @NoArgsConstructor
 @Entity
 @Table(name = "usuarios")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Usuario.REGIAO_CACHE)
+@NaturalIdCache(region = Usuario.REGIAO_CACHE_NATURAL_ID)
 @EntityListeners(AuditingEntityListener.class)
 public class Usuario implements Serializable {
 
+    /**
+     * Região do cache de segundo nível com as entidades, por id.
+     */
+    public static final String REGIAO_CACHE = "usuarios";
+
+    /**
+     * Região do cache de segundo nível que resolve o username normalizado para o id.
+     */
+    public static final String REGIAO_CACHE_NATURAL_ID = "usuarios-natural-id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_seq")
+    @SequenceGenerator(name = "usuarios_seq", sequenceName = "usuarios_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "username", nullable = false, unique = true, length = 100)
+    @Column(name = "username", nullable = false, length = 100)
     private String username;
+    /**
+     * Username em minúsculas, mantido pela própria entidade; é a coluna única e indexada usada nas buscas.
+     */
+    @NaturalId
+    @Column(name = "username_normalizado", nullable = false, unique = true, length = 100)
+    private String usernameNormalizado;
     @Column(name = "password", nullable = false, length = 200)
     private String password;
     @Enumerated(EnumType.STRING)
@@ -53,6 +77,22 @@ public class Usuario implements Serializable {
         ROLE_ADMIN, ROLE_CLIENTE
     }
 
+    /**
+     * Normaliza o username para busca e unicidade.
+     *
+     * @param username o username informado.
+     * @return o username em minúsculas, ou {@code null}.
+     */
+    public static String normalizar(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    private void normalizarUsername() {
+        this.usernameNormalizado = normalizar(username);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
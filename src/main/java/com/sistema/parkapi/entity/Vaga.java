@@ -0,0 +1,69 @@
+package com.sistema.parkapi.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Vaga de um estacionamento. A vaga está ocupada enquanto {@code usuarioId} estiver preenchido;
+ * é o estado durável a partir do qual o mapa de ocupação em memória é reconstruído.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "vagas", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vagas_estacionamento_numero", columnNames = {"id_estacionamento", "numero"})
+}, indexes = {
+        @Index(name = "idx_vagas_id_usuario", columnList = "id_usuario")
+})
+public class Vaga implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vagas_seq")
+    @SequenceGenerator(name = "vagas_seq", sequenceName = "vagas_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_estacionamento", nullable = false)
+    private Long estacionamentoId;
+
+    @Column(name = "numero", nullable = false)
+    private int numero;
+
+    @Column(name = "id_usuario")
+    private Long usuarioId;
+
+    @Column(name = "data_ocupacao")
+    private LocalDateTime dataOcupacao;
+
+    public Vaga(Long estacionamentoId, int numero) {
+        this.estacionamentoId = estacionamentoId;
+        this.numero = numero;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Vaga vaga = (Vaga) o;
+        return Objects.equals(id, vaga.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "Vaga{" +
+                "id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class CapacityExceededException extends RuntimeException {
+
+    public CapacityExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
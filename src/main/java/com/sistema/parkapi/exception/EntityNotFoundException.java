@@ -3,6 +3,6 @@ package com.sistema.parkapi.exception;
 public class EntityNotFoundException extends RuntimeException {
 
     public EntityNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
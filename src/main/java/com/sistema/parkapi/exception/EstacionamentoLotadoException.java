@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class EstacionamentoLotadoException extends RuntimeException {
+
+    public EstacionamentoLotadoException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class EstacionamentoNomeUniqueViolationException extends RuntimeException {
+
+    public EstacionamentoNomeUniqueViolationException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class FaturamentoIndisponivelException extends RuntimeException {
+
+    public FaturamentoIndisponivelException(String message) {
+        super(message, null, false, false);
+    }
+}
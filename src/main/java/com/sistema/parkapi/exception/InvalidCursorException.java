@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message, null, false, false);
+    }
+}
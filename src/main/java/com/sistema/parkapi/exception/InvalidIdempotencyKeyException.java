@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+        super(message, null, false, false);
+    }
+}
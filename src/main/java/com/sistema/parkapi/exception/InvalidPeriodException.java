@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class InvalidPeriodException extends RuntimeException {
+
+    public InvalidPeriodException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sistema.parkapi.exception;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sistema.parkapi.exception;
+
+import lombok.Getter;
+
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -2,6 +2,6 @@ package com.sistema.parkapi.exception;
 
 public class UserNameUniqueViolationException extends RuntimeException {
     public UserNameUniqueViolationException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,49 @@
+package com.sistema.parkapi.faturamento;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Soma os tickets de um lote às faturas dos assinantes, dividindo o lote ao meio até trechos de
+ * {@value #LIMIAR} tickets. O assinante é localizado por busca binária nos ids ordenados, e os
+ * acumuladores são indexados pela mesma posição; tickets de quem não é assinante são ignorados.
+ */
+final class AgregacaoFaturas extends RecursiveAction {
+
+    private static final int LIMIAR = 8_192;
+
+    private final LoteTickets lote;
+    private final long[] assinantes;
+    private final AtomicLongArray quantidades;
+    private final AtomicLongArray valores;
+    private final int inicio;
+    private final int fim;
+
+    AgregacaoFaturas(LoteTickets lote, long[] assinantes, AtomicLongArray quantidades, AtomicLongArray valores,
+                     int inicio, int fim) {
+        this.lote = lote;
+        this.assinantes = assinantes;
+        this.quantidades = quantidades;
+        this.valores = valores;
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    @Override
+    protected void compute() {
+        if (fim - inicio <= LIMIAR) {
+            for (int i = inicio; i < fim; i++) {
+                int assinante = Arrays.binarySearch(assinantes, lote.usuarios[i]);
+                if (assinante >= 0) {
+                    quantidades.incrementAndGet(assinante);
+                    valores.addAndGet(assinante, lote.valores[i]);
+                }
+            }
+            return;
+        }
+        int meio = (inicio + fim) >>> 1;
+        invokeAll(new AgregacaoFaturas(lote, assinantes, quantidades, valores, inicio, meio),
+                new AgregacaoFaturas(lote, assinantes, quantidades, valores, meio, fim));
+    }
+}
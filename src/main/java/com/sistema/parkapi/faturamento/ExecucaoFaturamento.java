@@ -0,0 +1,50 @@
+package com.sistema.parkapi.faturamento;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Situação de uma execução do {@link FaturamentoMensal}. Os totais, em centavos, são preenchidos na
+ * conclusão e cobrem a competência inteira, inclusive o que foi somado antes de uma retomada.
+ *
+ * @param competencia        mês faturado.
+ * @param simulacao          {@code true} se nada é gravado.
+ * @param estado             situação da execução.
+ * @param ticketsProcessados tickets do mês já somados às faturas.
+ * @param progresso          fração, de 0 a 1, do intervalo de ids dos tickets do mês já percorrida.
+ * @param faturas            quantidade de faturas.
+ * @param quantidadeTickets  tickets faturados.
+ * @param valorTickets       soma dos valores dos tickets faturados.
+ * @param valorMensalidades  soma das mensalidades.
+ * @param inicio             início da execução.
+ * @param fim                fim da execução, ou {@code null} se ainda em andamento.
+ * @param erro               mensagem da falha, se houver.
+ */
+public record ExecucaoFaturamento(YearMonth competencia, boolean simulacao, Estado estado, long ticketsProcessados,
+                                  double progresso, long faturas, long quantidadeTickets, long valorTickets,
+                                  long valorMensalidades, LocalDateTime inicio, LocalDateTime fim, String erro) {
+
+    public enum Estado {
+        EM_ANDAMENTO, CONCLUIDA, FALHOU
+    }
+
+    static ExecucaoFaturamento iniciada(YearMonth competencia, boolean simulacao) {
+        return new ExecucaoFaturamento(competencia, simulacao, Estado.EM_ANDAMENTO, 0, 0, 0, 0, 0, 0,
+                LocalDateTime.now(), null, null);
+    }
+
+    ExecucaoFaturamento comProgresso(long ticketsProcessados, double progresso) {
+        return new ExecucaoFaturamento(competencia, simulacao, estado, ticketsProcessados, progresso, faturas,
+                quantidadeTickets, valorTickets, valorMensalidades, inicio, fim, erro);
+    }
+
+    ExecucaoFaturamento concluida(long faturas, long quantidadeTickets, long valorTickets, long valorMensalidades) {
+        return new ExecucaoFaturamento(competencia, simulacao, Estado.CONCLUIDA, ticketsProcessados, 1, faturas,
+                quantidadeTickets, valorTickets, valorMensalidades, inicio, LocalDateTime.now(), null);
+    }
+
+    ExecucaoFaturamento falha(String mensagem) {
+        return new ExecucaoFaturamento(competencia, simulacao, Estado.FALHOU, ticketsProcessados, progresso, faturas,
+                quantidadeTickets, valorTickets, valorMensalidades, inicio, LocalDateTime.now(), mensagem);
+    }
+}
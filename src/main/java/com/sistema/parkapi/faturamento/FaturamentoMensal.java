@@ -0,0 +1,350 @@
+package com.sistema.parkapi.faturamento;
+
+import com.sistema.parkapi.entity.Fatura;
+import com.sistema.parkapi.entity.FaturamentoCheckpoint;
+import com.sistema.parkapi.exception.FaturamentoIndisponivelException;
+import com.sistema.parkapi.exception.InvalidPeriodException;
+import com.sistema.parkapi.repository.FaturaRepository;
+import com.sistema.parkapi.repository.FaturamentoCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Faturamento mensal dos assinantes: uma fatura por assinatura ativa de cliente ({@code ROLE_CLIENTE}),
+ * com a mensalidade e os tickets encerrados no mês.
+ * <p>
+ * Os tickets do mês são lidos em lotes de {@code park.faturamento.tamanho-lote}, em ordem de id a
+ * partir do último id lido, sem consultas por usuário. Cada lote é somado por assinante em paralelo
+ * ({@link AgregacaoFaturas}, em um {@link ForkJoinPool} dedicado) enquanto o lote seguinte é lido.
+ * <p>
+ * No início, as faturas de todos os assinantes são criadas abertas, com a mensalidade. A cada
+ * {@code park.faturamento.checkpoint-tickets} tickets, os valores acumulados são somados às faturas com
+ * um batch JDBC de UPDATEs, na mesma transação que grava o último id somado. Uma execução interrompida
+ * retoma desse ponto, com os assinantes das faturas já abertas. A última transação emite as faturas. A
+ * simulação calcula os mesmos totais sem gravar nada.
+ * <p>
+ * O progresso é publicado em {@code faturamento.progresso} (0 a 1) e {@code faturamento.tickets}. Só
+ * meses encerrados podem ser faturados; saídas que ainda estejam no diário de alguma instância não
+ * entram, por isso o faturamento deve rodar após a virada do mês, não no primeiro minuto.
+ */
+@Slf4j
+@Component
+public class FaturamentoMensal implements DisposableBean {
+
+    private static final String ASSINANTES = "SELECT a.id_usuario, a.mensalidade FROM assinaturas a " +
+            "JOIN usuarios u ON u.id = a.id_usuario WHERE a.ativa = TRUE AND u.role = 'ROLE_CLIENTE' ORDER BY a.id_usuario";
+    private static final String ASSINANTES_FATURADOS = "SELECT id_usuario, mensalidade FROM faturas " +
+            "WHERE competencia = ? ORDER BY id_usuario";
+    private static final String LIMITES = "SELECT min(id), max(id) FROM tickets " +
+            "WHERE data_saida >= ? AND data_saida < ? AND id_usuario IS NOT NULL";
+    private static final String TICKETS = "SELECT id, id_usuario, valor FROM tickets " +
+            "WHERE id > ? AND id <= ? AND data_saida >= ? AND data_saida < ? AND id_usuario IS NOT NULL ORDER BY id LIMIT ?";
+    private static final String SOMAR = "UPDATE faturas SET quantidade_tickets = quantidade_tickets + ?, " +
+            "valor_tickets = valor_tickets + ? WHERE id_usuario = ? AND competencia = ? AND estado = 'ABERTA'";
+    private static final String AVANCAR = "UPDATE faturamento_checkpoints SET ultimo_ticket_id = ?, tickets_processados = ?, " +
+            "data_atualizacao = ? WHERE competencia = ? AND ultimo_ticket_id = ? AND concluido = FALSE";
+    private static final String EMITIR = "UPDATE faturas SET total = mensalidade + valor_tickets, estado = 'EMITIDA', " +
+            "data_emissao = ? WHERE competencia = ? AND estado = 'ABERTA'";
+    private static final String CONCLUIR = "UPDATE faturamento_checkpoints SET concluido = TRUE, data_atualizacao = ? " +
+            "WHERE competencia = ?";
+    private static final String TOTAIS = "SELECT count(*), coalesce(sum(quantidade_tickets), 0), " +
+            "coalesce(sum(valor_tickets), 0), coalesce(sum(mensalidade), 0) FROM faturas WHERE competencia = ?";
+    private static final int TAMANHO_BATCH = 1_000;
+
+    private final FaturaRepository faturaRepository;
+    private final FaturamentoCheckpointRepository checkpointRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final long checkpointTickets;
+    private final ForkJoinPool pool;
+    private final ExecutorService executor;
+    private final AtomicReference<ExecucaoFaturamento> execucao = new AtomicReference<>();
+    private final Counter tickets;
+    private final Timer leitura;
+    private final Timer gravacao;
+
+    public FaturamentoMensal(FaturaRepository faturaRepository,
+                             FaturamentoCheckpointRepository checkpointRepository,
+                             EntityManager entityManager,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${park.faturamento.tamanho-lote:50000}") int tamanhoLote,
+                             @Value("${park.faturamento.checkpoint-tickets:500000}") long checkpointTickets,
+                             @Value("${park.faturamento.paralelismo:0}") int paralelismo,
+                             MeterRegistry meterRegistry) {
+        this.faturaRepository = faturaRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.checkpointTickets = checkpointTickets;
+        this.pool = new ForkJoinPool(paralelismo > 0 ? paralelismo : Runtime.getRuntime().availableProcessors());
+        this.executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("faturamento-"));
+        this.tickets = Counter.builder("faturamento.tickets")
+                .description("Tickets somados às faturas pelo faturamento mensal")
+                .register(meterRegistry);
+        this.leitura = Timer.builder("faturamento.leitura").register(meterRegistry);
+        this.gravacao = Timer.builder("faturamento.checkpoint").register(meterRegistry);
+        Gauge.builder("faturamento.progresso", execucao, atual -> atual.get() == null ? 0 : atual.get().progresso())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Inicia o faturamento da competência em segundo plano.
+     *
+     * @param competencia mês a faturar; precisa estar encerrado.
+     * @param simulacao   calcula os totais sem gravar faturas.
+     * @return a situação inicial da execução.
+     * @throws InvalidPeriodException           se o mês não estiver encerrado.
+     * @throws FaturamentoIndisponivelException se já houver um faturamento em execução ou o mês já estiver faturado.
+     */
+    public ExecucaoFaturamento iniciar(YearMonth competencia, boolean simulacao) {
+        if (!competencia.isBefore(YearMonth.now())) {
+            throw new InvalidPeriodException(String.format("A competência %s ainda não foi encerrada", competencia));
+        }
+        if (!simulacao && checkpointRepository.findById(competencia.atDay(1))
+                .map(FaturamentoCheckpoint::isConcluido).orElse(false)) {
+            throw new FaturamentoIndisponivelException(String.format("A competência %s já foi faturada", competencia));
+        }
+        ExecucaoFaturamento atual = execucao.get();
+        ExecucaoFaturamento nova = ExecucaoFaturamento.iniciada(competencia, simulacao);
+        if (atual != null && atual.estado() == ExecucaoFaturamento.Estado.EM_ANDAMENTO
+                || !execucao.compareAndSet(atual, nova)) {
+            throw new FaturamentoIndisponivelException("Já existe um faturamento em execução");
+        }
+        executor.execute(() -> executar(nova));
+        return nova;
+    }
+
+    /**
+     * Situação da execução em andamento ou da última executada nesta instância.
+     */
+    public Optional<ExecucaoFaturamento> getExecucao() {
+        return Optional.ofNullable(execucao.get());
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void executar(ExecucaoFaturamento inicial) {
+        try {
+            ExecucaoFaturamento concluida = faturar(inicial);
+            execucao.set(concluida);
+            log.info("Faturamento de {}{} concluído: {} fatura(s), {} ticket(s), total de {} centavos",
+                    concluida.competencia(), concluida.simulacao() ? " (simulação)" : "", concluida.faturas(),
+                    concluida.quantidadeTickets(), concluida.valorTickets() + concluida.valorMensalidades());
+        } catch (RuntimeException ex) {
+            log.error("Falha no faturamento de {}; uma nova execução retoma do último checkpoint", inicial.competencia(), ex);
+            execucao.set(execucao.get().falha(ex.getMessage()));
+        }
+    }
+
+    private ExecucaoFaturamento faturar(ExecucaoFaturamento inicial) {
+        YearMonth competencia = inicial.competencia();
+        LocalDate mes = competencia.atDay(1);
+        Timestamp de = Timestamp.valueOf(mes.atStartOfDay());
+        Timestamp ate = Timestamp.valueOf(competencia.plusMonths(1).atDay(1).atStartOfDay());
+        boolean simulacao = inicial.simulacao();
+
+        long ultimo = 0;
+        long processados = 0;
+        Assinantes assinantes;
+        Optional<FaturamentoCheckpoint> salvo = simulacao ? Optional.empty() : checkpointRepository.findById(mes);
+        if (salvo.isPresent()) {
+            if (salvo.get().isConcluido()) {
+                throw new FaturamentoIndisponivelException(String.format("A competência %s já foi faturada", competencia));
+            }
+            ultimo = salvo.get().getUltimoTicketId();
+            processados = salvo.get().getTicketsProcessados();
+            assinantes = assinantes(ASSINANTES_FATURADOS, Date.valueOf(mes));
+            log.info("Retomando o faturamento de {} após o ticket {} ({} já processados)", competencia, ultimo, processados);
+        } else {
+            assinantes = assinantes(ASSINANTES);
+            if (!simulacao) {
+                abrir(mes, assinantes);
+            }
+        }
+
+        long[] limites = jdbcTemplate.queryForObject(LIMITES, (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)}, de, ate);
+        long primeiro = limites[0];
+        long maior = limites[1];
+        long posicao = Math.max(ultimo, primeiro - 1);
+        AtomicLongArray quantidades = new AtomicLongArray(assinantes.ids().length);
+        AtomicLongArray valores = new AtomicLongArray(assinantes.ids().length);
+        Totais totais = new Totais();
+        long checkpointAnterior = ultimo;
+        long desdeCheckpoint = 0;
+
+        LoteTickets lote = ler(new LoteTickets(tamanhoLote), posicao, maior, de, ate);
+        LoteTickets livre = new LoteTickets(tamanhoLote);
+        while (lote.tamanho > 0) {
+            ForkJoinTask<Void> agregacao = pool.submit(new AgregacaoFaturas(lote, assinantes.ids(), quantidades, valores,
+                    0, lote.tamanho));
+            // O próximo lote é lido enquanto o atual é somado
+            LoteTickets proximo = lote.isCheio() ? ler(livre, lote.ultimoId(), maior, de, ate) : vazio(livre);
+            agregacao.join();
+
+            posicao = lote.ultimoId();
+            processados += lote.tamanho;
+            desdeCheckpoint += lote.tamanho;
+            tickets.increment(lote.tamanho);
+            execucao.set(execucao.get().comProgresso(processados,
+                    maior > primeiro ? (double) (posicao - primeiro + 1) / (maior - primeiro + 1) : 1));
+            if (desdeCheckpoint >= checkpointTickets) {
+                checkpoint(mes, assinantes, quantidades, valores, totais, simulacao, checkpointAnterior, posicao,
+                        processados, false);
+                checkpointAnterior = posicao;
+                desdeCheckpoint = 0;
+            }
+            livre = lote;
+            lote = proximo;
+        }
+        checkpoint(mes, assinantes, quantidades, valores, totais, simulacao, checkpointAnterior, posicao, processados, true);
+
+        if (simulacao) {
+            long mensalidades = 0;
+            for (long mensalidade : assinantes.mensalidades()) {
+                mensalidades += mensalidade;
+            }
+            return execucao.get().concluida(assinantes.ids().length, totais.quantidade, totais.valor, mensalidades);
+        }
+        return jdbcTemplate.queryForObject(TOTAIS, (rs, n) -> execucao.get().concluida(rs.getLong(1), rs.getLong(2),
+                rs.getLong(3), rs.getLong(4)), Date.valueOf(mes));
+    }
+
+    /**
+     * Cria o checkpoint e as faturas abertas de todos os assinantes, em uma transação.
+     */
+    private void abrir(LocalDate mes, Assinantes assinantes) {
+        gravacao.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            checkpointRepository.save(new FaturamentoCheckpoint(mes, 0, 0, false, LocalDateTime.now()));
+            long[] ids = assinantes.ids();
+            for (int i = 0; i < ids.length; i++) {
+                faturaRepository.save(new Fatura(ids[i], mes, assinantes.mensalidades()[i]));
+                if ((i + 1) % TAMANHO_BATCH == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }));
+        log.info("Faturamento de {}: {} fatura(s) aberta(s)", YearMonth.from(mes), assinantes.ids().length);
+    }
+
+    /**
+     * Soma às faturas os valores acumulados desde o checkpoint anterior e zera os acumuladores. O
+     * checkpoint só avança se ainda estiver onde esta execução o deixou; outra execução da mesma
+     * competência, em outra instância, faz esta falhar.
+     */
+    private void checkpoint(LocalDate mes, Assinantes assinantes, AtomicLongArray quantidades, AtomicLongArray valores,
+                            Totais totais, boolean simulacao, long anterior, long ultimo, long processados,
+                            boolean concluir) {
+        List<long[]> somas = new ArrayList<>();
+        for (int i = 0; i < quantidades.length(); i++) {
+            long quantidade = quantidades.get(i);
+            if (quantidade > 0) {
+                long valor = valores.get(i);
+                somas.add(new long[]{assinantes.ids()[i], quantidade, valor});
+                totais.quantidade += quantidade;
+                totais.valor += valor;
+                quantidades.set(i, 0);
+                valores.set(i, 0);
+            }
+        }
+        if (simulacao) {
+            return;
+        }
+        Date competencia = Date.valueOf(mes);
+        gravacao.record(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(SOMAR, somas, TAMANHO_BATCH, (ps, soma) -> {
+                ps.setLong(1, soma[1]);
+                ps.setLong(2, soma[2]);
+                ps.setLong(3, soma[0]);
+                ps.setDate(4, competencia);
+            });
+            Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+            if (jdbcTemplate.update(AVANCAR, ultimo, processados, agora, competencia, anterior) == 0) {
+                throw new IllegalStateException("Checkpoint do faturamento de " + YearMonth.from(mes)
+                        + " alterado por outra execução");
+            }
+            if (concluir) {
+                jdbcTemplate.update(EMITIR, agora, competencia);
+                jdbcTemplate.update(CONCLUIR, agora, competencia);
+            }
+        }));
+        log.info("Faturamento de {}: checkpoint no ticket {} ({} processados, {} fatura(s) atualizada(s))",
+                YearMonth.from(mes), ultimo, processados, somas.size());
+    }
+
+    private LoteTickets ler(LoteTickets lote, long depoisDe, long ateId, Timestamp de, Timestamp ate) {
+        lote.tamanho = 0;
+        leitura.record(() -> jdbcTemplate.query(TICKETS, rs -> {
+            int i = lote.tamanho++;
+            lote.ids[i] = rs.getLong(1);
+            lote.usuarios[i] = rs.getLong(2);
+            // Tickets anteriores à tarifação não têm valor e entram com zero
+            lote.valores[i] = rs.getLong(3);
+        }, depoisDe, ateId, de, ate, lote.ids.length));
+        return lote;
+    }
+
+    private static LoteTickets vazio(LoteTickets lote) {
+        lote.tamanho = 0;
+        return lote;
+    }
+
+    private Assinantes assinantes(String sql, Object... parametros) {
+        List<long[]> linhas = jdbcTemplate.query(sql, (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)}, parametros);
+        long[] ids = new long[linhas.size()];
+        long[] mensalidades = new long[linhas.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = linhas.get(i)[0];
+            mensalidades[i] = linhas.get(i)[1];
+        }
+        return new Assinantes(ids, mensalidades);
+    }
+
+    /**
+     * Assinantes em ordem de id, com a mensalidade na mesma posição.
+     */
+    private record Assinantes(long[] ids, long[] mensalidades) {
+    }
+
+    private static final class Totais {
+        long quantidade;
+        long valor;
+    }
+}
@@ -0,0 +1,26 @@
+package com.sistema.parkapi.faturamento;
+
+/**
+ * Lote de tickets lido em ordem de id, em arrays reaproveitados de um lote para o outro.
+ */
+final class LoteTickets {
+
+    final long[] ids;
+    final long[] usuarios;
+    final long[] valores;
+    int tamanho;
+
+    LoteTickets(int capacidade) {
+        this.ids = new long[capacidade];
+        this.usuarios = new long[capacidade];
+        this.valores = new long[capacidade];
+    }
+
+    boolean isCheio() {
+        return tamanho == ids.length;
+    }
+
+    long ultimoId() {
+        return ids[tamanho - 1];
+    }
+}
@@ -1,11 +1,15 @@
 package com.sistema.parkapi.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,6 +18,7 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
@@ -21,6 +26,30 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUserDetailsService detailsService;
 
+    @Autowired
+    private JwtTokenVerifier tokenVerifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Tempo de carga do usuário autenticado ({@code jwt.filter.user.load}).
+     */
+    private Timer cargaDoUsuario;
+
+    /**
+     * Quando {@code true}, o principal é montado a partir dos claims do token, sem carregar o usuário.
+     */
+    @Value("${jwt.principal-from-claims:false}")
+    private boolean principalFromClaims;
+
+    @Override
+    protected void initFilterBean() {
+        cargaDoUsuario = Timer.builder("jwt.filter.user.load")
+                .tag("origem", principalFromClaims ? "claims" : "usuario")
+                .register(meterRegistry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
@@ -32,22 +61,26 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
-        if (!JwtUtils.isTokenValid(token)) {
+        Claims claims = tokenVerifier.verify(token);
+
+        if (claims == null) {
             log.warn("JWT Token está inválido ou experado");
             filterChain.doFilter(request, response);
             return;
         }
 
-        String username = JwtUtils.getUsernameFromToken(token);
-
-        toAuthentications(request, username);
+        toAuthentications(request, claims);
 
         filterChain.doFilter(request, response);
 
     }
 
-    private void toAuthentications(HttpServletRequest request, String username) {
-        UserDetails userDetails = detailsService.loadUserByUsername(username);
+    private void toAuthentications(HttpServletRequest request, Claims claims) {
+        long inicio = System.nanoTime();
+        UserDetails userDetails = principalFromClaims
+                ? JwtUserDetails.fromClaims(claims.getSubject(), claims.get("role", String.class))
+                : detailsService.loadUserByUsername(claims.getSubject());
+        cargaDoUsuario.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
         UsernamePasswordAuthenticationToken authenticationToken = UsernamePasswordAuthenticationToken
                 .authenticated(userDetails, null, userDetails.getAuthorities());
         authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
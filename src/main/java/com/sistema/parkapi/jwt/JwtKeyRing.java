@@ -0,0 +1,216 @@
+package com.sistema.parkapi.jwt;
+
+import com.sistema.parkapi.entity.ChaveJwt;
+import com.sistema.parkapi.repository.ChaveJwtRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Chaveiro das chaves de assinatura JWT, selecionadas pelo {@code kid}.
+ * <p>
+ * Com {@code jwt.signing.algorithm=HS256} (padrão) é mantido o segredo compartilhado de
+ * {@link JwtUtils#SECRET_KEY} e nada é publicado. Com {@code ES256} ou {@code EdDSA}, os pares de
+ * chaves ficam na tabela {@code jwt_chaves}, compartilhada entre as instâncias:
+ * <p>
+ * - A cada {@code jwt.signing.rotation-interval} uma instância cria a próxima geração, com ativação
+ * adiada em dois ciclos de recarga mais a validade do JWKS em cache ({@code jwt.signing.jwks-max-age}),
+ * para que todas as instâncias e os consumidores do JWKS a conheçam antes de ela assinar.
+ * <p>
+ * - A chave privada é gravada cifrada com AES-GCM, com a chave de 256 bits de
+ * {@code jwt.signing.key-encryption-key} (Base64, normalmente da variável de ambiente
+ * {@code JWT_SIGNING_KEY_ENCRYPTION_KEY}) e o {@code kid} como dado autenticado; quem lê a tabela
+ * não obtém as chaves de assinatura.
+ * <p>
+ * - A chave anterior continua aceita na verificação até os tokens assinados com ela expirarem, e
+ * então é apagada.
+ * <p>
+ * - As chaves públicas são publicadas como JWKS, para que outros serviços verifiquem os tokens
+ * localmente, sem o segredo e sem chamadas à park-api.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing implements InitializingBean {
+
+    private static final String CIFRA = "AES/GCM/NoPadding";
+    private static final int TAMANHO_IV = 12;
+    private static final int TAMANHO_TAG = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ChaveJwtRepository chaveJwtRepository;
+    private final String algoritmo;
+    private final Duration intervaloDeRotacao;
+    private final Duration intervaloDeRecarga;
+    private final Duration validadeDoJwks;
+    private final Duration antecedencia;
+    private final String chaveDeCifra;
+    private SecretKey cifra;
+
+    public JwtKeyRing(ChaveJwtRepository chaveJwtRepository,
+                      @Value("${jwt.signing.algorithm:HS256}") String algoritmo,
+                      @Value("${jwt.signing.rotation-interval:P7D}") Duration intervaloDeRotacao,
+                      @Value("${jwt.signing.reload-interval:PT1M}") Duration intervaloDeRecarga,
+                      @Value("${jwt.signing.jwks-max-age:PT5M}") Duration validadeDoJwks,
+                      @Value("${jwt.signing.key-encryption-key:}") String chaveDeCifra) {
+        this.chaveJwtRepository = chaveJwtRepository;
+        this.algoritmo = algoritmo;
+        this.intervaloDeRotacao = intervaloDeRotacao;
+        this.intervaloDeRecarga = intervaloDeRecarga;
+        this.validadeDoJwks = validadeDoJwks;
+        // Todas as instâncias recarregam a chave nova e os JWKS em cache com a lista anterior expiram
+        this.antecedencia = intervaloDeRecarga.multipliedBy(2).plus(validadeDoJwks);
+        this.chaveDeCifra = chaveDeCifra;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!List.of(JwtKeys.HS256, JwtKeys.ES256, JwtKeys.EDDSA).contains(algoritmo)) {
+            throw new IllegalArgumentException(String.format("Algoritmo JWT não suportado: %s", algoritmo));
+        }
+        if (!JwtKeys.HS256.equals(algoritmo)) {
+            byte[] chave = chaveDeCifra.isBlank() ? new byte[0] : Base64.getDecoder().decode(chaveDeCifra);
+            if (chave.length != 32) {
+                throw new IllegalStateException(
+                        "jwt.signing.key-encryption-key deve ter 256 bits em Base64 para cifrar as chaves " + algoritmo);
+            }
+            cifra = new SecretKeySpec(chave, "AES");
+            recarregar();
+            log.info("Tokens JWT assinados com {} (kid {})", algoritmo, JwtUtils.getKeys().getAtual().kid());
+        }
+    }
+
+    /**
+     * Retorna o documento JWKS com as chaves públicas em uso.
+     *
+     * @return o JWKS.
+     */
+    public Map<String, Object> jwks() {
+        return JwtUtils.getKeys().getJwks();
+    }
+
+    /**
+     * Por quanto tempo os consumidores podem manter o JWKS em cache; uma chave nova é publicada ao
+     * menos esse tempo antes de assinar.
+     */
+    public Duration getValidadeDoJwks() {
+        return validadeDoJwks;
+    }
+
+    /**
+     * Cria a próxima geração de chaves quando chega a hora da rotação e recarrega as chaves da base.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval:PT1M}",
+            initialDelayString = "${jwt.signing.reload-interval:PT1M}")
+    public void recarregar() {
+        if (JwtKeys.HS256.equals(algoritmo)) {
+            return;
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        List<ChaveJwt> chaves = chaveJwtRepository.findByAlgoritmoOrderByGeracaoDesc(algoritmo);
+        if (chaves.isEmpty() || !chaves.get(0).getDataAtivacao()
+                .plus(intervaloDeRotacao).minus(antecedencia).isAfter(agora)) {
+            criar(chaves.isEmpty() ? 1L : chaves.get(0).getGeracao() + 1,
+                    chaves.isEmpty() ? agora : agora.plus(antecedencia));
+            chaves = chaveJwtRepository.findByAlgoritmoOrderByGeracaoDesc(algoritmo);
+        }
+
+        // As chaves vêm da geração mais nova para a mais antiga
+        int indiceAtual = 0;
+        while (indiceAtual < chaves.size() - 1 && chaves.get(indiceAtual).getDataAtivacao().isAfter(agora)) {
+            indiceAtual++;
+        }
+        // Uma chave substituída ainda verifica os tokens assinados até a sua substituição ser vista por
+        // todas as instâncias, somados à validade do token
+        Duration retencao = intervaloDeRecarga.multipliedBy(2)
+                .plusDays(JwtUtils.EXPIRE_DAYS).plusHours(JwtUtils.EXPIRE_HOURS).plusMinutes(JwtUtils.EXPIRE_MINUTES + 1);
+        List<JwtKeys.Chave> verificacao = new ArrayList<>();
+        int indiceMaisAntigo = 0;
+        for (int i = 0; i < chaves.size(); i++) {
+            if (i > indiceAtual && !chaves.get(i - 1).getDataAtivacao().plus(retencao).isAfter(agora)) {
+                break;
+            }
+            verificacao.add(decodificar(chaves.get(i)));
+            indiceMaisAntigo = i;
+        }
+
+        JwtUtils.setKeys(JwtKeys.of(verificacao.get(indiceAtual), verificacao));
+        if (indiceMaisAntigo < chaves.size() - 1) {
+            int removidas = chaveJwtRepository.deleteAnteriores(algoritmo, chaves.get(indiceMaisAntigo).getGeracao());
+            log.info("{} chaves JWT aposentadas removidas", removidas);
+        }
+    }
+
+    private void criar(long geracao, LocalDateTime dataAtivacao) {
+        JwtKeys.Chave nova = JwtKeys.gerar(UUID.randomUUID().toString(), algoritmo);
+        ChaveJwt chave = new ChaveJwt();
+        chave.setKid(nova.kid());
+        chave.setAlgoritmo(algoritmo);
+        chave.setGeracao(geracao);
+        chave.setChavePublica(Base64.getEncoder().encodeToString(nova.verificacao().getEncoded()));
+        chave.setChavePrivada(cifrar(nova.kid(), nova.assinatura().getEncoded()));
+        chave.setDataCriacao(LocalDateTime.now());
+        chave.setDataAtivacao(dataAtivacao);
+        try {
+            chaveJwtRepository.saveAndFlush(chave);
+            log.info("Nova chave JWT {} (geração {}) ativa a partir de {}", nova.kid(), geracao, dataAtivacao);
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Geração {} da chave JWT já criada por outra instância", geracao);
+        }
+    }
+
+    private JwtKeys.Chave decodificar(ChaveJwt chave) {
+        return JwtKeys.decodificar(chave.getKid(), chave.getAlgoritmo(),
+                decifrar(chave.getKid(), chave.getChavePrivada()),
+                Base64.getDecoder().decode(chave.getChavePublica()));
+    }
+
+    /**
+     * Cifra a chave privada; o resultado é o IV seguido do texto cifrado com a tag, em Base64.
+     */
+    private String cifrar(String kid, byte[] privada) {
+        byte[] iv = new byte[TAMANHO_IV];
+        RANDOM.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(CIFRA);
+            cipher.init(Cipher.ENCRYPT_MODE, cifra, new GCMParameterSpec(TAMANHO_TAG, iv));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+            byte[] cifrado = cipher.doFinal(privada);
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + cifrado.length)
+                    .put(iv).put(cifrado).array());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Falha ao cifrar a chave JWT " + kid, ex);
+        }
+    }
+
+    private byte[] decifrar(String kid, String armazenada) {
+        byte[] conteudo = Base64.getDecoder().decode(armazenada);
+        try {
+            Cipher cipher = Cipher.getInstance(CIFRA);
+            cipher.init(Cipher.DECRYPT_MODE, cifra, new GCMParameterSpec(TAMANHO_TAG, conteudo, 0, TAMANHO_IV));
+            cipher.updateAAD(kid.getBytes(StandardCharsets.US_ASCII));
+            return cipher.doFinal(conteudo, TAMANHO_IV, conteudo.length - TAMANHO_IV);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(String.format(
+                    "Chave JWT %s não decifrada; verifique jwt.signing.key-encryption-key", kid), ex);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.sistema.parkapi.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import javax.crypto.SecretKey;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conjunto imutável das chaves JWT em uso: a chave de assinatura atual e as chaves de verificação,
+ * indexadas pelo {@code kid} do cabeçalho do token.
+ * <p>
+ * Algoritmos suportados: {@code HS256} (segredo compartilhado), {@code ES256} (ECDSA P-256) e
+ * {@code EdDSA} (Ed25519). Para os algoritmos assimétricos, as chaves públicas são publicadas
+ * como um documento JWKS; segredos HMAC nunca são publicados.
+ */
+public final class JwtKeys {
+
+    public static final String HS256 = "HS256";
+    public static final String ES256 = "ES256";
+    public static final String EDDSA = "EdDSA";
+
+    /**
+     * Chave identificada por {@code kid}.
+     *
+     * @param kid         identificador da chave.
+     * @param algoritmo   nome do algoritmo JWS.
+     * @param assinatura  chave usada para assinar (privada ou segredo HMAC).
+     * @param verificacao chave usada para verificar (pública ou segredo HMAC).
+     */
+    public record Chave(String kid, String algoritmo, Key assinatura, Key verificacao) {
+    }
+
+    private final Chave atual;
+    private final SecureDigestAlgorithm<Key, ?> algoritmo;
+    private final Map<String, Key> chavesDeVerificacao;
+    private final Key chaveSemKid;
+    private final Map<String, Object> jwks;
+
+    private JwtKeys(Chave atual, List<Chave> verificacao, Key chaveSemKid) {
+        this.atual = atual;
+        this.algoritmo = algoritmo(atual.algoritmo());
+        Map<String, Key> chaves = new LinkedHashMap<>();
+        List<Map<String, Object>> publicas = new ArrayList<>();
+        for (Chave chave : verificacao) {
+            chaves.put(chave.kid(), chave.verificacao());
+            Map<String, Object> jwk = jwk(chave);
+            if (jwk != null) {
+                publicas.add(jwk);
+            }
+        }
+        this.chavesDeVerificacao = Collections.unmodifiableMap(chaves);
+        this.chaveSemKid = chaveSemKid;
+        this.jwks = Map.of("keys", Collections.unmodifiableList(publicas));
+    }
+
+    /**
+     * Conjunto com um único segredo HMAC, que também verifica tokens emitidos sem {@code kid}.
+     *
+     * @param kid   identificador da chave.
+     * @param chave segredo HMAC.
+     * @return o conjunto de chaves.
+     */
+    public static JwtKeys hmac(String kid, SecretKey chave) {
+        Chave hmac = new Chave(kid, HS256, chave, chave);
+        return new JwtKeys(hmac, List.of(hmac), chave);
+    }
+
+    /**
+     * Conjunto com a chave de assinatura atual e as chaves aceitas na verificação.
+     *
+     * @param atual       chave de assinatura atual.
+     * @param verificacao chaves aceitas na verificação, incluindo a atual.
+     * @return o conjunto de chaves.
+     */
+    public static JwtKeys of(Chave atual, List<Chave> verificacao) {
+        return new JwtKeys(atual, verificacao, null);
+    }
+
+    /**
+     * Gera um novo par de chaves para o algoritmo assimétrico informado.
+     *
+     * @param kid       identificador da nova chave.
+     * @param algoritmo {@link #ES256} ou {@link #EDDSA}.
+     * @return a chave gerada.
+     */
+    public static Chave gerar(String kid, String algoritmo) {
+        try {
+            KeyPairGenerator generator;
+            if (ES256.equals(algoritmo)) {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            } else if (EDDSA.equals(algoritmo)) {
+                generator = KeyPairGenerator.getInstance("Ed25519");
+            } else {
+                throw new IllegalArgumentException(String.format("Algoritmo sem par de chaves: %s", algoritmo));
+            }
+            KeyPair par = generator.generateKeyPair();
+            return new Chave(kid, algoritmo, par.getPrivate(), par.getPublic());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(String.format("Falha ao gerar chave %s", algoritmo), ex);
+        }
+    }
+
+    /**
+     * Reconstrói uma chave assimétrica a partir das codificações PKCS#8 (privada) e X.509 (pública).
+     *
+     * @param kid       identificador da chave.
+     * @param algoritmo {@link #ES256} ou {@link #EDDSA}.
+     * @param privada   chave privada codificada em PKCS#8.
+     * @param publica   chave pública codificada em X.509.
+     * @return a chave reconstruída.
+     */
+    public static Chave decodificar(String kid, String algoritmo, byte[] privada, byte[] publica) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance(ES256.equals(algoritmo) ? "EC" : "Ed25519");
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(privada));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(publica));
+            return new Chave(kid, algoritmo, privateKey, publicKey);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(String.format("Chave JWT %s inválida", kid), ex);
+        }
+    }
+
+    /**
+     * Retorna a chave de assinatura atual.
+     *
+     * @return a chave atual.
+     */
+    public Chave getAtual() {
+        return atual;
+    }
+
+    /**
+     * Retorna o algoritmo da chave de assinatura atual.
+     *
+     * @return o algoritmo JWS.
+     */
+    public SecureDigestAlgorithm<Key, ?> getAlgoritmo() {
+        return algoritmo;
+    }
+
+    /**
+     * Retorna a chave de verificação do {@code kid} informado.
+     *
+     * @param kid identificador da chave, ou {@code null} para tokens sem {@code kid}.
+     * @return a chave, ou {@code null} se o {@code kid} não for conhecido.
+     */
+    public Key chaveDeVerificacao(String kid) {
+        return kid == null ? chaveSemKid : chavesDeVerificacao.get(kid);
+    }
+
+    /**
+     * Retorna o documento JWKS com as chaves públicas de verificação.
+     *
+     * @return o JWKS, com a lista vazia quando apenas HMAC está em uso.
+     */
+    public Map<String, Object> getJwks() {
+        return jwks;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SecureDigestAlgorithm<Key, ?> algoritmo(String nome) {
+        SecureDigestAlgorithm<?, ?> algoritmo = switch (nome) {
+            case HS256 -> Jwts.SIG.HS256;
+            case ES256 -> Jwts.SIG.ES256;
+            case EDDSA -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalArgumentException(String.format("Algoritmo JWT não suportado: %s", nome));
+        };
+        return (SecureDigestAlgorithm<Key, ?>) algoritmo;
+    }
+
+    private static Map<String, Object> jwk(Chave chave) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (chave.verificacao() instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64(coordenada(ec.getW().getAffineX())));
+            jwk.put("y", base64(coordenada(ec.getW().getAffineY())));
+        } else if (chave.verificacao() instanceof EdECPublicKey ed) {
+            byte[] codificada = ed.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("crv", "Ed25519");
+            // A codificação X.509 do Ed25519 termina com os 32 bytes da chave pública
+            jwk.put("x", base64(Arrays.copyOfRange(codificada, codificada.length - 32, codificada.length)));
+        } else {
+            return null;
+        }
+        jwk.put("kid", chave.kid());
+        jwk.put("alg", chave.algoritmo());
+        jwk.put("use", "sig");
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    private static byte[] coordenada(BigInteger valor) {
+        byte[] bytes = valor.toByteArray();
+        byte[] coordenada = new byte[32];
+        int tamanho = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - tamanho, coordenada, 32 - tamanho, tamanho);
+        return coordenada;
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
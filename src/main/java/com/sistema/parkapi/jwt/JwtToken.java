@@ -1,5 +1,6 @@
 package com.sistema.parkapi.jwt;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,4 +19,19 @@ public class JwtToken {
      * O token JWT.
      */
     private String token;
+
+    /**
+     * O refresh token opaco, usado para obter um novo token JWT sem informar a senha.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String refreshToken;
+
+    /**
+     * Construtor da classe apenas com o token JWT.
+     *
+     * @param token o token JWT.
+     */
+    public JwtToken(String token) {
+        this.token = token;
+    }
 }
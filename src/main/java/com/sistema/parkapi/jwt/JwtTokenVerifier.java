@@ -0,0 +1,138 @@
+package com.sistema.parkapi.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Componente responsável por verificar tokens JWT uma única vez por requisição.
+ * <p>
+ * Cada token é analisado e tem sua assinatura verificada apenas uma vez; os claims resultantes
+ * ficam em um cache limitado, indexado pelo digest SHA-256 do token, e expiram junto com o
+ * próprio token (claim {@code exp}). Assim, um mesmo token reenviado várias vezes não paga
+ * novamente o custo do HMAC e do parse.
+ * <p>
+ * O tempo de verificação é registrado no timer {@code jwt.verify} (tag {@code origem}: {@code cache} ou
+ * {@code parse}) e os tokens recusados no contador {@code jwt.tokens.rejected} (tag {@code motivo}).
+ */
+@Slf4j
+@Component
+public class JwtTokenVerifier {
+
+    private final Cache<String, Claims> claimsCache;
+    private final Timer verificacaoEmCache;
+    private final Timer verificacaoCompleta;
+    private final Counter tokensExpirados;
+    private final Counter tokensInvalidos;
+
+    /**
+     * Construtor da classe.
+     *
+     * @param maximumSize   quantidade máxima de tokens verificados mantidos em cache.
+     * @param meterRegistry registro onde as métricas de verificação são publicadas.
+     */
+    public JwtTokenVerifier(@Value("${jwt.claims-cache.maximum-size:10000}") long maximumSize,
+                            MeterRegistry meterRegistry) {
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpiraComToken())
+                .build();
+        this.verificacaoEmCache = Timer.builder("jwt.verify").tag("origem", "cache").register(meterRegistry);
+        this.verificacaoCompleta = Timer.builder("jwt.verify").tag("origem", "parse").register(meterRegistry);
+        this.tokensExpirados = Counter.builder("jwt.tokens.rejected").tag("motivo", "expirado").register(meterRegistry);
+        this.tokensInvalidos = Counter.builder("jwt.tokens.rejected").tag("motivo", "invalido").register(meterRegistry);
+    }
+
+    /**
+     * Verifica o token informado e retorna seus claims.
+     *
+     * @param token O token JWT, com ou sem o prefixo "Bearer ".
+     * @return Os {@link Claims} do token, ou {@code null} se o token for inválido ou estiver expirado.
+     */
+    public Claims verify(String token) {
+        long inicio = System.nanoTime();
+        String jwt = JwtUtils.refactorToken(token);
+        String chave = digest(jwt);
+
+        Claims claims = claimsCache.getIfPresent(chave);
+        if (claims != null) {
+            verificacaoEmCache.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            return claims;
+        }
+
+        try {
+            claims = JwtUtils.parseClaims(jwt);
+            claimsCache.put(chave, claims);
+            return claims;
+        } catch (ExpiredJwtException ex) {
+            tokensExpirados.increment();
+            log.error(String.format("Token inválido: %s", ex.getMessage()));
+        } catch (JwtException | IllegalArgumentException ex) {
+            tokensInvalidos.increment();
+            log.error(String.format("Token inválido: %s", ex.getMessage()));
+        } finally {
+            verificacaoCompleta.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        return null;
+    }
+
+    /**
+     * Calcula o digest SHA-256 do token, codificado em Base64, usado como chave do cache.
+     *
+     * @param token O token JWT sem o prefixo "Bearer ".
+     * @return O digest do token.
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Algoritmo SHA-256 indisponível", ex);
+        }
+    }
+
+    /**
+     * Política de expiração que remove a entrada do cache no instante do claim {@code exp} do token.
+     */
+    private static class ExpiraComToken implements Expiry<String, Claims> {
+
+        private static final long SEM_EXPIRACAO = TimeUnit.MINUTES.toNanos(
+                JwtUtils.EXPIRE_DAYS * 24 * 60 + JwtUtils.EXPIRE_HOURS * 60 + JwtUtils.EXPIRE_MINUTES);
+
+        @Override
+        public long expireAfterCreate(String chave, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return SEM_EXPIRACAO;
+            }
+            long restante = expiration.getTime() - System.currentTimeMillis();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(restante));
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String chave, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
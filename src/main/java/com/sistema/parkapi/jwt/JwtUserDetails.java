@@ -1,6 +1,7 @@
 package com.sistema.parkapi.jwt;
 
 import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.projection.UsuarioCredencial;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.User;
@@ -11,15 +12,20 @@ import java.util.Collection;
  * Classe que representa os detalhes de autenticação de um usuário com JWT.
  * <p>
  * Estende a classe {@link org.springframework.security.core.userdetails.User}
- * para incorporar um objeto {@link Usuario}, permitindo acesso a informações
+ * para incorporar o id e a role do {@link Usuario}, permitindo acesso a informações
  * adicionais do usuário no contexto de segurança.
  */
 public class JwtUserDetails extends User {
 
     /**
-     * Instância de {@link Usuario} associada ao usuário autenticado.
+     * Identificador do usuário autenticado.
      */
-    private Usuario usuario;
+    private final Long id;
+
+    /**
+     * Role do usuário autenticado.
+     */
+    private final Usuario.Role role;
 
     /**
      * Construtor da classe.
@@ -28,12 +34,36 @@ public class JwtUserDetails extends User {
      *                É utilizado para inicializar o nome de usuário, senha e autoridade.
      */
     public JwtUserDetails(Usuario usuario) {
-        super(
-                usuario.getUsername(),
-                usuario.getPassword(),
-                AuthorityUtils.createAuthorityList(usuario.getRole().name())
-        );
-        this.usuario = usuario;
+        this(usuario.getId(), usuario.getUsername(), usuario.getPassword(), usuario.getRole());
+    }
+
+    /**
+     * Construtor da classe a partir da projeção de credenciais.
+     *
+     * @param credencial projeção {@link UsuarioCredencial} com id, nome, senha e role do usuário.
+     */
+    public JwtUserDetails(UsuarioCredencial credencial) {
+        this(credencial.id(), credencial.username(), credencial.password(), credencial.role());
+    }
+
+    private JwtUserDetails(Long id, String username, String password, Usuario.Role role) {
+        super(username, password, AuthorityUtils.createAuthorityList(role.name()));
+        this.id = id;
+        this.role = role;
+    }
+
+    /**
+     * Constrói os detalhes do usuário apenas a partir dos claims de um token já verificado,
+     * sem consultar a base de dados.
+     * <p>
+     * Nesse modo a senha fica vazia e o {@link #getId()} retorna {@code null}.
+     *
+     * @param username nome do usuário (claim {@code sub}).
+     * @param role     role do usuário sem o prefixo "ROLE_" (claim {@code role}).
+     * @return um {@link JwtUserDetails} com o nome e a role informados.
+     */
+    public static JwtUserDetails fromClaims(String username, String role) {
+        return new JwtUserDetails(null, username, "", Usuario.Role.valueOf("ROLE_" + role));
     }
 
     /**
@@ -42,7 +72,7 @@ public class JwtUserDetails extends User {
      * @return o identificador único do {@link Usuario}.
      */
     public Long getId() {
-        return this.usuario.getId();
+        return this.id;
     }
 
     /**
@@ -51,7 +81,7 @@ public class JwtUserDetails extends User {
      * @return a role associada ao {@link Usuario} como uma {@link String}.
      */
     public String getRole() {
-        return this.usuario.getRole().name();
+        return this.role.name();
     }
 
 }
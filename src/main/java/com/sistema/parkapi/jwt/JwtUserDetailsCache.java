@@ -0,0 +1,85 @@
+package com.sistema.parkapi.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.projection.UsuarioCredencial;
+import com.sistema.parkapi.service.UsuarioAlteradoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache dos usuários carregados para autenticação, posicionado na frente de
+ * {@code UsuarioService.buscarCredencialPorNome}. As entradas são indexadas pelo username
+ * normalizado ({@link Usuario#normalizar(String)}), como na base.
+ * <p>
+ * O carregamento é single-flight: requisições concorrentes que não encontram o mesmo usuário
+ * compartilham uma única consulta, o que o cache de segundo nível do Hibernate não faz. Quem guarda
+ * os usuários por mais tempo é o cache de segundo nível ({@code ehcache.xml}); o TTL daqui
+ * ({@code jwt.user-cache.ttl}) é curto, só para absorver rajadas, e por isso soma pouco ao tempo em
+ * que outra instância pode servir um usuário alterado. As entradas são invalidadas após o commit de
+ * qualquer alteração de senha ou role ({@link UsuarioAlteradoEvent}). As estatísticas de acerto/falha
+ * são publicadas no Micrometer sob o nome {@code jwt.usuarios}.
+ */
+@Slf4j
+@Component
+public class JwtUserDetailsCache {
+
+    private final Cache<String, UsuarioCredencial> usuarios;
+
+    /**
+     * Construtor da classe.
+     *
+     * @param maximumSize   quantidade máxima de usuários mantidos em cache.
+     * @param ttl           tempo de vida de cada entrada.
+     * @param meterRegistry registro onde as métricas do cache são publicadas.
+     */
+    public JwtUserDetailsCache(@Value("${jwt.user-cache.maximum-size:10000}") long maximumSize,
+                               @Value("${jwt.user-cache.ttl:5s}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.usuarios = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "jwt.usuarios");
+    }
+
+    /**
+     * Retorna as credenciais do usuário em cache ou as carrega com a função informada.
+     *
+     * @param username nome do usuário.
+     * @param loader   função de carga executada uma única vez por chave em caso de falha no cache.
+     * @return a {@link UsuarioCredencial} correspondente.
+     */
+    public UsuarioCredencial get(String username, Function<String, UsuarioCredencial> loader) {
+        return usuarios.get(Usuario.normalizar(username), loader);
+    }
+
+    /**
+     * Remove um usuário do cache.
+     *
+     * @param username nome do usuário a ser removido.
+     */
+    public void invalidate(String username) {
+        usuarios.invalidate(Usuario.normalizar(username));
+    }
+
+    /**
+     * Invalida o usuário alterado após o commit da transação que o alterou.
+     *
+     * @param event evento de alteração de usuário.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        log.debug("Invalidando cache de autenticação do usuário {}", event.username());
+        invalidate(event.username());
+    }
+}
@@ -1,9 +1,12 @@
 package com.sistema.parkapi.jwt;
 
 import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.projection.UsuarioCredencial;
 import com.sistema.parkapi.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -14,17 +17,31 @@ import org.springframework.stereotype.Service;
  * Implementa {@link UserDetailsService}, sendo utilizado pelo Spring Security para
  * buscar um usuário com base no nome de usuário (username).
  *
- * Utiliza {@link UsuarioService} para obter informações do usuário da base de dados.
+ * Utiliza {@link UsuarioService} para obter informações do usuário pelo natural id, atendido pelo
+ * cache de segundo nível do Hibernate ({@code ehcache.xml}), passando antes pelo
+ * {@link JwtUserDetailsCache}, que carrega cada usuário uma única vez por rajada. Só as faltas
+ * consultam a base; a consulta é somente leitura e, com réplicas configuradas
+ * ({@code park.datasource.replicas.urls}), é atendida por uma réplica.
+ *
+ * Implementa também {@link UserDetailsPasswordService}: após um login bem-sucedido cujo hash esteja
+ * com algoritmo ou fator de trabalho diferente do alvo, o Spring Security chama
+ * {@link #updatePassword(UserDetails, String)} com o hash recalculado.
  */
+@Slf4j
 @RequiredArgsConstructor
 @Service
-public class JwtUserDetailsService implements UserDetailsService {
+public class JwtUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     /**
      * Serviço de acesso aos dados dos usuários.
      */
     private final UsuarioService usuarioService;
 
+    /**
+     * Cache dos usuários já carregados.
+     */
+    private final JwtUserDetailsCache userDetailsCache;
+
     /**
      * Carrega os detalhes de um usuário com base no nome de usuário.
      *
@@ -37,21 +54,38 @@ public class JwtUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Usuario usuario = usuarioService.buscarPorNome(username);
-        return new JwtUserDetails(usuario);
+        UsuarioCredencial credencial = userDetailsCache.get(username, usuarioService::buscarCredencialPorNome);
+        return new JwtUserDetails(credencial);
+    }
+
+    /**
+     * Grava o novo hash da senha do usuário e remove a entrada antiga do cache.
+     *
+     * @param user        o usuário autenticado.
+     * @param newPassword o hash recalculado da senha informada no login.
+     * @return o usuário com o novo hash.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        usuarioService.atualizarHashDeSenha(user.getUsername(), newPassword);
+        userDetailsCache.invalidate(user.getUsername());
+        log.info("Hash de senha do usuário {} atualizado para o fator de trabalho atual", user.getUsername());
+        JwtUserDetails userDetails = (JwtUserDetails) user;
+        return new JwtUserDetails(new UsuarioCredencial(userDetails.getId(), userDetails.getUsername(),
+                newPassword, Usuario.Role.valueOf(userDetails.getRole())));
     }
 
     /**
      * Gera um token JWT para um usuário autenticado.
      *
      * O token é criado a partir do nome de usuário e do papel (role) do usuário,
-     * removendo o prefixo "ROLE_" da string.
+     * removendo o prefixo "ROLE_" da string. Os dados vêm do próprio principal resolvido
+     * na autenticação, sem nova consulta à base.
      *
-     * @param username o nome de usuário autenticado.
+     * @param userDetails o principal do usuário autenticado.
      * @return um {@link JwtToken} com os dados de autenticação.
      */
-    public JwtToken getTokenAuthenticated(String username) {
-        Usuario.Role role = usuarioService.buscarRolePorUsername(username);
-        return JwtUtils.createToken(username, role.name().substring("ROLE_".length()));
+    public JwtToken getTokenAuthenticated(JwtUserDetails userDetails) {
+        return JwtUtils.createToken(userDetails.getUsername(), userDetails.getRole().substring("ROLE_".length()));
     }
 }
\ No newline at end of file
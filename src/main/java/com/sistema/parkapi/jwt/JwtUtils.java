@@ -1,10 +1,12 @@
 package com.sistema.parkapi.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.SignatureAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.crypto.SecretKey;
@@ -18,8 +20,10 @@ import java.util.Date;
  * Classe utilitária para manipulação de tokens JWT (JSON Web Tokens).
  *
  * Esta classe fornece métodos para criar tokens JWT, extrair claims e validar tokens.
- * Utiliza a biblioteca {@code io.jsonwebtoken} para o processamento dos JWTs e inclui uma
- * chave secreta para assinar os tokens.
+ * Utiliza a biblioteca {@code io.jsonwebtoken} para o processamento dos JWTs. Os tokens são
+ * assinados com a chave atual de {@link JwtKeys} e verificados pela chave indicada no {@code kid}
+ * do cabeçalho. Por padrão é usado o segredo HMAC {@link #SECRET_KEY}; o {@link JwtKeyRing}
+ * substitui as chaves quando um algoritmo assimétrico é configurado.
  *
  */
 @Slf4j
@@ -31,6 +35,25 @@ public class JwtUtils {
     public static final long EXPIRE_DAYS = 0;
     public static final long EXPIRE_HOURS = 0;
     public static final long EXPIRE_MINUTES = 2;
+    public static final String HMAC_KID = "hs256";
+
+    /**
+     * Chaves em uso, trocadas de forma atômica a cada rotação.
+     */
+    private static volatile JwtKeys keys = JwtKeys.hmac(HMAC_KID, generateKey());
+
+    /**
+     * Parser imutável e thread-safe reaproveitado em todas as verificações de token; a chave de
+     * verificação é localizada pelo {@code kid} no conjunto de chaves vigente.
+     */
+    private static final JwtParser PARSER = Jwts.parser()
+            .keyLocator(new LocatorAdapter<Key>() {
+                @Override
+                protected Key locate(JwsHeader header) {
+                    return keys.chaveDeVerificacao(header.getKeyId());
+                }
+            })
+            .build();
 
     /**
      * Construtor privado para evitar a instanciação da classe.
@@ -47,6 +70,24 @@ public class JwtUtils {
         return Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * Retorna as chaves em uso.
+     *
+     * @return o conjunto de chaves vigente.
+     */
+    public static JwtKeys getKeys() {
+        return keys;
+    }
+
+    /**
+     * Substitui as chaves em uso. Tokens emitidos a partir daqui são assinados com a nova chave atual.
+     *
+     * @param novas o novo conjunto de chaves.
+     */
+    public static void setKeys(JwtKeys novas) {
+        keys = novas;
+    }
+
 
     /**
      * Calcula a data de expiração do token com base na data de início e nos valores
@@ -71,12 +112,14 @@ public class JwtUtils {
     public static JwtToken createToken(String username, String role) {
         Date issuedAt = new Date();
         Date limit = toExpireDate(issuedAt);
+        JwtKeys atuais = keys;
         String token = Jwts.builder()
                 .setHeaderParam("typ", "JWT")
+                .setHeaderParam("kid", atuais.getAtual().kid())
                 .setSubject(username)
                 .setIssuedAt(issuedAt)
                 .setExpiration(limit)
-                .signWith(generateKey(), SignatureAlgorithm.HS256)
+                .signWith(atuais.getAtual().assinatura(), atuais.getAlgoritmo())
                 .claim("role", role)
                 .compact();
 
@@ -91,17 +134,23 @@ public class JwtUtils {
      */
     public static Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(generateKey())
-                    .build()
-                    .parseSignedClaims(refactorToken(token))
-                    .getPayload();
+            return parseClaims(token);
         } catch (JwtException ex) {
             log.error(String.format("Token inválido: %s", ex.getMessage()));
         }
         return null;
     }
 
+    /**
+     * Extrai os claims de um token JWT, propagando a falha de verificação.
+     *
+     * @param token O token JWT a ser analisado.
+     * @return Um objeto {@link Claims} contendo os dados do token.
+     * @throws JwtException se o token for inválido ou estiver expirado.
+     */
+    static Claims parseClaims(String token) {
+        return PARSER.parseSignedClaims(refactorToken(token)).getPayload();
+    }
 
     /**
      * Recupera o nome do usuário (subject) a partir de um token JWT.
@@ -121,10 +170,7 @@ public class JwtUtils {
      */
     public static boolean isTokenValid(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(generateKey())
-                    .build()
-                    .parseSignedClaims(refactorToken(token));
+            PARSER.parseSignedClaims(refactorToken(token));
             return true;
         } catch (JwtException ex) {
             log.error(String.format("Token inválido: %s", ex.getMessage()));
@@ -139,7 +185,7 @@ public class JwtUtils {
      * @param token O token JWT com ou sem o prefixo.
      * @return O token sem o prefixo "Bearer ".
      */
-    private static String refactorToken(String token) {
+    static String refactorToken(String token) {
         if (token.contains(JWT_BEARER)) {
             return token.substring(JWT_BEARER.length());
         }
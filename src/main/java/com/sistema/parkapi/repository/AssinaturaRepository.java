@@ -0,0 +1,7 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.Assinatura;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AssinaturaRepository extends JpaRepository<Assinatura, Long> {
+}
@@ -0,0 +1,19 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.ChaveJwt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface ChaveJwtRepository extends JpaRepository<ChaveJwt, String> {
+
+    List<ChaveJwt> findByAlgoritmoOrderByGeracaoDesc(String algoritmo);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ChaveJwt c WHERE c.algoritmo = :algoritmo AND c.geracao < :geracao")
+    int deleteAnteriores(String algoritmo, Long geracao);
+}
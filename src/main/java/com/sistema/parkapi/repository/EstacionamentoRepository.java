@@ -0,0 +1,7 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.Estacionamento;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EstacionamentoRepository extends JpaRepository<Estacionamento, Long> {
+}
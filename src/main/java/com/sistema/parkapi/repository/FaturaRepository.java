@@ -0,0 +1,7 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.Fatura;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FaturaRepository extends JpaRepository<Fatura, Long> {
+}
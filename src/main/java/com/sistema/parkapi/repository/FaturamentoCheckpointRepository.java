@@ -0,0 +1,9 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.FaturamentoCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+
+public interface FaturamentoCheckpointRepository extends JpaRepository<FaturamentoCheckpoint, LocalDate> {
+}
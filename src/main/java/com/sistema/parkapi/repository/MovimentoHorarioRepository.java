@@ -0,0 +1,33 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.MovimentoHorario;
+import com.sistema.parkapi.repository.projection.MovimentoPeriodo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface MovimentoHorarioRepository extends JpaRepository<MovimentoHorario, Long> {
+
+    /**
+     * Movimento hora a hora em {@code [inicio, fim)}; lê apenas o trecho do índice único do estacionamento.
+     */
+    @Query("SELECT new com.sistema.parkapi.repository.projection.MovimentoPeriodo(" +
+            "m.hora, m.entradas, m.saidas, m.picoOcupacao, m.receita) " +
+            "FROM MovimentoHorario m " +
+            "WHERE m.estacionamentoId = :estacionamentoId AND m.hora >= :inicio AND m.hora < :fim " +
+            "ORDER BY m.hora")
+    List<MovimentoPeriodo> findPorHora(Long estacionamentoId, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Movimento dia a dia em {@code [inicio, fim)}, somado a partir das horas.
+     */
+    @Query("SELECT new com.sistema.parkapi.repository.projection.MovimentoPeriodo(" +
+            "cast(m.hora as LocalDate), sum(m.entradas), sum(m.saidas), max(m.picoOcupacao), sum(m.receita)) " +
+            "FROM MovimentoHorario m " +
+            "WHERE m.estacionamentoId = :estacionamentoId AND m.hora >= :inicio AND m.hora < :fim " +
+            "GROUP BY cast(m.hora as LocalDate) " +
+            "ORDER BY cast(m.hora as LocalDate)")
+    List<MovimentoPeriodo> findPorDia(Long estacionamentoId, LocalDateTime inicio, LocalDateTime fim);
+}
@@ -0,0 +1,39 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.RefreshToken;
+import com.sistema.parkapi.repository.projection.RefreshTokenDados;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("SELECT new com.sistema.parkapi.repository.projection.RefreshTokenDados(" +
+            "t.id, t.familia, t.dataExpiracao, t.dataRevogacao, u.id, u.username, u.role) " +
+            "FROM RefreshToken t JOIN Usuario u ON u.id = t.usuarioId WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshTokenDados> findDadosByTokenHash(String tokenHash);
+
+    /**
+     * Revoga o token apenas se ele ainda estiver ativo; o retorno 0 indica que outra requisição já o usou.
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.dataRevogacao = :agora WHERE t.id = :id AND t.dataRevogacao IS NULL")
+    int revogarSeAtivo(Long id, LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.dataRevogacao = :agora WHERE t.familia = :familia AND t.dataRevogacao IS NULL")
+    int revogarFamilia(String familia, LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.dataRevogacao = :agora " +
+            "WHERE t.usuarioId = (SELECT u.id FROM Usuario u WHERE u.usernameNormalizado = :usernameNormalizado) " +
+            "AND t.dataRevogacao IS NULL")
+    int revogarPorUsernameNormalizado(String usernameNormalizado, LocalDateTime agora);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.dataExpiracao <= :agora")
+    int deleteExpirados(LocalDateTime agora);
+}
@@ -0,0 +1,7 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TabelaTarifariaRepository extends JpaRepository<TabelaTarifaria, Long> {
+}
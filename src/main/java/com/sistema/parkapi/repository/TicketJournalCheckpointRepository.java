@@ -0,0 +1,7 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.TicketJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TicketJournalCheckpointRepository extends JpaRepository<TicketJournalCheckpoint, String> {
+}
@@ -0,0 +1,22 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.Ticket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface TicketRepository extends JpaRepository<Ticket, Long> {
+
+    List<Ticket> findByDataSaidaIsNull();
+
+    Optional<Ticket> findByCodigoAndDataSaidaIsNull(String codigo);
+
+    /**
+     * Tickets abertos ou encerrados a partir do instante informado, para reconstruir a deduplicação.
+     */
+    @Query("SELECT t FROM Ticket t WHERE t.dataEntrada >= :desde OR t.dataSaida >= :desde")
+    List<Ticket> findMovimentadosDesde(LocalDateTime desde);
+}
@@ -0,0 +1,14 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.Usuario;
+
+import java.util.Optional;
+
+/**
+ * Busca de {@link Usuario} pelo natural id (username normalizado), que passa pelo cache de
+ * segundo nível do Hibernate em vez de sempre consultar a base.
+ */
+public interface UsuarioNaturalIdRepository {
+
+    Optional<Usuario> findByUsernameNormalizado(String usernameNormalizado);
+}
@@ -0,0 +1,21 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+class UsuarioNaturalIdRepositoryImpl implements UsuarioNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Usuario> findByUsernameNormalizado(String usernameNormalizado) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Usuario.class)
+                .loadOptional(usernameNormalizado);
+    }
+}
@@ -1,15 +1,51 @@
 package com.sistema.parkapi.repository;
 
 import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.projection.UsuarioCredencial;
+import com.sistema.parkapi.repository.projection.UsuarioResumo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, UsuarioNaturalIdRepository {
 
-    Optional<Usuario> findByUsername(String username);
+    default Optional<Usuario> findByUsername(String username) {
+        return findByUsernameNormalizado(Usuario.normalizar(username));
+    }
 
-    @Query("SELECT u.role FROM Usuario u WHERE u.username like :username")
-    Usuario.Role findRoleByUsername(String username);
+    @Query("SELECT u.role FROM Usuario u WHERE u.usernameNormalizado = :usernameNormalizado")
+    Usuario.Role findRoleByUsernameNormalizado(String usernameNormalizado);
+
+    default Usuario.Role findRoleByUsername(String username) {
+        return findRoleByUsernameNormalizado(Usuario.normalizar(username));
+    }
+
+    @Query("SELECT new com.sistema.parkapi.repository.projection.UsuarioResumo(u.id, u.username, u.role) " +
+            "FROM Usuario u WHERE u.id = :id")
+    Optional<UsuarioResumo> findResumoById(Long id);
+
+    @Query("SELECT new com.sistema.parkapi.repository.projection.UsuarioResumo(u.id, u.username, u.role) " +
+            "FROM Usuario u WHERE u.id > :id ORDER BY u.id")
+    List<UsuarioResumo> findResumosAfterId(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.sistema.parkapi.repository.projection.UsuarioResumo(u.id, u.username, u.role) " +
+            "FROM Usuario u ORDER BY u.id")
+    Stream<UsuarioResumo> streamResumosOrderById();
+
+    @Query("SELECT u.usernameNormalizado FROM Usuario u WHERE u.usernameNormalizado IN :usernamesNormalizados")
+    List<String> findUsernamesNormalizadosIn(Collection<String> usernamesNormalizados);
+
+    default Optional<UsuarioCredencial> findCredencialByUsername(String username) {
+        return findByUsername(username)
+                .map(u -> new UsuarioCredencial(u.getId(), u.getUsername(), u.getPassword(), u.getRole()));
+    }
 }
@@ -0,0 +1,45 @@
+package com.sistema.parkapi.repository;
+
+import com.sistema.parkapi.entity.Vaga;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface VagaRepository extends JpaRepository<Vaga, Long> {
+
+    /**
+     * Ocupa a vaga se ela ainda estiver livre na base.
+     *
+     * @return {@code 1} se a vaga foi ocupada, {@code 0} se já estava ocupada.
+     */
+    @Modifying
+    @Query("UPDATE Vaga v SET v.usuarioId = :usuarioId, v.dataOcupacao = :agora " +
+            "WHERE v.estacionamentoId = :estacionamentoId AND v.numero = :numero AND v.usuarioId IS NULL")
+    int ocuparSeLivre(Long estacionamentoId, int numero, Long usuarioId, LocalDateTime agora);
+
+    /**
+     * Libera a vaga se ela estiver ocupada.
+     *
+     * @return {@code 1} se a vaga foi liberada.
+     */
+    @Modifying
+    @Query("UPDATE Vaga v SET v.usuarioId = NULL, v.dataOcupacao = NULL " +
+            "WHERE v.estacionamentoId = :estacionamentoId AND v.numero = :numero AND v.usuarioId IS NOT NULL")
+    int liberar(Long estacionamentoId, int numero);
+
+    /**
+     * Libera a vaga se ela estiver ocupada pelo usuário informado.
+     *
+     * @return {@code 1} se a vaga foi liberada.
+     */
+    @Modifying
+    @Query("UPDATE Vaga v SET v.usuarioId = NULL, v.dataOcupacao = NULL " +
+            "WHERE v.estacionamentoId = :estacionamentoId AND v.numero = :numero AND v.usuarioId = :usuarioId")
+    int liberarDoUsuario(Long estacionamentoId, int numero, Long usuarioId);
+
+    @Query("SELECT v.numero FROM Vaga v WHERE v.estacionamentoId = :estacionamentoId AND v.usuarioId IS NOT NULL")
+    List<Integer> findNumerosOcupados(Long estacionamentoId);
+}
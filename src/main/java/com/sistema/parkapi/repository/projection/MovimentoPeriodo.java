@@ -0,0 +1,20 @@
+package com.sistema.parkapi.repository.projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção somente leitura do movimento de um estacionamento em uma hora ou em um dia.
+ *
+ * @param inicio       início do período, em hora local.
+ * @param entradas     tickets abertos no período.
+ * @param saidas       tickets encerrados no período.
+ * @param picoOcupacao maior quantidade de tickets abertos ao mesmo tempo no período.
+ * @param receita      soma dos valores das saídas do período, em centavos.
+ */
+public record MovimentoPeriodo(LocalDateTime inicio, Long entradas, Long saidas, Long picoOcupacao, Long receita) {
+
+    public MovimentoPeriodo(LocalDate dia, Long entradas, Long saidas, Long picoOcupacao, Long receita) {
+        this(dia.atStartOfDay(), entradas, saidas, picoOcupacao, receita);
+    }
+}
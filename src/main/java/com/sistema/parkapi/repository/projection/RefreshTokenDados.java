@@ -0,0 +1,21 @@
+package com.sistema.parkapi.repository.projection;
+
+import com.sistema.parkapi.entity.Usuario;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção somente leitura de um refresh token junto com os dados do usuário necessários
+ * para emitir um novo token de acesso.
+ *
+ * @param id            identificador do refresh token.
+ * @param familia       família de rotação do token.
+ * @param dataExpiracao instante de expiração do token.
+ * @param dataRevogacao instante de revogação, ou {@code null} se o token ainda não foi usado nem revogado.
+ * @param usuarioId     identificador do usuário.
+ * @param username      nome do usuário.
+ * @param role          role do usuário.
+ */
+public record RefreshTokenDados(Long id, String familia, LocalDateTime dataExpiracao, LocalDateTime dataRevogacao,
+                                Long usuarioId, String username, Usuario.Role role) {
+}
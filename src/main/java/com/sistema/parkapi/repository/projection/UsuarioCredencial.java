@@ -0,0 +1,14 @@
+package com.sistema.parkapi.repository.projection;
+
+import com.sistema.parkapi.entity.Usuario;
+
+/**
+ * Projeção somente leitura com os dados necessários para autenticar um usuário.
+ *
+ * @param id       identificador do usuário.
+ * @param username nome do usuário.
+ * @param password hash da senha do usuário.
+ * @param role     role do usuário.
+ */
+public record UsuarioCredencial(Long id, String username, String password, Usuario.Role role) {
+}
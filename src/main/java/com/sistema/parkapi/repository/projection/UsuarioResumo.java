@@ -0,0 +1,13 @@
+package com.sistema.parkapi.repository.projection;
+
+import com.sistema.parkapi.entity.Usuario;
+
+/**
+ * Projeção somente leitura com os dados públicos de um usuário.
+ *
+ * @param id       identificador do usuário.
+ * @param username nome do usuário.
+ * @param role     role do usuário.
+ */
+public record UsuarioResumo(Long id, String username, Usuario.Role role) {
+}
@@ -0,0 +1,135 @@
+package com.sistema.parkapi.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de ocupação em memória de todos os estacionamentos, um {@link OcupacaoBitmap} por estacionamento.
+ * <p>
+ * É a via rápida da alocação: escolher e reservar a próxima vaga livre não toma lock nem consulta a
+ * base. O estado durável fica na tabela {@code vagas}, gravado pelo {@link EstacionamentoService},
+ * que também reconstrói este mapa na subida e o substitui pelo estado da base periodicamente e quando
+ * o estacionamento parece lotado ({@link #substituir(Long, Collection)}). O mapa é local a cada
+ * instância: uma vaga liberada em outra instância só volta a ficar livre aqui nessa substituição. As
+ * vagas livres de cada estacionamento são publicadas no gauge {@code vagas.livres} (tag
+ * {@code estacionamento}).
+ */
+@Component
+public class AlocadorDeVagas {
+
+    private final Map<Long, OcupacaoBitmap> estacionamentos = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public AlocadorDeVagas(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registra um estacionamento com todas as vagas livres, se ainda não estiver registrado.
+     *
+     * @param estacionamentoId identificador do estacionamento.
+     * @param totalVagas       quantidade de vagas.
+     * @return {@code true} se o estacionamento foi registrado agora.
+     */
+    public boolean registrar(Long estacionamentoId, int totalVagas) {
+        return registrar(estacionamentoId, totalVagas, List.of());
+    }
+
+    /**
+     * Registra um estacionamento com as vagas ocupadas informadas, se ainda não estiver registrado. O
+     * mapa é montado antes de ser publicado; entre registros concorrentes vale o primeiro, sem lock.
+     *
+     * @param estacionamentoId identificador do estacionamento.
+     * @param totalVagas       quantidade de vagas.
+     * @param ocupadas         números das vagas ocupadas na base.
+     * @return {@code true} se o estacionamento foi registrado agora.
+     */
+    public boolean registrar(Long estacionamentoId, int totalVagas, Collection<Integer> ocupadas) {
+        OcupacaoBitmap bitmap = new OcupacaoBitmap(totalVagas);
+        for (Integer numero : ocupadas) {
+            bitmap.ocupar(numero);
+        }
+        if (estacionamentos.putIfAbsent(estacionamentoId, bitmap) != null) {
+            return false;
+        }
+        Gauge.builder("vagas.livres", estacionamentos, e -> e.get(estacionamentoId).livres())
+                .tag("estacionamento", String.valueOf(estacionamentoId))
+                .register(meterRegistry);
+        return true;
+    }
+
+    public boolean isRegistrado(Long estacionamentoId) {
+        return estacionamentos.containsKey(estacionamentoId);
+    }
+
+    public Set<Long> registrados() {
+        return estacionamentos.keySet();
+    }
+
+    /**
+     * Substitui o mapa do estacionamento por um com as vagas ocupadas informadas.
+     * <p>
+     * Uma reserva desta instância ainda não confirmada na base pode aparecer livre no mapa novo; o
+     * UPDATE condicional da alocação impede que a vaga seja entregue duas vezes.
+     *
+     * @param estacionamentoId identificador do estacionamento.
+     * @param ocupadas         números das vagas ocupadas na base.
+     */
+    public void substituir(Long estacionamentoId, Collection<Integer> ocupadas) {
+        OcupacaoBitmap novo = new OcupacaoBitmap(capacidade(estacionamentoId));
+        for (Integer numero : ocupadas) {
+            novo.ocupar(numero);
+        }
+        estacionamentos.put(estacionamentoId, novo);
+    }
+
+    /**
+     * Reserva a vaga livre de menor número.
+     *
+     * @return o número da vaga reservada, ou {@code 0} se o estacionamento estiver lotado.
+     */
+    public int reservar(Long estacionamentoId) {
+        return bitmap(estacionamentoId).ocupar();
+    }
+
+    /**
+     * Marca uma vaga como ocupada.
+     *
+     * @return {@code true} se a vaga estava livre.
+     */
+    public boolean ocupar(Long estacionamentoId, int numero) {
+        return bitmap(estacionamentoId).ocupar(numero);
+    }
+
+    /**
+     * Libera uma vaga.
+     *
+     * @return {@code true} se a vaga estava ocupada.
+     */
+    public boolean liberar(Long estacionamentoId, int numero) {
+        return bitmap(estacionamentoId).liberar(numero);
+    }
+
+    public int livres(Long estacionamentoId) {
+        return bitmap(estacionamentoId).livres();
+    }
+
+    public int capacidade(Long estacionamentoId) {
+        return bitmap(estacionamentoId).capacidade();
+    }
+
+    private OcupacaoBitmap bitmap(Long estacionamentoId) {
+        OcupacaoBitmap bitmap = estacionamentos.get(estacionamentoId);
+        if (bitmap == null) {
+            throw new IllegalStateException(String.format("Estacionamento %d não registrado no alocador", estacionamentoId));
+        }
+        return bitmap;
+    }
+}
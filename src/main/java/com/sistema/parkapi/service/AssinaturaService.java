@@ -0,0 +1,36 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.entity.Assinatura;
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.repository.AssinaturaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Assinaturas mensais dos clientes, faturadas pelo {@code FaturamentoMensal}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssinaturaService {
+
+    private final AssinaturaRepository assinaturaRepository;
+    private final UsuarioService usuarioService;
+
+    /**
+     * Cria ou substitui a assinatura do usuário.
+     *
+     * @throws EntityNotFoundException se o usuário não existir.
+     */
+    @Transactional
+    public Assinatura salvar(Assinatura assinatura) {
+        usuarioService.buscaPorId(assinatura.getUsuarioId());
+        return assinaturaRepository.save(assinatura);
+    }
+
+    @Transactional(readOnly = true)
+    public Assinatura buscarPorUsuario(Long usuarioId) {
+        return assinaturaRepository.findById(usuarioId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Assinatura do usuário id = %s não encontrada", usuarioId)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.audit.AuditoriaBuffer;
+import com.sistema.parkapi.audit.AuditoriaEvento;
+import com.sistema.parkapi.exception.LoginThrottledException;
+import com.sistema.parkapi.jwt.JwtToken;
+import com.sistema.parkapi.jwt.JwtUserDetails;
+import com.sistema.parkapi.jwt.JwtUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class AutenticacaoService {
+
+    private final AuthenticationManager authenticationManager;
+    private final JwtUserDetailsService detailsService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginThrottle loginThrottle;
+    private final AuditoriaBuffer auditoria;
+    private final Timer verificacaoDeSenha;
+    private final Timer emissaoDeToken;
+    private final Timer renovacaoDeToken;
+
+    public AutenticacaoService(AuthenticationManager authenticationManager,
+                               JwtUserDetailsService detailsService,
+                               PasswordHashingExecutor passwordHashingExecutor,
+                               RefreshTokenService refreshTokenService,
+                               LoginThrottle loginThrottle,
+                               AuditoriaBuffer auditoria,
+                               MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.detailsService = detailsService;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.refreshTokenService = refreshTokenService;
+        this.loginThrottle = loginThrottle;
+        this.auditoria = auditoria;
+        this.verificacaoDeSenha = Timer.builder("auth.login").tag("etapa", "senha").register(meterRegistry);
+        this.emissaoDeToken = Timer.builder("auth.login").tag("etapa", "token").register(meterRegistry);
+        this.renovacaoDeToken = Timer.builder("auth.refresh").register(meterRegistry);
+    }
+
+    /**
+     * Autentica o usuário no pool de hash de senha e emite o token a partir do próprio usuário
+     * resolvido pela autenticação, sem uma segunda consulta à base. Junto com o token é emitido um
+     * refresh token, que permite renovar o acesso sem uma nova verificação de senha.
+     *
+     * @param username nome do usuário.
+     * @param password senha informada.
+     * @param ip       endereço do cliente, usado pelo limitador de tentativas e pela auditoria.
+     * @return o token JWT com o refresh token, ou um futuro completado com {@code AuthenticationException} se as credenciais forem inválidas.
+     * @throws LoginThrottledException se o usuário ou o IP tiver excedido o limite de tentativas.
+     */
+    public CompletableFuture<JwtToken> autenticar(String username, String password, String ip) {
+        loginThrottle.verificar(username, ip);
+        return passwordHashingExecutor.submit(() -> {
+            Authentication authentication;
+            try {
+                authentication = verificacaoDeSenha.record(() -> authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(username, password)));
+            } catch (AuthenticationException ex) {
+                auditoria.publicar(AuditoriaEvento.of(AuditoriaEvento.Tipo.LOGIN_FALHA, username, ip,
+                        ex.getClass().getSimpleName()));
+                throw ex;
+            }
+            auditoria.publicar(AuditoriaEvento.of(AuditoriaEvento.Tipo.LOGIN_SUCESSO, username, ip, null));
+            JwtUserDetails userDetails = (JwtUserDetails) authentication.getPrincipal();
+            return emissaoDeToken.record(() -> {
+                JwtToken token = detailsService.getTokenAuthenticated(userDetails);
+                token.setRefreshToken(refreshTokenService.emitir(userDetails.getId()));
+                return token;
+            });
+        });
+    }
+
+    /**
+     * Troca um refresh token por um novo token de acesso, sem verificar a senha.
+     *
+     * @param refreshToken o refresh token emitido no login ou na última renovação.
+     * @return o novo token JWT com o refresh token rotacionado.
+     */
+    public JwtToken renovar(String refreshToken) {
+        return renovacaoDeToken.record(() -> refreshTokenService.renovar(refreshToken));
+    }
+}
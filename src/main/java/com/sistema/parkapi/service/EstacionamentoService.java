@@ -0,0 +1,268 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.entity.Estacionamento;
+import com.sistema.parkapi.entity.Vaga;
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.exception.EstacionamentoLotadoException;
+import com.sistema.parkapi.exception.EstacionamentoNomeUniqueViolationException;
+import com.sistema.parkapi.repository.EstacionamentoRepository;
+import com.sistema.parkapi.repository.VagaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estacionamentos e alocação de vagas.
+ * <p>
+ * A vaga é escolhida e reservada no {@link AlocadorDeVagas}, sem lock, e depois gravada na tabela
+ * {@code vagas} com um UPDATE condicional ({@code id_usuario IS NULL}), que é o que garante que a vaga
+ * não seja entregue a dois clientes mesmo entre instâncias. Se a transação não for confirmada, a
+ * reserva em memória é desfeita; uma liberação só devolve a vaga ao alocador após o commit.
+ * <p>
+ * O mapa de ocupação é local a cada instância e reconstruído a partir da base na subida. Liberações
+ * feitas em outra instância não chegam a ele: o mapa de um estacionamento é recarregado da base quando
+ * a reserva não encontra vaga (no máximo uma vez por segundo por estacionamento) e, para todos, a cada
+ * {@code park.vagas.ressincronizacao}. Até lá, uma vaga liberada em outra instância só é entregue por
+ * ela, e a contagem de vagas livres desta instância pode ficar abaixo da real.
+ * <p>
+ * As alocações são contadas em {@code vagas.alocacao} (tag {@code resultado}: {@code alocada},
+ * {@code lotado} ou {@code conflito}, quando a vaga já estava ocupada na base).
+ */
+@Slf4j
+@Service
+public class EstacionamentoService {
+
+    private static final long INTERVALO_MINIMO_RESSINCRONIZACAO = TimeUnit.SECONDS.toNanos(1);
+
+    private final EstacionamentoRepository estacionamentoRepository;
+    private final VagaRepository vagaRepository;
+    private final AlocadorDeVagas alocador;
+    // Instante (System.nanoTime) da última recarga de cada estacionamento por falta de vaga
+    private final ConcurrentHashMap<Long, Long> ressincronizacoes = new ConcurrentHashMap<>();
+    private final Counter alocadas;
+    private final Counter lotados;
+    private final Counter conflitos;
+
+    public EstacionamentoService(EstacionamentoRepository estacionamentoRepository,
+                                 VagaRepository vagaRepository,
+                                 AlocadorDeVagas alocador,
+                                 MeterRegistry meterRegistry) {
+        this.estacionamentoRepository = estacionamentoRepository;
+        this.vagaRepository = vagaRepository;
+        this.alocador = alocador;
+        this.alocadas = Counter.builder("vagas.alocacao").tag("resultado", "alocada").register(meterRegistry);
+        this.lotados = Counter.builder("vagas.alocacao").tag("resultado", "lotado").register(meterRegistry);
+        this.conflitos = Counter.builder("vagas.alocacao").tag("resultado", "conflito").register(meterRegistry);
+    }
+
+    /**
+     * Cria o estacionamento e suas vagas, numeradas de 1 a {@code totalVagas}.
+     */
+    @Transactional
+    public Estacionamento salvar(Estacionamento estacionamento) {
+        Estacionamento salvo;
+        try {
+            salvo = estacionamentoRepository.saveAndFlush(estacionamento);
+        } catch (DataIntegrityViolationException ex) {
+            throw new EstacionamentoNomeUniqueViolationException(
+                    String.format("Estacionamento {%s} já cadastrado", estacionamento.getNome()));
+        }
+        List<Vaga> vagas = new ArrayList<>(salvo.getTotalVagas());
+        for (int numero = 1; numero <= salvo.getTotalVagas(); numero++) {
+            vagas.add(new Vaga(salvo.getId(), numero));
+        }
+        vagaRepository.saveAll(vagas);
+
+        Long id = salvo.getId();
+        int totalVagas = salvo.getTotalVagas();
+        aposCommit(() -> alocador.registrar(id, totalVagas));
+        return salvo;
+    }
+
+    @Transactional(readOnly = true)
+    public Estacionamento buscarPorId(Long id) {
+        return estacionamentoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Estacionamento id = %s não encontrado", id)));
+    }
+
+    /**
+     * Confirma que o estacionamento existe, pelo mapa em memória; a base só é consultada para um
+     * estacionamento ainda não registrado.
+     *
+     * @throws EntityNotFoundException se o estacionamento não existir.
+     */
+    public void verificarExistencia(Long estacionamentoId) {
+        garantirRegistro(estacionamentoId);
+    }
+
+    /**
+     * Quantidade de vagas livres, lida do mapa em memória.
+     */
+    public int contarVagasLivres(Long estacionamentoId) {
+        garantirRegistro(estacionamentoId);
+        return alocador.livres(estacionamentoId);
+    }
+
+    /**
+     * Aloca ao usuário a vaga livre de menor número.
+     *
+     * @param estacionamentoId identificador do estacionamento.
+     * @param usuarioId        identificador do cliente.
+     * @return a vaga ocupada.
+     * @throws EstacionamentoLotadoException se não houver vaga livre.
+     */
+    @Transactional
+    public Vaga alocarVaga(Long estacionamentoId, Long usuarioId) {
+        garantirRegistro(estacionamentoId);
+        LocalDateTime agora = LocalDateTime.now();
+        while (true) {
+            int numero = reservar(estacionamentoId);
+            if (numero == 0) {
+                lotados.increment();
+                throw new EstacionamentoLotadoException(
+                        String.format("Estacionamento id = %s sem vagas livres", estacionamentoId));
+            }
+            if (vagaRepository.ocuparSeLivre(estacionamentoId, numero, usuarioId, agora) == 1) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status != STATUS_COMMITTED) {
+                            alocador.liberar(estacionamentoId, numero);
+                        }
+                    }
+                });
+                alocadas.increment();
+                Vaga vaga = new Vaga(estacionamentoId, numero);
+                vaga.setUsuarioId(usuarioId);
+                vaga.setDataOcupacao(agora);
+                return vaga;
+            }
+            // Ocupada na base por outra instância: a vaga continua marcada e a próxima é tentada
+            conflitos.increment();
+        }
+    }
+
+    /**
+     * Libera uma vaga ocupada.
+     *
+     * @param estacionamentoId identificador do estacionamento.
+     * @param numero           número da vaga.
+     * @param usuarioId        ocupante esperado da vaga, ou {@code null} para liberar qualquer ocupante.
+     */
+    @Transactional
+    public void liberarVaga(Long estacionamentoId, int numero, Long usuarioId) {
+        int liberadas = usuarioId == null
+                ? vagaRepository.liberar(estacionamentoId, numero)
+                : vagaRepository.liberarDoUsuario(estacionamentoId, numero, usuarioId);
+        if (liberadas == 0) {
+            throw new EntityNotFoundException(String.format(
+                    "Vaga %d do estacionamento id = %s não está ocupada%s", numero, estacionamentoId,
+                    usuarioId == null ? "" : " pelo usuário"));
+        }
+        garantirRegistro(estacionamentoId);
+        aposCommit(() -> alocador.liberar(estacionamentoId, numero));
+    }
+
+    /**
+     * Reconstrói o mapa de ocupação de todos os estacionamentos a partir da tabela {@code vagas}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregarOcupacao() {
+        List<Estacionamento> estacionamentos = estacionamentoRepository.findAll();
+        for (Estacionamento estacionamento : estacionamentos) {
+            garantirRegistro(estacionamento);
+        }
+        log.info("Ocupação de {} estacionamento(s) carregada", estacionamentos.size());
+    }
+
+    /**
+     * Recarrega da base o mapa de ocupação de todos os estacionamentos registrados, trazendo as
+     * liberações feitas por outras instâncias.
+     */
+    @Scheduled(fixedDelayString = "${park.vagas.ressincronizacao:PT1M}",
+            initialDelayString = "${park.vagas.ressincronizacao:PT1M}")
+    @Transactional // lida da primária; uma réplica atrasada devolveria vagas já ocupadas
+    public void ressincronizar() {
+        for (Long estacionamentoId : alocador.registrados()) {
+            alocador.substituir(estacionamentoId, vagaRepository.findNumerosOcupados(estacionamentoId));
+        }
+    }
+
+    /**
+     * Reserva uma vaga no alocador, recarregando o mapa da base se ele não tiver vaga livre.
+     *
+     * @return o número da vaga reservada, ou {@code 0} se o estacionamento estiver lotado.
+     */
+    private int reservar(Long estacionamentoId) {
+        int numero = alocador.reservar(estacionamentoId);
+        if (numero == 0 && ressincronizarSeLotado(estacionamentoId)) {
+            numero = alocador.reservar(estacionamentoId);
+        }
+        return numero;
+    }
+
+    /**
+     * Recarrega da base o mapa de um estacionamento que parece lotado, a não ser que isso já tenha sido
+     * feito há menos de um segundo; assim uma sequência de pedidos num estacionamento realmente lotado
+     * não consulta a base a cada pedido.
+     *
+     * @return {@code true} se o mapa foi recarregado.
+     */
+    private boolean ressincronizarSeLotado(Long estacionamentoId) {
+        long agora = System.nanoTime();
+        Long ultima = ressincronizacoes.get(estacionamentoId);
+        if (ultima != null && agora - ultima < INTERVALO_MINIMO_RESSINCRONIZACAO) {
+            return false;
+        }
+        boolean vez = ultima == null
+                ? ressincronizacoes.putIfAbsent(estacionamentoId, agora) == null
+                : ressincronizacoes.replace(estacionamentoId, ultima, agora);
+        if (!vez) {
+            return false;
+        }
+        alocador.substituir(estacionamentoId, vagaRepository.findNumerosOcupados(estacionamentoId));
+        return true;
+    }
+
+    private void garantirRegistro(Long estacionamentoId) {
+        if (!alocador.isRegistrado(estacionamentoId)) {
+            garantirRegistro(buscarPorId(estacionamentoId));
+        }
+    }
+
+    /**
+     * Registra o estacionamento no alocador com as vagas ocupadas na base, caso ainda não esteja
+     * registrado (estacionamento criado por outra instância, ou requisição anterior à carga inicial).
+     * Sem lock: registros concorrentes consultam a base cada um e só o primeiro mapa é publicado.
+     */
+    private void garantirRegistro(Estacionamento estacionamento) {
+        if (!alocador.isRegistrado(estacionamento.getId())) {
+            alocador.registrar(estacionamento.getId(), estacionamento.getTotalVagas(),
+                    vagaRepository.findNumerosOcupados(estacionamento.getId()));
+        }
+    }
+
+    private static void aposCommit(Runnable acao) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
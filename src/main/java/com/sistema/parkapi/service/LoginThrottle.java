@@ -0,0 +1,94 @@
+package com.sistema.parkapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.parkapi.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limitador de tentativas de login por nome de usuário e por IP do cliente.
+ * <p>
+ * Cada chave tem um token bucket implementado como GCRA (generic cell rate algorithm): o estado é um
+ * único {@link AtomicLong} com o instante teórico da próxima chegada, atualizado por CAS, sem locks.
+ * Os buckets ficam em caches Caffeine limitados em tamanho e expiram quando ficam ociosos tempo
+ * suficiente para voltarem a estar cheios, então a memória é limitada mesmo sob ataque com chaves
+ * aleatórias.
+ * <p>
+ * A verificação acontece antes da tarefa de autenticação ser submetida ao pool de hash de senha;
+ * tentativas acima do limite não custam nenhuma verificação de BCrypt.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Limite porUsuario;
+    private final Limite porIp;
+
+    public LoginThrottle(@Value("${park.login-throttle.usuario.tentativas-por-minuto:10}") int tentativasPorUsuario,
+                         @Value("${park.login-throttle.usuario.rajada:5}") int rajadaPorUsuario,
+                         @Value("${park.login-throttle.ip.tentativas-por-minuto:60}") int tentativasPorIp,
+                         @Value("${park.login-throttle.ip.rajada:20}") int rajadaPorIp,
+                         @Value("${park.login-throttle.maximum-size:100000}") long maximumSize,
+                         MeterRegistry meterRegistry) {
+        this.porUsuario = new Limite("usuario", tentativasPorUsuario, rajadaPorUsuario, maximumSize, meterRegistry);
+        this.porIp = new Limite("ip", tentativasPorIp, rajadaPorIp, maximumSize, meterRegistry);
+    }
+
+    /**
+     * Consome uma tentativa de login do IP e do usuário informados.
+     *
+     * @param username nome do usuário informado no login.
+     * @param ip       endereço do cliente.
+     * @throws LoginThrottledException se o IP ou o usuário tiver excedido o limite.
+     */
+    public void verificar(String username, String ip) {
+        porIp.consumir(ip);
+        porUsuario.consumir(username == null ? "" : username.toLowerCase(Locale.ROOT));
+    }
+
+    private static final class Limite {
+
+        private final Cache<String, AtomicLong> buckets;
+        private final long intervalo;
+        private final long tolerancia;
+        private final Counter rejeicoes;
+
+        private Limite(String chave, int tentativasPorMinuto, int rajada, long maximumSize, MeterRegistry meterRegistry) {
+            this.intervalo = TimeUnit.MINUTES.toNanos(1) / Math.max(1, tentativasPorMinuto);
+            this.tolerancia = intervalo * (Math.max(1, rajada) - 1);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterAccess(Duration.ofNanos(intervalo + tolerancia))
+                    .build();
+            this.rejeicoes = Counter.builder("auth.login.throttled")
+                    .description("Tentativas de login rejeitadas pelo limitador")
+                    .tag("chave", chave)
+                    .register(meterRegistry);
+        }
+
+        private void consumir(String chave) {
+            AtomicLong chegadaTeorica = buckets.get(chave, k -> new AtomicLong(Long.MIN_VALUE));
+            long agora = System.nanoTime();
+            while (true) {
+                long atual = chegadaTeorica.get();
+                long base = atual == Long.MIN_VALUE || atual - agora < 0 ? agora : atual;
+                long espera = base - agora - tolerancia;
+                if (espera > 0) {
+                    rejeicoes.increment();
+                    throw new LoginThrottledException("Muitas tentativas de login, tente novamente mais tarde",
+                            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1)));
+                }
+                if (chegadaTeorica.compareAndSet(atual, base + intervalo)) {
+                    return;
+                }
+            }
+        }
+    }
+}
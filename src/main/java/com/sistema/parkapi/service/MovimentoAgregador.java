@@ -0,0 +1,295 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.entity.MovimentoHorario;
+import com.sistema.parkapi.entity.Ticket;
+import com.sistema.parkapi.entity.TicketJournalCheckpoint;
+import com.sistema.parkapi.repository.MovimentoHorarioRepository;
+import com.sistema.parkapi.repository.TicketJournalCheckpointRepository;
+import com.sistema.parkapi.ticket.TicketEvento;
+import com.sistema.parkapi.ticket.TicketJournal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de movimento por estacionamento e hora local, mantidos em memória a cada entrada e saída
+ * e somados periodicamente à tabela {@code movimentos_horarios}.
+ * <p>
+ * Os eventos chegam do {@link TicketJournal}, em ordem de sequência, assim que estão no disco e antes da
+ * resposta à cancela; as cancelas não acessam a base. Os contadores são {@link LongAdder} e
+ * {@link LongAccumulator}. A cada {@code park.movimentos.intervalo} eles são lidos e zerados, e a
+ * diferença é somada às linhas da tabela com um batch de UPDATEs; as horas ainda sem linha são
+ * inseridas. Uma gravação que falha é mantida e somada à seguinte.
+ * <p>
+ * Na mesma transação é gravada a última sequência do diário já somada ({@code <instancia>/movimentos} em
+ * {@code ticket_journal_checkpoints}), e o diário guarda os segmentos até ela. Na subida, os eventos
+ * posteriores são somados de novo ({@link #iniciar(Collection, List)}): uma queda não perde nem repete
+ * movimento.
+ * <p>
+ * Entradas, saídas e receita só recebem incrementos, e várias instâncias podem gravar no mesmo
+ * estacionamento e hora. Já {@code pico_ocupacao} é o maior valor da ocupação conhecida por uma
+ * instância ({@code GREATEST}): os tickets abertos carregados na subida mais as entradas e saídas que
+ * ela mesma registrou. O pico só é correto se as cancelas de um estacionamento são atendidas por uma
+ * única instância; com várias, ele fica abaixo do real.
+ */
+@Slf4j
+@Component
+public class MovimentoAgregador {
+
+    /**
+     * Nome deste leitor no {@link TicketJournal}.
+     */
+    public static final String LEITOR = "movimentos";
+
+    private static final String ATUALIZAR = "UPDATE movimentos_horarios SET entradas = entradas + ?, saidas = saidas + ?, " +
+            "pico_ocupacao = GREATEST(pico_ocupacao, ?), receita = receita + ? WHERE id_estacionamento = ? AND hora = ?";
+
+    private final MovimentoHorarioRepository movimentoHorarioRepository;
+    private final TicketJournalCheckpointRepository checkpointRepository;
+    private final TicketJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration intervalo;
+    private final String checkpointId;
+    // Registro de eventos e leitura dos contadores são exclusivos, para que a sequência gravada corresponda à soma gravada
+    private final Object registro = new Object();
+    private final ConcurrentHashMap<Chave, Contadores> contadores = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, LongAdder> ocupacoes = new ConcurrentHashMap<>();
+    // Diferenças lidas dos contadores e ainda não gravadas; acessadas só com o lock do objeto
+    private final Map<Chave, Diferenca> pendentes = new HashMap<>();
+    private long ultimaSequencia;
+    private long sequenciaGravada;
+    private final Timer gravacao;
+    private final Counter falhas;
+
+    public MovimentoAgregador(MovimentoHorarioRepository movimentoHorarioRepository,
+                              TicketJournalCheckpointRepository checkpointRepository,
+                              TicketJournal journal,
+                              JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${park.movimentos.intervalo:PT10S}") Duration intervalo,
+                              @Value("${park.tickets.journal.instancia:local}") String instancia,
+                              MeterRegistry meterRegistry) {
+        this.movimentoHorarioRepository = movimentoHorarioRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.intervalo = intervalo;
+        this.checkpointId = instancia + "/" + LEITOR;
+        this.gravacao = Timer.builder("movimentos.gravacao").register(meterRegistry);
+        this.falhas = Counter.builder("movimentos.gravacao.falhas")
+                .description("Gravações de movimento que falharam e foram somadas à seguinte")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Última sequência do diário já somada à tabela por esta instância, vazia se ela nunca gravou movimento.
+     */
+    public OptionalLong checkpoint() {
+        return checkpointRepository.findById(checkpointId)
+                .map(checkpoint -> OptionalLong.of(checkpoint.getSequencia()))
+                .orElse(OptionalLong.empty());
+    }
+
+    /**
+     * Substitui a ocupação de todos os estacionamentos pela dos tickets abertos informados e soma o
+     * movimento dos eventos do diário ainda não gravado na tabela.
+     *
+     * @param abertos      tickets abertos, já considerados os eventos do diário.
+     * @param naoAgregados eventos posteriores ao {@link #checkpoint()}, em ordem de sequência; não
+     *                     alteram a ocupação nem o pico.
+     */
+    public void iniciar(Collection<Ticket> abertos, List<TicketEvento> naoAgregados) {
+        synchronized (registro) {
+            ocupacoes.clear();
+            for (Ticket ticket : abertos) {
+                ocupacao(ticket.getEstacionamentoId()).increment();
+            }
+            for (TicketEvento evento : naoAgregados) {
+                if (evento.tipo() == TicketEvento.Tipo.ENTRADA) {
+                    contadores(evento.estacionamentoId(), evento.dataEntrada()).entradas.increment();
+                } else {
+                    somarSaida(evento);
+                }
+                ultimaSequencia = evento.sequencia();
+            }
+        }
+    }
+
+    /**
+     * Soma os eventos, já duráveis no diário, aos contadores e à ocupação.
+     *
+     * @param eventos eventos em ordem de sequência.
+     */
+    public void registrar(List<TicketEvento> eventos) {
+        synchronized (registro) {
+            for (TicketEvento evento : eventos) {
+                LongAdder ocupacao = ocupacao(evento.estacionamentoId());
+                if (evento.tipo() == TicketEvento.Tipo.ENTRADA) {
+                    ocupacao.increment();
+                    Contadores hora = contadores(evento.estacionamentoId(), evento.dataEntrada());
+                    hora.entradas.increment();
+                    hora.pico.accumulate(ocupacao.sum());
+                } else {
+                    ocupacao.decrement();
+                    somarSaida(evento);
+                }
+                ultimaSequencia = evento.sequencia();
+            }
+        }
+    }
+
+    private void somarSaida(TicketEvento evento) {
+        Contadores hora = contadores(evento.estacionamentoId(), evento.dataSaida());
+        hora.saidas.increment();
+        // Saídas gravadas antes da tarifação não têm valor
+        hora.receita.add(evento.valor() == null ? 0 : evento.valor());
+    }
+
+    /**
+     * Soma à tabela o movimento acumulado desde a última gravação.
+     */
+    @Scheduled(fixedDelayString = "${park.movimentos.intervalo:PT10S}", initialDelayString = "${park.movimentos.intervalo:PT10S}")
+    public synchronized void gravar() {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime horaAtual = agora.truncatedTo(ChronoUnit.HOURS);
+        long sequencia;
+        synchronized (registro) {
+            // A ocupação que atravessa a hora conta no pico mesmo sem movimento
+            ocupacoes.forEach((estacionamentoId, ocupacao) -> {
+                long abertos = ocupacao.sum();
+                if (abertos > 0) {
+                    contadores(estacionamentoId, horaAtual).pico.accumulate(abertos);
+                }
+            });
+            // Uma hora encerrada há mais de um intervalo não recebe mais eventos e sai do mapa
+            LocalDateTime limite = horaAtual.minus(intervalo);
+            for (Iterator<Map.Entry<Chave, Contadores>> it = contadores.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Chave, Contadores> entrada = it.next();
+                if (entrada.getKey().hora().plusHours(1).isBefore(limite)) {
+                    it.remove();
+                }
+                entrada.getValue().transferir(pendentes.computeIfAbsent(entrada.getKey(), chave -> new Diferenca()));
+            }
+            sequencia = ultimaSequencia;
+        }
+        pendentes.values().removeIf(Diferenca::isVazia);
+        if (pendentes.isEmpty() && sequencia == sequenciaGravada) {
+            return;
+        }
+        try {
+            List<Map.Entry<Chave, Diferenca>> lista = new ArrayList<>(pendentes.entrySet());
+            gravacao.record(() -> transactionTemplate.executeWithoutResult(status -> {
+                gravarNaTransacao(lista);
+                checkpointRepository.saveAndFlush(new TicketJournalCheckpoint(checkpointId, sequencia));
+            }));
+            pendentes.clear();
+            sequenciaGravada = sequencia;
+            journal.descartarAte(LEITOR, sequencia);
+        } catch (RuntimeException ex) {
+            falhas.increment();
+            log.warn("Falha ao gravar o movimento de {} estacionamento(s)/hora(s); será somado à próxima gravação: {}",
+                    pendentes.size(), ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        gravar();
+    }
+
+    private void gravarNaTransacao(List<Map.Entry<Chave, Diferenca>> lista) {
+        if (lista.isEmpty()) {
+            return;
+        }
+        int[] atualizados = jdbcTemplate.batchUpdate(ATUALIZAR, lista, lista.size(), (ps, entrada) -> {
+            Diferenca diferenca = entrada.getValue();
+            ps.setLong(1, diferenca.entradas);
+            ps.setLong(2, diferenca.saidas);
+            ps.setLong(3, diferenca.pico);
+            ps.setLong(4, diferenca.receita);
+            ps.setLong(5, entrada.getKey().estacionamentoId());
+            ps.setTimestamp(6, Timestamp.valueOf(entrada.getKey().hora()));
+        })[0];
+        List<MovimentoHorario> novos = new ArrayList<>();
+        for (int i = 0; i < atualizados.length; i++) {
+            if (atualizados[i] == 0) {
+                novos.add(lista.get(i).getValue().toMovimento(lista.get(i).getKey()));
+            }
+        }
+        // Uma inserção concorrente da mesma hora por outra instância viola o índice único e a gravação é repetida
+        movimentoHorarioRepository.saveAllAndFlush(novos);
+    }
+
+    private LongAdder ocupacao(Long estacionamentoId) {
+        return ocupacoes.computeIfAbsent(estacionamentoId, id -> new LongAdder());
+    }
+
+    private Contadores contadores(Long estacionamentoId, LocalDateTime quando) {
+        return contadores.computeIfAbsent(new Chave(estacionamentoId, quando.truncatedTo(ChronoUnit.HOURS)),
+                chave -> new Contadores());
+    }
+
+    private record Chave(long estacionamentoId, LocalDateTime hora) {
+    }
+
+    private static final class Contadores {
+        final LongAdder entradas = new LongAdder();
+        final LongAdder saidas = new LongAdder();
+        final LongAdder receita = new LongAdder();
+        final LongAccumulator pico = new LongAccumulator(Math::max, 0);
+
+        void transferir(Diferenca diferenca) {
+            diferenca.entradas += entradas.sumThenReset();
+            diferenca.saidas += saidas.sumThenReset();
+            diferenca.receita += receita.sumThenReset();
+            diferenca.pico = Math.max(diferenca.pico, pico.getThenReset());
+        }
+    }
+
+    private static final class Diferenca {
+        long entradas;
+        long saidas;
+        long receita;
+        long pico;
+
+        boolean isVazia() {
+            return entradas == 0 && saidas == 0 && receita == 0 && pico == 0;
+        }
+
+        MovimentoHorario toMovimento(Chave chave) {
+            MovimentoHorario movimento = new MovimentoHorario();
+            movimento.setEstacionamentoId(chave.estacionamentoId());
+            movimento.setHora(chave.hora());
+            movimento.setEntradas(entradas);
+            movimento.setSaidas(saidas);
+            movimento.setPicoOcupacao(pico);
+            movimento.setReceita(receita);
+            return movimento;
+        }
+    }
+}
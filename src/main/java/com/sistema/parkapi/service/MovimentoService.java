@@ -0,0 +1,59 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.exception.InvalidPeriodException;
+import com.sistema.parkapi.repository.MovimentoHorarioRepository;
+import com.sistema.parkapi.repository.projection.MovimentoPeriodo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas dos painéis de movimento, lidas da tabela {@code movimentos_horarios} mantida pelo
+ * {@link MovimentoAgregador}. O custo depende só do período consultado, limitado por agrupamento, e
+ * não do histórico de tickets. O movimento mais recente aparece após a próxima gravação do agregador.
+ */
+@Service
+@RequiredArgsConstructor
+public class MovimentoService {
+
+    public enum Agrupamento {
+        HORA(Duration.ofDays(31)), DIA(Duration.ofDays(366));
+
+        private final Duration periodoMaximo;
+
+        Agrupamento(Duration periodoMaximo) {
+            this.periodoMaximo = periodoMaximo;
+        }
+    }
+
+    private final MovimentoHorarioRepository movimentoHorarioRepository;
+    private final EstacionamentoService estacionamentoService;
+
+    /**
+     * Movimento do estacionamento em {@code [inicio, fim)}, por hora ou por dia. Períodos sem movimento
+     * não aparecem.
+     *
+     * @throws EntityNotFoundException se o estacionamento não existir.
+     * @throws InvalidPeriodException  se o período for vazio ou maior que o permitido para o agrupamento.
+     */
+    @Transactional(readOnly = true)
+    public List<MovimentoPeriodo> buscar(Long estacionamentoId, LocalDateTime inicio, LocalDateTime fim,
+                                         Agrupamento agrupamento) {
+        if (!inicio.isBefore(fim)) {
+            throw new InvalidPeriodException("O início do período deve ser anterior ao fim");
+        }
+        if (Duration.between(inicio, fim).compareTo(agrupamento.periodoMaximo) > 0) {
+            throw new InvalidPeriodException(String.format("Período maior que %d dias para o agrupamento %s",
+                    agrupamento.periodoMaximo.toDays(), agrupamento));
+        }
+        estacionamentoService.verificarExistencia(estacionamentoId);
+        return agrupamento == Agrupamento.HORA
+                ? movimentoHorarioRepository.findPorHora(estacionamentoId, inicio, fim)
+                : movimentoHorarioRepository.findPorDia(estacionamentoId, inicio, fim);
+    }
+}
@@ -0,0 +1,185 @@
+package com.sistema.parkapi.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mapa de ocupação das vagas de um estacionamento, um bit por vaga (1 = ocupada), sem locks.
+ * <p>
+ * A ocupação e a liberação de uma vaga são um CAS na palavra de 64 bits que a contém. Um segundo
+ * nível de bits ({@code cheias}) marca as palavras sem bits livres, de modo que a busca da próxima
+ * vaga livre lê uma palavra de resumo (até 4096 vagas) e uma palavra de ocupação, em vez de percorrer
+ * o mapa inteiro. O resumo é só uma dica: ele pode dizer que uma palavra tem vaga livre quando não
+ * tem (o que custa uma tentativa a mais), mas nunca esconde uma vaga livre, porque quem libera uma
+ * vaga limpa o bit de resumo depois, e quem marca uma palavra como cheia confere a palavra de novo.
+ * <p>
+ * As vagas são numeradas a partir de 1; o bit {@code i} corresponde à vaga {@code i + 1}.
+ */
+final class OcupacaoBitmap {
+
+    private static final long CHEIA = -1L;
+
+    private final int capacidade;
+    private final AtomicLongArray palavras;
+    private final AtomicLongArray cheias;
+
+    OcupacaoBitmap(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        int quantidade = (capacidade + 63) >>> 6;
+        this.palavras = new AtomicLongArray(quantidade);
+        this.cheias = new AtomicLongArray((quantidade + 63) >>> 6);
+        // Bits além da capacidade ficam permanentemente ocupados
+        int resto = capacidade & 63;
+        if (resto != 0) {
+            palavras.set(quantidade - 1, CHEIA << resto);
+        }
+        // Índices do resumo sem palavra correspondente também ficam marcados como cheios
+        int restoResumo = quantidade & 63;
+        if (restoResumo != 0) {
+            cheias.set(cheias.length() - 1, CHEIA << restoResumo);
+        }
+    }
+
+    int capacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Ocupa a vaga livre de menor número.
+     *
+     * @return o número da vaga ocupada, ou {@code 0} se não houver vaga livre.
+     */
+    int ocupar() {
+        for (int r = 0; r < cheias.length(); r++) {
+            long livres;
+            while ((livres = ~cheias.get(r)) != 0) {
+                int indice = (r << 6) + Long.numberOfTrailingZeros(livres);
+                int bit = ocuparNaPalavra(indice);
+                if (bit >= 0) {
+                    return (indice << 6) + bit + 1;
+                }
+                // A palavra estava cheia; marca no resumo e segue para a próxima
+                marcarCheia(indice);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Marca uma vaga específica como ocupada (reconstrução do estado persistido).
+     *
+     * @param numero o número da vaga.
+     * @return {@code true} se a vaga estava livre.
+     */
+    boolean ocupar(int numero) {
+        int bit = bit(numero);
+        int indice = bit >>> 6;
+        long mascara = 1L << (bit & 63);
+        while (true) {
+            long atual = palavras.get(indice);
+            if ((atual & mascara) != 0) {
+                return false;
+            }
+            long nova = atual | mascara;
+            if (palavras.compareAndSet(indice, atual, nova)) {
+                if (nova == CHEIA) {
+                    marcarCheia(indice);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera uma vaga.
+     *
+     * @param numero o número da vaga.
+     * @return {@code true} se a vaga estava ocupada.
+     */
+    boolean liberar(int numero) {
+        int bit = bit(numero);
+        int indice = bit >>> 6;
+        long mascara = 1L << (bit & 63);
+        while (true) {
+            long atual = palavras.get(indice);
+            if ((atual & mascara) == 0) {
+                return false;
+            }
+            if (palavras.compareAndSet(indice, atual, atual & ~mascara)) {
+                // Sempre depois de liberar o bit, para que o resumo nunca esconda a vaga
+                limparCheia(indice);
+                return true;
+            }
+        }
+    }
+
+    boolean isOcupada(int numero) {
+        int bit = bit(numero);
+        return (palavras.get(bit >>> 6) & (1L << (bit & 63))) != 0;
+    }
+
+    /**
+     * Conta as vagas livres. Percorre o mapa inteiro; não é usada na alocação.
+     */
+    int livres() {
+        int ocupadas = 0;
+        for (int i = 0; i < palavras.length(); i++) {
+            ocupadas += Long.bitCount(palavras.get(i));
+        }
+        // Os bits além da capacidade contam como ocupados, então a diferença já é o número de vagas livres
+        return palavras.length() * 64 - ocupadas;
+    }
+
+    /**
+     * Tenta ocupar o bit livre mais baixo da palavra.
+     *
+     * @return o bit ocupado, ou {@code -1} se a palavra estiver cheia.
+     */
+    private int ocuparNaPalavra(int indice) {
+        while (true) {
+            long atual = palavras.get(indice);
+            if (atual == CHEIA) {
+                return -1;
+            }
+            int bit = Long.numberOfTrailingZeros(~atual);
+            long nova = atual | (1L << bit);
+            if (palavras.compareAndSet(indice, atual, nova)) {
+                if (nova == CHEIA) {
+                    marcarCheia(indice);
+                }
+                return bit;
+            }
+        }
+    }
+
+    private void marcarCheia(int indice) {
+        int r = indice >>> 6;
+        long mascara = 1L << (indice & 63);
+        long atual;
+        do {
+            atual = cheias.get(r);
+        } while ((atual & mascara) == 0 && !cheias.compareAndSet(r, atual, atual | mascara));
+        // Uma liberação entre o CAS da palavra e a marcação acima deixaria o resumo mentindo
+        if (palavras.get(indice) != CHEIA) {
+            limparCheia(indice);
+        }
+    }
+
+    private void limparCheia(int indice) {
+        int r = indice >>> 6;
+        long mascara = 1L << (indice & 63);
+        long atual;
+        do {
+            atual = cheias.get(r);
+        } while ((atual & mascara) != 0 && !cheias.compareAndSet(r, atual, atual & ~mascara));
+    }
+
+    private int bit(int numero) {
+        if (numero < 1 || numero > capacidade) {
+            throw new IllegalArgumentException(String.format("Vaga %d fora do intervalo 1..%d", numero, capacidade));
+        }
+        return numero - 1;
+    }
+}
@@ -0,0 +1,138 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.exception.CapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publicação da ocupação dos estacionamentos para os assinantes do stream de ocupação.
+ * <p>
+ * Há um canal por estacionamento, compartilhado por todos os assinantes dele: um sink que guarda só a
+ * última ocupação publicada, entregue a quem assina. Uma única thread lê o {@link AlocadorDeVagas}
+ * {@code park.ocupacao.stream.atualizacoes-por-segundo} vezes por segundo e publica nos canais cuja
+ * ocupação mudou, de modo que qualquer quantidade de alocações entre duas leituras vira uma única
+ * atualização, e a alocação não faz nenhum trabalho a mais por haver assinantes.
+ * <p>
+ * Cada assinante recebe as atualizações com {@code onBackpressureLatest}: um cliente lento guarda no
+ * máximo a ocupação mais recente ainda não enviada, nunca uma fila. A quantidade de assinantes é
+ * limitada por {@code park.ocupacao.stream.max-assinantes}; a vaga de assinante é reservada em
+ * {@link #assinar(Long)} e devolvida quando o fluxo termina. O canal de um estacionamento existe
+ * enquanto tiver assinantes, para que o publicador só leia a ocupação do que alguém está assistindo.
+ */
+@Component
+public class OcupacaoBroadcaster implements DisposableBean {
+
+    private final AlocadorDeVagas alocador;
+    private final int maxAssinantes;
+    private final Map<Long, Canal> canais = new ConcurrentHashMap<>();
+    private final AtomicInteger assinantes = new AtomicInteger();
+    private final ScheduledExecutorService publicador;
+    private final Counter atualizacoes;
+
+    public OcupacaoBroadcaster(AlocadorDeVagas alocador,
+                               @Value("${park.ocupacao.stream.atualizacoes-por-segundo:4}") int atualizacoesPorSegundo,
+                               @Value("${park.ocupacao.stream.max-assinantes:10000}") int maxAssinantes,
+                               MeterRegistry meterRegistry) {
+        this.alocador = alocador;
+        this.maxAssinantes = maxAssinantes;
+        this.atualizacoes = Counter.builder("ocupacao.stream.atualizacoes").register(meterRegistry);
+        Gauge.builder("ocupacao.stream.assinantes", assinantes, AtomicInteger::get).register(meterRegistry);
+
+        this.publicador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ocupacao-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodo = TimeUnit.SECONDS.toMicros(1) / Math.max(1, atualizacoesPorSegundo);
+        publicador.scheduleAtFixedRate(this::publicar, periodo, periodo, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Assina a ocupação de um estacionamento já registrado no alocador. A ocupação atual é entregue
+     * na assinatura; as seguintes, a cada mudança.
+     *
+     * @param estacionamentoId identificador do estacionamento.
+     * @return o fluxo de ocupações, que não termina; deve ser assinado uma única vez.
+     * @throws CapacityExceededException se o limite de assinantes tiver sido atingido.
+     */
+    public Flux<OcupacaoEstacionamento> assinar(Long estacionamentoId) {
+        if (assinantes.incrementAndGet() > maxAssinantes) {
+            assinantes.decrementAndGet();
+            throw new CapacityExceededException("Limite de assinantes do stream de ocupação atingido");
+        }
+        Canal canal = canais.compute(estacionamentoId, (id, existente) -> {
+            Canal atual = existente != null ? existente : new Canal(id);
+            atual.inscritos++;
+            return atual;
+        });
+        AtomicBoolean liberado = new AtomicBoolean();
+        return canal.sink.asFlux()
+                .onBackpressureLatest()
+                .doFinally(s -> {
+                    if (liberado.compareAndSet(false, true)) {
+                        liberar(estacionamentoId);
+                    }
+                });
+    }
+
+    /**
+     * Devolve a vaga de assinante e remove o canal que ficou sem assinantes.
+     */
+    private void liberar(Long estacionamentoId) {
+        canais.computeIfPresent(estacionamentoId, (id, canal) -> --canal.inscritos == 0 ? null : canal);
+        assinantes.decrementAndGet();
+    }
+
+    private void publicar() {
+        for (Canal canal : canais.values()) {
+            canal.publicar();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        publicador.shutdownNow();
+        canais.values().forEach(canal -> canal.sink.tryEmitComplete());
+    }
+
+    private final class Canal {
+
+        private final Long estacionamentoId;
+        private final Sinks.Many<OcupacaoEstacionamento> sink = Sinks.many().replay().latest();
+        private int ultimasLivres = -1;
+        // Alterado só dentro de compute/computeIfPresent de canais
+        private int inscritos;
+
+        Canal(Long estacionamentoId) {
+            this.estacionamentoId = estacionamentoId;
+            publicar();
+        }
+
+        /**
+         * Publica a ocupação se ela mudou. Chamado pela thread do publicador e, uma vez, na criação do canal.
+         */
+        synchronized void publicar() {
+            int livres = alocador.livres(estacionamentoId);
+            if (livres == ultimasLivres) {
+                return;
+            }
+            ultimasLivres = livres;
+            sink.tryEmitNext(new OcupacaoEstacionamento(estacionamentoId, livres, alocador.capacidade(estacionamentoId)));
+            atualizacoes.increment();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.sistema.parkapi.service;
+
+/**
+ * Vagas livres de um estacionamento em um instante, como publicadas pelo {@link OcupacaoBroadcaster}.
+ */
+public record OcupacaoEstacionamento(Long estacionamentoId, int vagasLivres, int totalVagas) {
+}
@@ -0,0 +1,76 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.exception.CapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Pool dedicado e limitado para o trabalho de hash de senha (BCrypt).
+ * <p>
+ * O pool tem tamanho fixo e fila limitada; quando a fila está cheia a tarefa é rejeitada
+ * imediatamente com {@link CapacityExceededException}, em vez de prender threads do servlet.
+ * O tempo de espera na fila é registrado no timer {@code auth.password.hashing.queue}.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer tempoEmFila;
+    private final Counter rejeicoes;
+
+    public PasswordHashingExecutor(@Value("${park.password-hashing.threads:0}") int threads,
+                                   @Value("${park.password-hashing.queue-capacity:256}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.tempoEmFila = Timer.builder("auth.password.hashing.queue")
+                .description("Tempo de espera na fila do pool de hash de senha")
+                .register(meterRegistry);
+        this.rejeicoes = Counter.builder("auth.password.hashing.rejected")
+                .description("Tarefas de hash de senha rejeitadas por fila cheia")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "passwordHashing", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Submete uma tarefa ao pool.
+     *
+     * @param tarefa tarefa a ser executada.
+     * @return um {@link CompletableFuture} completado com o resultado da tarefa.
+     * @throws CapacityExceededException se a fila do pool estiver cheia.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> tarefa) {
+        long enfileiradoEm = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                tempoEmFila.record(System.nanoTime() - enfileiradoEm, TimeUnit.NANOSECONDS);
+                return tarefa.get();
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            rejeicoes.increment();
+            throw new CapacityExceededException("Capacidade de autenticação esgotada, tente novamente em instantes");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,158 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.entity.RefreshToken;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.exception.InvalidRefreshTokenException;
+import com.sistema.parkapi.jwt.JwtToken;
+import com.sistema.parkapi.jwt.JwtUtils;
+import com.sistema.parkapi.repository.RefreshTokenRepository;
+import com.sistema.parkapi.repository.projection.RefreshTokenDados;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Emissão, rotação e revogação dos refresh tokens.
+ * <p>
+ * O refresh token é um valor aleatório opaco de 256 bits; só o seu hash SHA-256 é gravado. A troca
+ * por um novo token de acesso não passa pelo {@code PasswordEncoder}: custa um SHA-256, uma consulta
+ * pelo hash e a rotação do token. Cada uso rotaciona o token, e a reapresentação de um token já
+ * usado revoga toda a família (cadeia de rotações), invalidando também o token roubado ou o legítimo.
+ * <p>
+ * A revogação é verificada na própria consulta pelo hash, que a troca precisa fazer de qualquer forma
+ * para obter o usuário e a família, e confirmada pela revogação condicional do token usado; não há
+ * cópia em memória das revogações, e todas as instâncias veem a mesma tabela.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TAMANHO_TOKEN = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration ttl;
+    private final Counter renovacoes;
+    private final Counter reutilizacoes;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-token.ttl:30d}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+        this.renovacoes = Counter.builder("jwt.refresh").tag("resultado", "renovado").register(meterRegistry);
+        this.reutilizacoes = Counter.builder("jwt.refresh").tag("resultado", "reutilizado").register(meterRegistry);
+    }
+
+    /**
+     * Emite um refresh token para o usuário, iniciando uma nova família de rotação.
+     *
+     * @param usuarioId identificador do usuário autenticado.
+     * @return o refresh token em texto, a ser entregue apenas ao cliente.
+     */
+    @Transactional
+    public String emitir(Long usuarioId) {
+        return emitir(usuarioId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Troca o refresh token por um novo token de acesso e um novo refresh token da mesma família.
+     *
+     * @param refreshToken o refresh token apresentado pelo cliente.
+     * @return o novo {@link JwtToken}, com o refresh token rotacionado.
+     * @throws InvalidRefreshTokenException se o token for desconhecido, estiver expirado ou já tiver sido usado.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public JwtToken renovar(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        LocalDateTime agora = LocalDateTime.now();
+
+        RefreshTokenDados dados = refreshTokenRepository.findDadosByTokenHash(tokenHash)
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token inválido"));
+        if (dados.dataRevogacao() != null) {
+            revogarFamilia(dados.familia(), agora);
+            throw new InvalidRefreshTokenException("Refresh token já utilizado");
+        }
+        if (!dados.dataExpiracao().isAfter(agora)) {
+            throw new InvalidRefreshTokenException("Refresh token expirado");
+        }
+        // Duas requisições concorrentes com o mesmo token: só uma consegue revogá-lo
+        if (refreshTokenRepository.revogarSeAtivo(dados.id(), agora) == 0) {
+            revogarFamilia(dados.familia(), agora);
+            throw new InvalidRefreshTokenException("Refresh token já utilizado");
+        }
+
+        JwtToken token = JwtUtils.createToken(dados.username(), dados.role().name().substring("ROLE_".length()));
+        token.setRefreshToken(emitir(dados.usuarioId(), dados.familia()));
+        renovacoes.increment();
+        return token;
+    }
+
+    /**
+     * Revoga os refresh tokens do usuário alterado (troca de senha ou de role), após o commit da alteração.
+     *
+     * @param event evento de alteração de usuário.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUsuarioAlterado(UsuarioAlteradoEvent event) {
+        LocalDateTime agora = LocalDateTime.now();
+        refreshTokenRepository.revogarPorUsernameNormalizado(Usuario.normalizar(event.username()), agora);
+    }
+
+    /**
+     * Remove da base os tokens expirados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.manutencao.intervalo:PT10M}",
+            initialDelayString = "${jwt.refresh-token.manutencao.intervalo:PT10M}")
+    @Transactional
+    public void manutencao() {
+        int removidos = refreshTokenRepository.deleteExpirados(LocalDateTime.now());
+        log.debug("{} refresh tokens expirados removidos", removidos);
+    }
+
+    private String emitir(Long usuarioId, String familia) {
+        byte[] bytes = new byte[TAMANHO_TOKEN];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken entidade = new RefreshToken();
+        entidade.setTokenHash(hash(refreshToken));
+        entidade.setFamilia(familia);
+        entidade.setUsuarioId(usuarioId);
+        entidade.setDataCriacao(LocalDateTime.now());
+        entidade.setDataExpiracao(entidade.getDataCriacao().plus(ttl));
+        refreshTokenRepository.save(entidade);
+        return refreshToken;
+    }
+
+    private void revogarFamilia(String familia, LocalDateTime agora) {
+        reutilizacoes.increment();
+        log.warn("Reutilização de refresh token detectada; revogando a família {}", familia);
+        refreshTokenRepository.revogarFamilia(familia, agora);
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Algoritmo SHA-256 indisponível", ex);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sistema.parkapi.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.sistema.parkapi.config.SpringTimezoneConfig;
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.repository.TabelaTarifariaRepository;
+import com.sistema.parkapi.tarifa.FusoCompilado;
+import com.sistema.parkapi.tarifa.TarifaCompilada;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+/**
+ * Tabelas tarifárias dos estacionamentos e cálculo do valor das permanências.
+ * <p>
+ * Cada tabela é compilada uma vez ({@link TarifaCompilada}) e mantida em cache por
+ * {@code park.tarifas.cache.ttl}; uma alteração invalida a tabela desta instância após o commit, e as
+ * demais instâncias passam a usá-la quando o cache expira. O cálculo na saída não acessa a base nem
+ * aloca objetos enquanto a tabela está em cache.
+ */
+@Service
+public class TarifaService {
+
+    /**
+     * Transições do fuso da aplicação ({@link SpringTimezoneConfig#ZONA}) usadas no cálculo.
+     */
+    private static final FusoCompilado FUSO = FusoCompilado.compilar(ZoneId.of(SpringTimezoneConfig.ZONA), 2000, 2100);
+
+    private final TabelaTarifariaRepository tabelaTarifariaRepository;
+    private final EstacionamentoService estacionamentoService;
+    private final LoadingCache<Long, Optional<TarifaCompilada>> tarifas;
+
+    public TarifaService(TabelaTarifariaRepository tabelaTarifariaRepository,
+                         EstacionamentoService estacionamentoService,
+                         @Value("${park.tarifas.cache.ttl:5m}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.tabelaTarifariaRepository = tabelaTarifariaRepository;
+        this.estacionamentoService = estacionamentoService;
+        this.tarifas = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(id -> tabelaTarifariaRepository.findById(id).map(tabela -> TarifaCompilada.compilar(tabela, FUSO)));
+        CaffeineCacheMetrics.monitor(meterRegistry, tarifas, "tarifas");
+    }
+
+    @Transactional(readOnly = true)
+    public TabelaTarifaria buscarPorEstacionamento(Long estacionamentoId) {
+        return tabelaTarifariaRepository.findById(estacionamentoId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format("Tabela tarifária do estacionamento id = %s não encontrada", estacionamentoId)));
+    }
+
+    /**
+     * Cria ou substitui a tabela tarifária do estacionamento.
+     *
+     * @throws EntityNotFoundException se o estacionamento não existir.
+     * @throws IllegalArgumentException se a tabela não puder ser compilada.
+     */
+    @Transactional
+    public TabelaTarifaria salvar(TabelaTarifaria tabela) {
+        Long estacionamentoId = tabela.getEstacionamentoId();
+        estacionamentoService.verificarExistencia(estacionamentoId);
+        TarifaCompilada.compilar(tabela, FUSO);
+        TabelaTarifaria salva = tabelaTarifariaRepository.save(tabela);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tarifas.invalidate(estacionamentoId);
+            }
+        });
+        return salva;
+    }
+
+    /**
+     * Valor da permanência, em centavos; zero se o estacionamento não tiver tabela tarifária.
+     *
+     * @param estacionamentoId identificador do estacionamento.
+     * @param entrada          hora local de entrada.
+     * @param saida            hora local de saída.
+     * @param role             papel do usuário identificado no ticket, ou {@code null}.
+     */
+    public long calcular(Long estacionamentoId, LocalDateTime entrada, LocalDateTime saida, Usuario.Role role) {
+        Optional<TarifaCompilada> tarifa = tarifas.get(estacionamentoId);
+        return tarifa.isPresent() ? tarifa.get().calcular(entrada, saida, role) : 0;
+    }
+}
@@ -0,0 +1,330 @@
+package com.sistema.parkapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sistema.parkapi.entity.Ticket;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.exception.IdempotencyKeyMismatchException;
+import com.sistema.parkapi.exception.InvalidIdempotencyKeyException;
+import com.sistema.parkapi.repository.TicketRepository;
+import com.sistema.parkapi.ticket.TicketEvento;
+import com.sistema.parkapi.ticket.TicketJournal;
+import com.sistema.parkapi.ticket.TicketWriteBehind;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Entradas e saídas de veículos pelas cancelas.
+ * <p>
+ * Cada chamada traz uma chave de idempotência. A primeira chamada com uma chave registra o evento no
+ * {@link TicketJournal} e é confirmada quando ele está no disco; repetições da mesma chave, inclusive
+ * concorrentes, recebem a mesma resposta sem gerar um segundo evento. Junto da chave fica um hash dos
+ * parâmetros da chamada; a mesma chave com outros parâmetros é um erro do cliente e é recusada com
+ * {@link IdempotencyKeyMismatchException}, em vez de responder com o ticket de outra chamada. As chaves ficam em memória por
+ * {@code park.tickets.idempotencia.ttl}; na subida, são recarregadas dos tickets movimentados nesse
+ * período e dos eventos do diário ainda não gravados. A gravação na base é feita depois, em lotes,
+ * pelo {@link TicketWriteBehind}.
+ * <p>
+ * Os tickets abertos são mantidos em memória, o que permite validar a saída de um ticket cuja entrada
+ * ainda não chegou à base. Um ticket que não está em memória, aberto por outra instância depois da
+ * subida desta, é procurado na base. Cada saída reserva o código do ticket nesta instância antes de
+ * validá-lo, para que duas saídas do mesmo ticket não passem enquanto a primeira ainda não foi gravada
+ * na base. O valor da permanência é calculado na saída pelo {@link TarifaService} e
+ * gravado no evento. Os eventos duráveis seguem do diário para o {@link TicketWriteBehind} e para o
+ * {@link MovimentoAgregador}, cada um com seu checkpoint.
+ */
+@Slf4j
+@Service
+public class TicketService implements SmartLifecycle {
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 64;
+    private static final String ENTRADA = "E:";
+    private static final String SAIDA = "S:";
+
+    private final TicketRepository ticketRepository;
+    private final EstacionamentoService estacionamentoService;
+    private final UsuarioService usuarioService;
+    private final TarifaService tarifaService;
+    private final MovimentoAgregador movimentos;
+    private final TicketJournal journal;
+    private final TicketWriteBehind writeBehind;
+    private final Duration ttl;
+    private final Cache<String, Chamada> idempotencia;
+    private final ConcurrentHashMap<String, Ticket> abertos = new ConcurrentHashMap<>();
+    // Códigos de tickets com saída registrada ou em andamento nesta instância
+    private final Cache<String, Boolean> encerrados;
+    private final Counter entradas;
+    private final Counter saidas;
+    private final Counter repetidas;
+    private volatile boolean executando;
+
+    public TicketService(TicketRepository ticketRepository,
+                         EstacionamentoService estacionamentoService,
+                         UsuarioService usuarioService,
+                         TarifaService tarifaService,
+                         MovimentoAgregador movimentos,
+                         TicketJournal journal,
+                         TicketWriteBehind writeBehind,
+                         @Value("${park.tickets.idempotencia.ttl:1h}") Duration ttl,
+                         @Value("${park.tickets.idempotencia.maximum-size:1000000}") long maximumSize,
+                         MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+        this.estacionamentoService = estacionamentoService;
+        this.usuarioService = usuarioService;
+        this.tarifaService = tarifaService;
+        this.movimentos = movimentos;
+        this.journal = journal;
+        this.writeBehind = writeBehind;
+        this.ttl = ttl;
+        this.idempotencia = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.encerrados = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.entradas = Counter.builder("tickets.eventos").tag("tipo", "entrada").register(meterRegistry);
+        this.saidas = Counter.builder("tickets.eventos").tag("tipo", "saida").register(meterRegistry);
+        this.repetidas = Counter.builder("tickets.idempotencia.repetidas")
+                .description("Chamadas com chave de idempotência já vista, respondidas sem novo evento")
+                .register(meterRegistry);
+        Gauge.builder("tickets.abertos", abertos, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * Abre um ticket para o veículo que entrou no estacionamento.
+     *
+     * @param chave            chave de idempotência da chamada.
+     * @param estacionamentoId identificador do estacionamento.
+     * @param placa            placa do veículo.
+     * @param usuarioId        cliente identificado na entrada, se houver.
+     * @return um futuro completado com o ticket quando a entrada estiver no diário.
+     * @throws EntityNotFoundException          se o estacionamento ou o cliente não existir.
+     * @throws IdempotencyKeyMismatchException se a chave já foi usada com outros parâmetros.
+     */
+    public CompletableFuture<Ticket> registrarEntrada(String chave, Long estacionamentoId, String placa, Long usuarioId) {
+        return idempotente(ENTRADA, chave, assinaturaDeEntrada(estacionamentoId, placa, usuarioId), () -> {
+            estacionamentoService.verificarExistencia(estacionamentoId);
+            if (usuarioId != null) {
+                // Validado aqui (cache de segundo nível) para que a chave estrangeira não rejeite o lote na gravação
+                usuarioService.buscaPorId(usuarioId);
+            }
+            TicketEvento evento = TicketEvento.entrada(chave, UUID.randomUUID().toString(), estacionamentoId,
+                    placa, usuarioId, LocalDateTime.now());
+            return journal.anexar(evento).thenApply(gravado -> {
+                Ticket ticket = gravado.toTicket();
+                abertos.put(ticket.getCodigo(), ticket);
+                entradas.increment();
+                return ticket;
+            });
+        });
+    }
+
+    /**
+     * Encerra o ticket do veículo que saiu do estacionamento e calcula o valor da permanência, com o
+     * desconto do papel do cliente identificado na entrada.
+     *
+     * @param chave  chave de idempotência da chamada.
+     * @param codigo código do ticket.
+     * @return um futuro completado com o ticket encerrado quando a saída estiver no diário.
+     * @throws EntityNotFoundException          se o ticket não existir ou já estiver encerrado.
+     * @throws IdempotencyKeyMismatchException se a chave já foi usada com outro ticket.
+     */
+    public CompletableFuture<Ticket> registrarSaida(String chave, String codigo) {
+        return idempotente(SAIDA, chave, assinaturaDeSaida(codigo), () -> {
+            Ticket aberto = reservarAberto(codigo);
+            CompletableFuture<TicketEvento> gravacao;
+            try {
+                // Um relógio local que volta (ajuste de hora) não pode produzir saída anterior à entrada
+                LocalDateTime agora = LocalDateTime.now();
+                LocalDateTime dataSaida = agora.isBefore(aberto.getDataEntrada()) ? aberto.getDataEntrada() : agora;
+                long valor = tarifaService.calcular(aberto.getEstacionamentoId(), aberto.getDataEntrada(), dataSaida,
+                        role(aberto.getUsuarioId()));
+                gravacao = journal.anexar(TicketEvento.saida(chave, aberto, dataSaida, valor));
+            } catch (RuntimeException ex) {
+                devolverAberto(aberto);
+                throw ex;
+            }
+            return gravacao.handle((gravado, ex) -> {
+                if (ex != null) {
+                    devolverAberto(aberto);
+                    throw new CompletionException(ex);
+                }
+                saidas.increment();
+                return gravado.toTicket();
+            });
+        });
+    }
+
+    /**
+     * Reserva o código para a saída e devolve o ticket aberto, da memória ou, se a entrada foi
+     * registrada por outra instância, da base.
+     *
+     * @throws EntityNotFoundException se o ticket não existir, já estiver encerrado ou tiver outra saída em andamento.
+     */
+    private Ticket reservarAberto(String codigo) {
+        if (encerrados.asMap().putIfAbsent(codigo, Boolean.TRUE) == null) {
+            Ticket aberto = abertos.remove(codigo);
+            if (aberto == null) {
+                aberto = ticketRepository.findByCodigoAndDataSaidaIsNull(codigo).orElse(null);
+            }
+            if (aberto != null) {
+                return aberto;
+            }
+            encerrados.invalidate(codigo);
+        }
+        throw new EntityNotFoundException(String.format("Ticket %s não encontrado ou já encerrado", codigo));
+    }
+
+    private void devolverAberto(Ticket aberto) {
+        abertos.put(aberto.getCodigo(), aberto);
+        encerrados.invalidate(aberto.getCodigo());
+    }
+
+    /**
+     * Executa a operação uma única vez por chave; chamadas repetidas recebem o mesmo futuro. Uma
+     * operação que falha libera a chave para uma nova tentativa.
+     *
+     * @param assinatura hash dos parâmetros da chamada, comparado nas repetições.
+     */
+    private CompletableFuture<Ticket> idempotente(String tipo, String chave, int assinatura,
+                                                  Supplier<CompletableFuture<Ticket>> operacao) {
+        if (chave == null || chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new InvalidIdempotencyKeyException(String.format(
+                    "Chave de idempotência deve ter entre 1 e %d caracteres", TAMANHO_MAXIMO_CHAVE));
+        }
+        String chaveCache = tipo + chave;
+        CompletableFuture<Ticket> resultado = new CompletableFuture<>();
+        Chamada chamada = new Chamada(assinatura, resultado);
+        Chamada existente = idempotencia.asMap().putIfAbsent(chaveCache, chamada);
+        if (existente != null) {
+            if (existente.assinatura() != assinatura) {
+                throw new IdempotencyKeyMismatchException(String.format(
+                        "Chave de idempotência '%s' já usada com outros parâmetros", chave));
+            }
+            repetidas.increment();
+            return existente.futuro();
+        }
+        try {
+            operacao.get().whenComplete((ticket, ex) -> {
+                if (ex != null) {
+                    idempotencia.asMap().remove(chaveCache, chamada);
+                    resultado.completeExceptionally(ex);
+                } else {
+                    resultado.complete(ticket);
+                }
+            });
+        } catch (RuntimeException ex) {
+            idempotencia.asMap().remove(chaveCache, chamada);
+            resultado.completeExceptionally(ex);
+            throw ex;
+        }
+        return resultado;
+    }
+
+    /**
+     * Reconstrói os tickets abertos e as chaves de idempotência, lê o diário, devolve ao agregador de
+     * movimento o que ele ainda não gravou e inicia a gravação.
+     */
+    @Override
+    public void start() {
+        long gravados = writeBehind.checkpoint();
+        long agregados = movimentos.checkpoint().orElse(gravados);
+        List<TicketEvento> eventos = journal.abrir(Map.of(TicketWriteBehind.LEITOR, gravados,
+                MovimentoAgregador.LEITOR, agregados));
+        List<TicketEvento> pendentes = eventos.stream().filter(evento -> evento.sequencia() > gravados).toList();
+
+        for (Ticket ticket : ticketRepository.findByDataSaidaIsNull()) {
+            abertos.put(ticket.getCodigo(), ticket);
+        }
+        for (Ticket ticket : ticketRepository.findMovimentadosDesde(LocalDateTime.now().minus(ttl))) {
+            lembrar(ENTRADA, ticket.getChaveEntrada(), ticket);
+            lembrar(SAIDA, ticket.getChaveSaida(), ticket);
+        }
+        for (TicketEvento evento : pendentes) {
+            Ticket ticket = evento.toTicket();
+            if (evento.tipo() == TicketEvento.Tipo.ENTRADA) {
+                abertos.put(ticket.getCodigo(), ticket);
+                lembrar(ENTRADA, evento.chave(), ticket);
+            } else {
+                abertos.remove(ticket.getCodigo());
+                encerrados.put(ticket.getCodigo(), Boolean.TRUE);
+                lembrar(SAIDA, evento.chave(), ticket);
+            }
+        }
+        movimentos.iniciar(abertos.values(),
+                eventos.stream().filter(evento -> evento.sequencia() > agregados).toList());
+        log.info("{} ticket(s) aberto(s) carregado(s)", abertos.size());
+
+        writeBehind.enfileirar(pendentes);
+        writeBehind.iniciar();
+        journal.iniciar(duraveis -> {
+            movimentos.registrar(duraveis);
+            writeBehind.enfileirar(duraveis);
+        });
+        executando = true;
+    }
+
+    @Override
+    public void stop() {
+        journal.encerrar();
+        writeBehind.encerrar();
+        executando = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    /**
+     * Inicia antes do servidor web, para que as cancelas só sejam atendidas com o diário aberto, e
+     * para depois dele, quando não chegam mais eventos.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private Usuario.Role role(Long usuarioId) {
+        return usuarioId == null ? null : usuarioService.buscaPorId(usuarioId).getRole();
+    }
+
+    private void lembrar(String tipo, String chave, Ticket ticket) {
+        if (chave != null) {
+            int assinatura = ENTRADA.equals(tipo)
+                    ? assinaturaDeEntrada(ticket.getEstacionamentoId(), ticket.getPlaca(), ticket.getUsuarioId())
+                    : assinaturaDeSaida(ticket.getCodigo());
+            idempotencia.put(tipo + chave, new Chamada(assinatura, CompletableFuture.completedFuture(ticket)));
+        }
+    }
+
+    private static int assinaturaDeEntrada(Long estacionamentoId, String placa, Long usuarioId) {
+        return Objects.hash(estacionamentoId, placa, usuarioId);
+    }
+
+    private static int assinaturaDeSaida(String codigo) {
+        return Objects.hashCode(codigo);
+    }
+
+    private record Chamada(int assinatura, CompletableFuture<Ticket> futuro) {
+    }
+}
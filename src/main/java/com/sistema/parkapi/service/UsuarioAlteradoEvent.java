@@ -0,0 +1,10 @@
+package com.sistema.parkapi.service;
+
+/**
+ * Evento publicado pelo {@link UsuarioService} sempre que a senha ou a role de um usuário
+ * é gravada, permitindo que caches de dados do usuário sejam invalidados.
+ *
+ * @param username nome do usuário alterado.
+ */
+public record UsuarioAlteradoEvent(String username) {
+}
@@ -0,0 +1,107 @@
+package com.sistema.parkapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.parkapi.exception.InvalidImportFileException;
+import com.sistema.parkapi.web.dto.UsuarioCreateDto;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leitor incremental do corpo de uma importação de usuários.
+ * <p>
+ * Lê um registro por vez, seja de um array JSON de objetos {@code {"username", "password"}},
+ * seja de um CSV com as colunas {@code username,password} (cabeçalho opcional), sem carregar o
+ * arquivo inteiro em memória.
+ */
+public abstract class UsuarioImportacaoReader implements Closeable {
+
+    /**
+     * Lê o próximo registro.
+     *
+     * @return o próximo usuário, ou {@code null} ao fim do arquivo.
+     * @throws InvalidImportFileException se o conteúdo estiver malformado.
+     */
+    public abstract UsuarioCreateDto proximo() throws IOException;
+
+    public static UsuarioImportacaoReader json(InputStream in, ObjectMapper objectMapper) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(in);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new InvalidImportFileException("O corpo JSON da importação deve ser um array de usuários");
+        }
+        return new UsuarioImportacaoReader() {
+            @Override
+            public UsuarioCreateDto proximo() throws IOException {
+                try {
+                    JsonToken token = parser.nextToken();
+                    if (token == null || token == JsonToken.END_ARRAY) {
+                        return null;
+                    }
+                    if (token != JsonToken.START_OBJECT) {
+                        throw new InvalidImportFileException(String.format(
+                                "Registro inválido na linha %d do JSON", parser.currentLocation().getLineNr()));
+                    }
+                    return objectMapper.readValue(parser, UsuarioCreateDto.class);
+                } catch (JsonProcessingException ex) {
+                    throw new InvalidImportFileException(String.format(
+                            "JSON malformado na linha %d: %s", parser.currentLocation().getLineNr(), ex.getOriginalMessage()));
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                parser.close();
+            }
+        };
+    }
+
+    public static UsuarioImportacaoReader csv(InputStream in) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return new UsuarioImportacaoReader() {
+            private boolean primeiraLinha = true;
+
+            @Override
+            public UsuarioCreateDto proximo() throws IOException {
+                String linha;
+                while ((linha = reader.readLine()) != null) {
+                    linha = linha.strip();
+                    if (linha.isEmpty()) {
+                        continue;
+                    }
+                    boolean cabecalho = primeiraLinha && linha.equalsIgnoreCase("username,password");
+                    primeiraLinha = false;
+                    if (cabecalho) {
+                        continue;
+                    }
+                    int separador = linha.indexOf(',');
+                    if (separador < 0) {
+                        return new UsuarioCreateDto(semAspas(linha), null);
+                    }
+                    return new UsuarioCreateDto(semAspas(linha.substring(0, separador)), semAspas(linha.substring(separador + 1)));
+                }
+                return null;
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    private static String semAspas(String valor) {
+        String v = valor.strip();
+        if (v.length() >= 2 && v.startsWith("\"") && v.endsWith("\"")) {
+            return v.substring(1, v.length() - 1);
+        }
+        return v;
+    }
+}
@@ -0,0 +1,210 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.audit.AuditoriaBuffer;
+import com.sistema.parkapi.audit.AuditoriaEvento;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.UsuarioRepository;
+import com.sistema.parkapi.web.dto.UsuarioCreateDto;
+import com.sistema.parkapi.web.dto.UsuarioImportacaoLinhaDto;
+import com.sistema.parkapi.web.dto.UsuarioImportacaoLinhaDto.Status;
+import com.sistema.parkapi.web.dto.UsuarioImportacaoResponseDto;
+import com.sistema.parkapi.web.dto.mapper.UsuarioMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de usuários.
+ * <p>
+ * Os registros são lidos incrementalmente e processados em blocos: cada bloco tem as senhas
+ * codificadas em paralelo em um pool limitado (separado do pool de login) e é gravado em uma
+ * única transação, com os INSERTs agrupados em batches JDBC graças ao id por sequence. Se a base
+ * rejeitar o bloco, as linhas são gravadas uma a uma e só as rejeitadas ficam com erro.
+ * O resultado traz o status de cada linha.
+ */
+@Slf4j
+@Service
+public class UsuarioImportacaoService implements DisposableBean {
+
+    private final UsuarioRepository usuarioRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditoriaBuffer auditoria;
+    private final ThreadPoolExecutor hashingPool;
+    private final int chunkSize;
+
+    public UsuarioImportacaoService(UsuarioRepository usuarioRepository,
+                                    PasswordEncoder passwordEncoder,
+                                    Validator validator,
+                                    EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    AuditoriaBuffer auditoria,
+                                    @Value("${park.importacao.chunk-size:500}") int chunkSize,
+                                    @Value("${park.importacao.hashing-threads:0}") int hashingThreads) {
+        this.usuarioRepository = usuarioRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.auditoria = auditoria;
+        this.chunkSize = chunkSize;
+        int threads = hashingThreads > 0 ? hashingThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // Fila limitada ao tamanho do bloco; se encher, quem submete codifica a senha (backpressure)
+        this.hashingPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(chunkSize),
+                new CustomizableThreadFactory("importacao-hashing-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Importa todos os usuários lidos pelo leitor informado.
+     *
+     * @param reader leitor incremental do corpo da requisição.
+     * @return o relatório da importação, linha a linha.
+     */
+    public UsuarioImportacaoResponseDto importar(UsuarioImportacaoReader reader) throws IOException {
+        List<UsuarioImportacaoLinhaDto> resultado = new ArrayList<>();
+        List<Pendente> bloco = new ArrayList<>(chunkSize);
+        Set<String> vistos = new HashSet<>();
+        int numeroLinha = 0;
+
+        UsuarioCreateDto dto;
+        while ((dto = reader.proximo()) != null) {
+            numeroLinha++;
+            Set<ConstraintViolation<UsuarioCreateDto>> violacoes = validator.validate(dto);
+            if (!violacoes.isEmpty()) {
+                String mensagem = violacoes.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; "));
+                resultado.add(new UsuarioImportacaoLinhaDto(numeroLinha, dto.getUsername(), Status.INVALIDO, null, mensagem));
+                continue;
+            }
+            if (!vistos.add(Usuario.normalizar(dto.getUsername()))) {
+                resultado.add(new UsuarioImportacaoLinhaDto(numeroLinha, dto.getUsername(), Status.DUPLICADO, null,
+                        "Username repetido no arquivo"));
+                continue;
+            }
+            bloco.add(new Pendente(numeroLinha, dto));
+            if (bloco.size() == chunkSize) {
+                gravarBloco(bloco, resultado);
+                bloco.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            gravarBloco(bloco, resultado);
+        }
+
+        int criados = (int) resultado.stream().filter(l -> l.getStatus() == Status.CRIADO).count();
+        log.info("Importação de usuários concluída: {} linhas, {} criados", numeroLinha, criados);
+        resultado.sort((a, b) -> Integer.compare(a.getLinha(), b.getLinha()));
+        return new UsuarioImportacaoResponseDto(numeroLinha, criados, numeroLinha - criados, resultado);
+    }
+
+    private void gravarBloco(List<Pendente> bloco, List<UsuarioImportacaoLinhaDto> resultado) {
+        Set<String> existentes = new HashSet<>(usuarioRepository.findUsernamesNormalizadosIn(
+                bloco.stream().map(p -> Usuario.normalizar(p.dto().getUsername())).toList()));
+
+        List<Pendente> novos = new ArrayList<>(bloco.size());
+        for (Pendente pendente : bloco) {
+            if (existentes.contains(Usuario.normalizar(pendente.dto().getUsername()))) {
+                resultado.add(new UsuarioImportacaoLinhaDto(pendente.linha(), pendente.dto().getUsername(),
+                        Status.DUPLICADO, null, String.format("Username {%s} já cadastrado", pendente.dto().getUsername())));
+            } else {
+                novos.add(pendente);
+            }
+        }
+        if (novos.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<Usuario>> hashes = new ArrayList<>(novos.size());
+        for (Pendente pendente : novos) {
+            hashes.add(CompletableFuture.supplyAsync(() -> {
+                Usuario usuario = UsuarioMapper.toUsuario(pendente.dto());
+                usuario.setPassword(passwordEncoder.encode(usuario.getPassword()));
+                return usuario;
+            }, hashingPool));
+        }
+        List<Usuario> usuarios = hashes.stream().map(CompletableFuture::join).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                usuarioRepository.saveAllAndFlush(usuarios);
+                // Libera as entidades do bloco para que o contexto de persistência não cresça com a importação
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.warn("Bloco da importação de usuários rejeitado pela base, gravando linha a linha: {}",
+                    ex.getMostSpecificCause().getMessage());
+            gravarLinhaALinha(novos, usuarios, resultado);
+            return;
+        }
+        for (int i = 0; i < novos.size(); i++) {
+            registrarCriado(novos.get(i), usuarios.get(i), resultado);
+        }
+    }
+
+    /**
+     * Grava as linhas de um bloco rejeitado, cada uma em sua transação, para que só as linhas que violam
+     * uma restrição da base (um username gravado por outra requisição depois da consulta, um valor acima do
+     * tamanho da coluna) fiquem com {@link Status#ERRO}.
+     */
+    private void gravarLinhaALinha(List<Pendente> novos, List<Usuario> usuarios, List<UsuarioImportacaoLinhaDto> resultado) {
+        for (int i = 0; i < novos.size(); i++) {
+            Pendente pendente = novos.get(i);
+            Usuario usuario = usuarios.get(i);
+            // O id foi atribuído na transação desfeita; sem ele a entidade volta a ser nova
+            usuario.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    usuarioRepository.saveAndFlush(usuario);
+                    entityManager.clear();
+                });
+                registrarCriado(pendente, usuario, resultado);
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Linha {} da importação de usuários rejeitada pela base: {}",
+                        pendente.linha(), ex.getMostSpecificCause().getMessage());
+                resultado.add(new UsuarioImportacaoLinhaDto(pendente.linha(), pendente.dto().getUsername(),
+                        Status.ERRO, null, "Linha rejeitada pela base de dados"));
+            }
+        }
+    }
+
+    private void registrarCriado(Pendente pendente, Usuario usuario, List<UsuarioImportacaoLinhaDto> resultado) {
+        resultado.add(new UsuarioImportacaoLinhaDto(pendente.linha(), usuario.getUsername(),
+                Status.CRIADO, usuario.getId(), null));
+        auditoria.publicar(AuditoriaEvento.of(AuditoriaEvento.Tipo.USUARIO_CRIADO,
+                usuario.getUsername(), null, "importacao"));
+    }
+
+    @Override
+    public void destroy() {
+        hashingPool.shutdown();
+    }
+
+    private record Pendente(int linha, UsuarioCreateDto dto) {
+    }
+}
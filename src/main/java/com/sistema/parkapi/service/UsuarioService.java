@@ -1,17 +1,25 @@
 package com.sistema.parkapi.service;
 
+import com.sistema.parkapi.audit.AuditoriaEvento;
 import com.sistema.parkapi.entity.Usuario;
 import com.sistema.parkapi.exception.EntityNotFoundException;
 import com.sistema.parkapi.exception.UserNameUniqueViolationException;
 import com.sistema.parkapi.repository.UsuarioRepository;
+import com.sistema.parkapi.repository.projection.UsuarioCredencial;
+import com.sistema.parkapi.repository.projection.UsuarioResumo;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -19,23 +27,37 @@ public class UsuarioService {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Timed(value = "usuario.service", histogram = true)
     @Transactional
     public Usuario salvar(Usuario usuario) {
         try {
             usuario.setPassword(passwordEncoder.encode(usuario.getPassword()));
-            return usuarioRepository.save(usuario);
+            Usuario salvo = usuarioRepository.saveAndFlush(usuario);
+            eventPublisher.publishEvent(new UsuarioAlteradoEvent(salvo.getUsername()));
+            eventPublisher.publishEvent(AuditoriaEvento.of(AuditoriaEvento.Tipo.USUARIO_CRIADO, salvo.getUsername(), null, null));
+            return salvo;
         } catch (DataIntegrityViolationException ex) {
             throw new UserNameUniqueViolationException(String.format("Username {%s} já cadastrado", usuario.getUsername()));
         }
     }
 
+    @Timed(value = "usuario.service", histogram = true)
     @Transactional(readOnly = true)
     public Usuario buscaPorId(Long id) {
         Optional<Usuario> obj = usuarioRepository.findById(id);
         return obj.orElseThrow(() -> new EntityNotFoundException(String.format("Usuário id = %s não encontrado", id)));
     }
 
+    @Timed(value = "usuario.service", histogram = true)
+    @Transactional(readOnly = true)
+    public UsuarioResumo buscarResumoPorId(Long id) {
+        Optional<UsuarioResumo> obj = usuarioRepository.findResumoById(id);
+        return obj.orElseThrow(() -> new EntityNotFoundException(String.format("Usuário id = %s não encontrado", id)));
+    }
+
+    @Timed(value = "usuario.service", histogram = true)
     @Transactional
     public Usuario editarSenha(Long id, String senhaAtual, String novaSenha, String confirmaSenha) {
         // Validamos se a nova senha e confirmação são diferentes ou iguais
@@ -51,20 +73,54 @@ public class UsuarioService {
         }
 
         user.setPassword(passwordEncoder.encode(novaSenha));
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(user.getUsername()));
+        eventPublisher.publishEvent(AuditoriaEvento.of(AuditoriaEvento.Tipo.SENHA_ALTERADA, user.getUsername(), null, null));
         return user;
     }
 
+    /**
+     * Regrava o hash da senha do usuário, sem alterar a senha (rehash no login).
+     * <p>
+     * A alteração passa pela entidade, para que só a entrada deste usuário seja atualizada no cache de
+     * segundo nível. Não publica {@link UsuarioAlteradoEvent}: a senha é a mesma, então os refresh tokens
+     * continuam válidos.
+     */
+    @Timed(value = "usuario.service", histogram = true)
+    @Transactional
+    public void atualizarHashDeSenha(String username, String hash) {
+        usuarioRepository.findByUsername(username).ifPresent(usuario -> usuario.setPassword(hash));
+    }
+
+    @Timed(value = "usuario.service", histogram = true)
     @Transactional(readOnly = true)
-    public List<Usuario> buscarTodos() {
-        return usuarioRepository.findAll();
+    public List<UsuarioResumo> buscarPagina(Long aposId, int tamanho) {
+        return usuarioRepository.findResumosAfterId(aposId == null ? 0L : aposId, PageRequest.ofSize(tamanho));
     }
 
+    @Timed(value = "usuario.service", histogram = true)
+    @Transactional(readOnly = true)
+    public void percorrerTodos(Consumer<UsuarioResumo> consumidor) {
+        // Projeções não são gerenciadas, então o contexto de persistência não cresce com a tabela
+        try (Stream<UsuarioResumo> usuarios = usuarioRepository.streamResumosOrderById()) {
+            usuarios.forEach(consumidor);
+        }
+    }
+
+    @Timed(value = "usuario.service", histogram = true)
     @Transactional(readOnly = true)
     public Usuario buscarPorNome(String username) {
         Optional<Usuario> obj = usuarioRepository.findByUsername(username);
         return obj.orElseThrow(() -> new EntityNotFoundException(String.format("Usuário = %s não encontrado", username)));
     }
 
+    @Timed(value = "usuario.service", histogram = true)
+    @Transactional(readOnly = true)
+    public UsuarioCredencial buscarCredencialPorNome(String username) {
+        Optional<UsuarioCredencial> obj = usuarioRepository.findCredencialByUsername(username);
+        return obj.orElseThrow(() -> new EntityNotFoundException(String.format("Usuário = %s não encontrado", username)));
+    }
+
+    @Timed(value = "usuario.service", histogram = true)
     @Transactional(readOnly = true)
     public Usuario.Role buscarRolePorUsername(String username) {
         return usuarioRepository.findRoleByUsername(username);
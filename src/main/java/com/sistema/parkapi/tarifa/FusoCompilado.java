@@ -0,0 +1,111 @@
+package com.sistema.parkapi.tarifa;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transições de offset de um fuso horário em um intervalo de anos, em arrays, para converter entre
+ * hora local e instante sem alocar (o {@link ZoneRules} cria listas e objetos a cada consulta).
+ * <p>
+ * Horas locais inexistentes (no início do horário de verão) e ambíguas (no fim) são resolvidas como
+ * em {@link java.time.ZonedDateTime#of}: a inexistente é adiantada pela duração do salto e a ambígua
+ * usa o offset anterior à transição. Fora do intervalo compilado valem o primeiro e o último offset.
+ */
+public final class FusoCompilado {
+
+    private final ZoneId zona;
+    private final int offsetInicial;
+    // Instante (epoch em segundos) de cada transição e o offset, em segundos, que passa a valer
+    private final long[] instantes;
+    private final int[] offsetsDepois;
+    // Primeira hora local (em segundos, como se fosse UTC) a partir da qual vale o offset posterior à transição
+    private final long[] limitesLocais;
+
+    private FusoCompilado(ZoneId zona, int offsetInicial, long[] instantes, int[] offsetsDepois, long[] limitesLocais) {
+        this.zona = zona;
+        this.offsetInicial = offsetInicial;
+        this.instantes = instantes;
+        this.offsetsDepois = offsetsDepois;
+        this.limitesLocais = limitesLocais;
+    }
+
+    /**
+     * Compila as transições do fuso entre o início de {@code anoInicial} e o fim de {@code anoFinal}.
+     */
+    public static FusoCompilado compilar(ZoneId zona, int anoInicial, int anoFinal) {
+        ZoneRules regras = zona.getRules();
+        Instant inicio = LocalDate.of(anoInicial, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant fim = LocalDate.of(anoFinal + 1, 1, 1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        List<ZoneOffsetTransition> transicoes = new ArrayList<>();
+        for (ZoneOffsetTransition t = regras.nextTransition(inicio); t != null && t.getInstant().isBefore(fim);
+             t = regras.nextTransition(t.getInstant())) {
+            transicoes.add(t);
+        }
+        long[] instantes = new long[transicoes.size()];
+        int[] offsetsDepois = new int[transicoes.size()];
+        long[] limitesLocais = new long[transicoes.size()];
+        for (int i = 0; i < transicoes.size(); i++) {
+            ZoneOffsetTransition t = transicoes.get(i);
+            int antes = t.getOffsetBefore().getTotalSeconds();
+            int depois = t.getOffsetAfter().getTotalSeconds();
+            instantes[i] = t.toEpochSecond();
+            offsetsDepois[i] = depois;
+            // No salto, as horas locais puladas usam o offset anterior; na sobreposição, as horas repetidas também
+            limitesLocais[i] = t.toEpochSecond() + Math.max(antes, depois);
+        }
+        return new FusoCompilado(zona, regras.getOffset(inicio).getTotalSeconds(), instantes, offsetsDepois, limitesLocais);
+    }
+
+    public ZoneId getZona() {
+        return zona;
+    }
+
+    /**
+     * Offset, em segundos, em vigor no instante informado.
+     */
+    public int offset(long epochSegundos) {
+        int i = ultimoAte(instantes, epochSegundos);
+        return i < 0 ? offsetInicial : offsetsDepois[i];
+    }
+
+    /**
+     * Converte uma hora local, em segundos desde a época como se fosse UTC
+     * ({@code LocalDateTime.toEpochSecond(ZoneOffset.UTC)}), no instante correspondente.
+     */
+    public long instante(long localSegundos) {
+        int i = ultimoAte(limitesLocais, localSegundos);
+        return localSegundos - (i < 0 ? offsetInicial : offsetsDepois[i]);
+    }
+
+    /**
+     * Instante da primeira transição posterior ao instante informado, ou {@link Long#MAX_VALUE}.
+     */
+    public long proximaTransicao(long epochSegundos) {
+        int i = ultimoAte(instantes, epochSegundos) + 1;
+        return i < instantes.length ? instantes[i] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Índice do último elemento menor ou igual ao valor, ou {@code -1}.
+     */
+    private static int ultimoAte(long[] ordenados, long valor) {
+        int baixo = 0;
+        int alto = ordenados.length - 1;
+        while (baixo <= alto) {
+            int meio = (baixo + alto) >>> 1;
+            if (ordenados[meio] <= valor) {
+                baixo = meio + 1;
+            } else {
+                alto = meio - 1;
+            }
+        }
+        return alto;
+    }
+}
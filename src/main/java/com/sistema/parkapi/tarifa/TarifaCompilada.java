@@ -0,0 +1,185 @@
+package com.sistema.parkapi.tarifa;
+
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import com.sistema.parkapi.entity.Usuario;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+/**
+ * {@link TabelaTarifaria} compilada em tabelas imutáveis, para calcular o valor de uma permanência
+ * sem alocar e em tempo proporcional à quantidade de dias, não de frações.
+ * <p>
+ * As frações começam na primeira hora após a entrada e se repetem a cada {@code minutosFracao}, que
+ * divide o dia; por isso a hora local de início de cada fração percorre, dia após dia, as mesmas
+ * {@code 1440 / minutosFracao} posições, deslocadas pelo minuto da entrada dentro da fração. Para cada
+ * deslocamento possível a compilação guarda a soma acumulada do custo das posições (diurno ou
+ * noturno), e o custo de qualquer sequência de frações é obtido com duas leituras dessa tabela. Uma
+ * mudança de offset do fuso durante a permanência divide a sequência em trechos, cada um com sua
+ * hora local.
+ * <p>
+ * Os horários são considerados com precisão de segundos. Cada período de 24 horas contado da entrada
+ * tem a cobrança limitada ao teto diário; o desconto do papel do usuário é aplicado ao total e
+ * truncado no centavo.
+ */
+public final class TarifaCompilada {
+
+    private static final long DIA = 86_400;
+    private static final long HORA = 3_600;
+    private static final int MINUTOS_DIA = 1_440;
+
+    private final FusoCompilado fuso;
+    private final long tolerancia;
+    private final long primeiraHora;
+    private final long fracao;
+    private final int posicoes;
+    // prefixos[m][j]: custo das posições 0..j-1 quando a primeira fração do dia começa no minuto m da fração
+    private final long[][] prefixos;
+    private final long tetoDiario;
+    private final int[] descontos;
+
+    private TarifaCompilada(FusoCompilado fuso, long tolerancia, long primeiraHora, long fracao, long[][] prefixos,
+                            long tetoDiario, int[] descontos) {
+        this.fuso = fuso;
+        this.tolerancia = tolerancia;
+        this.primeiraHora = primeiraHora;
+        this.fracao = fracao;
+        this.posicoes = prefixos[0].length - 1;
+        this.prefixos = prefixos;
+        this.tetoDiario = tetoDiario;
+        this.descontos = descontos;
+    }
+
+    /**
+     * Compila a tabela.
+     *
+     * @throws IllegalArgumentException se a fração não dividir o dia ou algum valor for inválido.
+     */
+    public static TarifaCompilada compilar(TabelaTarifaria tabela, FusoCompilado fuso) {
+        int minutosFracao = tabela.getMinutosFracao();
+        if (minutosFracao <= 0 || MINUTOS_DIA % minutosFracao != 0) {
+            throw new IllegalArgumentException("A fração deve dividir o dia: " + minutosFracao + " minutos");
+        }
+        if (tabela.getToleranciaMinutos() < 0 || tabela.getValorPrimeiraHora() < 0 || tabela.getValorFracao() < 0
+                || tabela.getValorFracaoNoturna() < 0 || tabela.getTetoDiario() < 0) {
+            throw new IllegalArgumentException("Valores da tabela tarifária não podem ser negativos");
+        }
+        int[] descontos = new int[Usuario.Role.values().length];
+        descontos[Usuario.Role.ROLE_CLIENTE.ordinal()] = percentual(tabela.getDescontoCliente());
+        descontos[Usuario.Role.ROLE_ADMIN.ordinal()] = percentual(tabela.getDescontoAdmin());
+
+        boolean[] noturno = minutosNoturnos(tabela.getInicioNoturno(), tabela.getFimNoturno());
+        int posicoes = MINUTOS_DIA / minutosFracao;
+        long[][] prefixos = new long[minutosFracao][posicoes + 1];
+        for (int deslocamento = 0; deslocamento < minutosFracao; deslocamento++) {
+            long[] prefixo = prefixos[deslocamento];
+            for (int j = 0; j < posicoes; j++) {
+                boolean noite = noturno[deslocamento + j * minutosFracao];
+                prefixo[j + 1] = prefixo[j] + (noite ? tabela.getValorFracaoNoturna() : tabela.getValorFracao());
+            }
+        }
+        return new TarifaCompilada(fuso, tabela.getToleranciaMinutos() * 60L, tabela.getValorPrimeiraHora(),
+                minutosFracao * 60L, prefixos, tabela.getTetoDiario(), descontos);
+    }
+
+    /**
+     * Valor da permanência, em centavos.
+     *
+     * @param entrada hora local de entrada, no fuso da tabela.
+     * @param saida   hora local de saída, no fuso da tabela.
+     * @param role    papel do usuário identificado no ticket, ou {@code null}.
+     * @throws IllegalArgumentException se a saída for anterior à entrada.
+     */
+    public long calcular(LocalDateTime entrada, LocalDateTime saida, Usuario.Role role) {
+        return calcular(fuso.instante(entrada.toEpochSecond(ZoneOffset.UTC)),
+                fuso.instante(saida.toEpochSecond(ZoneOffset.UTC)), role);
+    }
+
+    /**
+     * Valor da permanência entre dois instantes (epoch em segundos), em centavos.
+     */
+    public long calcular(long entrada, long saida, Usuario.Role role) {
+        long duracao = saida - entrada;
+        if (duracao < 0) {
+            throw new IllegalArgumentException("Saída anterior à entrada");
+        }
+        if (duracao <= tolerancia) {
+            return 0;
+        }
+        long origem = entrada + HORA;
+        long fracoes = saida > origem ? divisaoParaCima(saida - origem, fracao) : 0;
+        long periodos = divisaoParaCima(duracao, DIA);
+
+        long total = 0;
+        for (long p = 0; p < periodos; p++) {
+            long primeira = p == 0 ? 0 : divisaoParaCima(p * DIA - HORA, fracao);
+            long ultima = Math.min(fracoes, divisaoParaCima((p + 1) * DIA - HORA, fracao));
+            long valor = (p == 0 ? primeiraHora : 0) + (ultima > primeira ? custoFracoes(origem, primeira, ultima) : 0);
+            total += tetoDiario > 0 ? Math.min(valor, tetoDiario) : valor;
+        }
+        int desconto = role == null ? 0 : descontos[role.ordinal()];
+        return total - total * desconto / 100;
+    }
+
+    /**
+     * Custo das frações {@code [primeira, ultima)}, a fração {@code k} começando em {@code origem + k * fracao}.
+     */
+    private long custoFracoes(long origem, long primeira, long ultima) {
+        long custo = 0;
+        long k = primeira;
+        while (k < ultima) {
+            long inicio = origem + k * fracao;
+            long transicao = fuso.proximaTransicao(inicio);
+            long fimDoTrecho = transicao == Long.MAX_VALUE ? ultima
+                    : Math.min(ultima, divisaoParaCima(transicao - origem, fracao));
+            custo += custoCiclico(Math.floorMod(origem + fuso.offset(inicio), DIA), k, fimDoTrecho);
+            k = fimDoTrecho;
+        }
+        return custo;
+    }
+
+    /**
+     * Custo das frações {@code [primeira, ultima)} com offset constante.
+     *
+     * @param horaDaOrigem segundo do dia, em hora local, em que começaria a fração zero.
+     */
+    private long custoCiclico(long horaDaOrigem, long primeira, long ultima) {
+        long[] prefixo = prefixos[(int) (horaDaOrigem % fracao / 60)];
+        int inicial = (int) ((horaDaOrigem / fracao + primeira % posicoes) % posicoes);
+        long quantidade = ultima - primeira;
+        int resto = (int) (quantidade % posicoes);
+        long custo = quantidade / posicoes * prefixo[posicoes];
+        if (inicial + resto <= posicoes) {
+            custo += prefixo[inicial + resto] - prefixo[inicial];
+        } else {
+            custo += prefixo[posicoes] - prefixo[inicial] + prefixo[inicial + resto - posicoes];
+        }
+        return custo;
+    }
+
+    private static long divisaoParaCima(long dividendo, long divisor) {
+        return (dividendo + divisor - 1) / divisor;
+    }
+
+    private static int percentual(int valor) {
+        if (valor < 0 || valor > 100) {
+            throw new IllegalArgumentException("Desconto fora de 0..100: " + valor);
+        }
+        return valor;
+    }
+
+    /**
+     * Minutos do dia no horário noturno, {@code [inicio, fim)}, que pode atravessar a meia-noite.
+     * Início igual ao fim significa sem horário noturno.
+     */
+    private static boolean[] minutosNoturnos(LocalTime inicio, LocalTime fim) {
+        boolean[] noturno = new boolean[MINUTOS_DIA];
+        int de = inicio.getHour() * 60 + inicio.getMinute();
+        int ate = fim.getHour() * 60 + fim.getMinute();
+        for (int minuto = de; minuto != ate; minuto = (minuto + 1) % MINUTOS_DIA) {
+            noturno[minuto] = true;
+        }
+        return noturno;
+    }
+}
@@ -0,0 +1,58 @@
+package com.sistema.parkapi.ticket;
+
+import com.sistema.parkapi.entity.Ticket;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entrada ou saída de um veículo, como gravada no {@link TicketJournal}.
+ * <p>
+ * O evento de saída carrega o ticket completo, de modo que a recuperação do diário reconstrói a
+ * resposta de qualquer chamada confirmada sem consultar a base, inclusive o {@code valor} cobrado, em
+ * centavos. A {@code sequencia} é atribuída pelo
+ * diário na gravação; antes disso vale {@code 0}.
+ */
+public record TicketEvento(Tipo tipo, long sequencia, String chave, String codigo, Long estacionamentoId,
+                           String placa, Long usuarioId, LocalDateTime dataEntrada, LocalDateTime dataSaida,
+                           Long valor) {
+
+    public enum Tipo {
+        ENTRADA, SAIDA
+    }
+
+    public static TicketEvento entrada(String chave, String codigo, Long estacionamentoId, String placa,
+                                       Long usuarioId, LocalDateTime dataEntrada) {
+        return new TicketEvento(Tipo.ENTRADA, 0, chave, codigo, estacionamentoId, placa, usuarioId, dataEntrada, null, null);
+    }
+
+    public static TicketEvento saida(String chave, Ticket ticket, LocalDateTime dataSaida, long valor) {
+        return new TicketEvento(Tipo.SAIDA, 0, chave, ticket.getCodigo(), ticket.getEstacionamentoId(),
+                ticket.getPlaca(), ticket.getUsuarioId(), ticket.getDataEntrada(), dataSaida, valor);
+    }
+
+    TicketEvento comSequencia(long sequencia) {
+        return new TicketEvento(tipo, sequencia, chave, codigo, estacionamentoId, placa, usuarioId, dataEntrada, dataSaida,
+                valor);
+    }
+
+    /**
+     * O ticket no estado em que fica após este evento. A chave de entrada de um evento de saída não é
+     * conhecida aqui e fica nula; ela já está gravada na base.
+     */
+    public Ticket toTicket() {
+        Ticket ticket = new Ticket();
+        ticket.setCodigo(codigo);
+        ticket.setEstacionamentoId(estacionamentoId);
+        ticket.setPlaca(placa);
+        ticket.setUsuarioId(usuarioId);
+        ticket.setDataEntrada(dataEntrada);
+        if (tipo == Tipo.ENTRADA) {
+            ticket.setChaveEntrada(chave);
+        } else {
+            ticket.setDataSaida(dataSaida);
+            ticket.setChaveSaida(chave);
+            ticket.setValor(valor);
+        }
+        return ticket;
+    }
+}
@@ -0,0 +1,463 @@
+package com.sistema.parkapi.ticket;
+
+import com.sistema.parkapi.exception.CapacityExceededException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Diário local, somente de acréscimo, dos eventos de ticket. Um evento é confirmado à cancela quando
+ * está no disco ({@link FileChannel#force(boolean)}), antes de ser gravado na base.
+ * <p>
+ * Uma única thread grava os eventos pendentes em grupo: todos os que chegaram enquanto o grupo
+ * anterior era sincronizado são escritos juntos e confirmados com um único {@code fsync}, de modo que o
+ * custo do {@code fsync} é dividido entre as cancelas no horário de pico. Cada evento recebe uma
+ * sequência crescente e é entregue, já durável, ao destino configurado (a gravação em lote na base).
+ * <p>
+ * O diário é dividido em segmentos ({@code tickets-<primeira sequência>.journal}). Cada leitor (a
+ * gravação na base e o {@code MovimentoAgregador}) tem seu checkpoint; os segmentos cujos eventos já
+ * foram confirmados por todos os leitores são apagados ({@link #descartarAte(String, long)}), e na
+ * subida os eventos posteriores ao menor checkpoint são lidos de volta ({@link #abrir(Map)}). Cada registro tem
+ * tamanho e CRC32, e a leitura de um segmento para no primeiro registro incompleto, que só pode ser de
+ * um grupo nunca confirmado. A fila de eventos pendentes é limitada; cheia, o evento é recusado com
+ * {@link CapacityExceededException}.
+ * <p>
+ * A criação de um segmento é sincronizada também no diretório, para que o arquivo sobreviva a uma
+ * queda. Um grupo cuja escrita ou {@code fsync} falha é recusado e removido do segmento
+ * ({@link FileChannel#truncate(long)}), para não reaparecer na leitura como evento nunca confirmado, e
+ * a escrita segue num segmento novo. Se nem a remoção for possível, o diário deixa de aceitar eventos.
+ */
+@Slf4j
+@Component
+public class TicketJournal implements Runnable {
+
+    private static final String PREFIXO = "tickets-";
+    private static final String SUFIXO = ".journal";
+    private static final int TAMANHO_GRUPO = 1000;
+    private static final int CABECALHO = 8;
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+
+    private final Path diretorio;
+    private final long tamanhoSegmento;
+    private final ArrayBlockingQueue<Pendente> fila;
+    private final Timer sincronizacao;
+    private final DistributionSummary tamanhoDoGrupo;
+    // Primeira sequência de cada segmento; o último é o segmento aberto para escrita
+    private final TreeMap<Long, Path> segmentos = new TreeMap<>();
+    // Última sequência confirmada por cada leitor
+    private final Map<String, Long> confirmados = new ConcurrentHashMap<>();
+    private final ByteArrayOutputStream registro = new ByteArrayOutputStream(256);
+    private final DataOutputStream saida = new DataOutputStream(registro);
+    private FileChannel canal;
+    private long tamanhoAtual;
+    private long proximaSequencia;
+    private Consumer<List<TicketEvento>> destino;
+    private volatile boolean executando;
+    // Um grupo recusado não pôde ser removido do segmento; nada mais é aceito
+    private volatile boolean inutilizado;
+    private Thread thread;
+
+    public TicketJournal(@Value("${park.tickets.journal.diretorio:data/tickets-journal}") Path diretorio,
+                         @Value("${park.tickets.journal.tamanho-segmento:64MB}") DataSize tamanhoSegmento,
+                         @Value("${park.tickets.journal.capacidade:10000}") int capacidade,
+                         MeterRegistry meterRegistry) {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento.toBytes();
+        this.fila = new ArrayBlockingQueue<>(capacidade);
+        this.sincronizacao = Timer.builder("tickets.journal.fsync").register(meterRegistry);
+        this.tamanhoDoGrupo = DistributionSummary.builder("tickets.journal.grupo")
+                .description("Eventos confirmados por fsync")
+                .register(meterRegistry);
+        Gauge.builder("tickets.journal.pendentes", fila, ArrayBlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Lê o diário existente e abre um segmento novo para escrita.
+     *
+     * @param checkpoints última sequência já confirmada por cada leitor.
+     * @return os eventos posteriores ao menor checkpoint, em ordem de sequência.
+     */
+    public synchronized List<TicketEvento> abrir(Map<String, Long> checkpoints) {
+        confirmados.putAll(checkpoints);
+        long checkpoint = Collections.min(checkpoints.values());
+        List<TicketEvento> pendentes = new ArrayList<>();
+        // Um leitor pode ter confirmado eventos de um segmento já apagado por inteiro
+        long ultima = Collections.max(checkpoints.values());
+        try {
+            Files.createDirectories(diretorio);
+            try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+                for (Path arquivo : arquivos) {
+                    segmentos.put(primeiraSequencia(arquivo), arquivo);
+                }
+            }
+            for (Path arquivo : segmentos.values()) {
+                for (TicketEvento evento : ler(arquivo)) {
+                    ultima = Math.max(ultima, evento.sequencia());
+                    if (evento.sequencia() > checkpoint) {
+                        pendentes.add(evento);
+                    }
+                }
+            }
+            proximaSequencia = ultima + 1;
+            abrirSegmento();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Falha ao abrir o diário de tickets em " + diretorio, ex);
+        }
+        log.info("Diário de tickets aberto em {}: {} evento(s) pendente(s) de gravação na base", diretorio, pendentes.size());
+        return pendentes;
+    }
+
+    /**
+     * Inicia a thread de gravação.
+     *
+     * @param destino recebe cada grupo de eventos depois que ele está no disco.
+     */
+    public void iniciar(Consumer<List<TicketEvento>> destino) {
+        this.destino = destino;
+        executando = true;
+        thread = new Thread(this, "tickets-journal");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Grava os eventos ainda pendentes e fecha o segmento aberto.
+     */
+    public void encerrar() {
+        executando = false;
+        if (thread != null) {
+            try {
+                thread.join(Duration.ofSeconds(10).toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Pendente restante;
+        while ((restante = fila.poll()) != null) {
+            restante.futuro().completeExceptionally(new CapacityExceededException("Diário de tickets encerrado"));
+        }
+        synchronized (this) {
+            fechar();
+        }
+    }
+
+    /**
+     * Acrescenta o evento ao diário.
+     *
+     * @param evento evento sem sequência.
+     * @return um futuro completado com o evento numerado quando ele estiver no disco.
+     * @throws CapacityExceededException se a fila de eventos pendentes estiver cheia.
+     */
+    public CompletableFuture<TicketEvento> anexar(TicketEvento evento) {
+        if (!executando || inutilizado) {
+            throw new CapacityExceededException("Diário de tickets indisponível");
+        }
+        Pendente pendente = new Pendente(evento, new CompletableFuture<>());
+        if (!fila.offer(pendente)) {
+            throw new CapacityExceededException("Diário de tickets sobrecarregado; tente novamente");
+        }
+        return pendente.futuro();
+    }
+
+    /**
+     * Registra a confirmação do leitor e apaga os segmentos cujos eventos têm todos sequência até a
+     * menor confirmada entre os leitores. O segmento aberto nunca é apagado.
+     *
+     * @param leitor    nome do leitor, como informado em {@link #abrir(Map)}.
+     * @param sequencia última sequência processada pelo leitor.
+     */
+    public void descartarAte(String leitor, long sequencia) {
+        confirmados.merge(leitor, sequencia, Math::max);
+        List<Path> descartados = new ArrayList<>();
+        synchronized (this) {
+            long minimo = Collections.min(confirmados.values());
+            while (segmentos.size() > 1) {
+                Map.Entry<Long, Path> primeiro = segmentos.firstEntry();
+                if (segmentos.higherKey(primeiro.getKey()) - 1 > minimo) {
+                    break;
+                }
+                segmentos.pollFirstEntry();
+                descartados.add(primeiro.getValue());
+            }
+        }
+        for (Path arquivo : descartados) {
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException ex) {
+                log.warn("Falha ao apagar o segmento {} do diário de tickets: {}", arquivo, ex.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        List<Pendente> grupo = new ArrayList<>(TAMANHO_GRUPO);
+        while (executando || !fila.isEmpty()) {
+            Pendente primeiro;
+            try {
+                primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (primeiro == null) {
+                continue;
+            }
+            grupo.add(primeiro);
+            fila.drainTo(grupo, TAMANHO_GRUPO - 1);
+            try {
+                gravar(grupo);
+            } catch (RuntimeException ex) {
+                // A thread do diário não pode parar; quem espera pelo grupo recebe o erro
+                log.error("Falha inesperada no diário de tickets", ex);
+                grupo.forEach(p -> p.futuro().completeExceptionally(ex));
+            }
+            grupo.clear();
+        }
+    }
+
+    private synchronized void gravar(List<Pendente> grupo) {
+        if (canal == null && !reabrir()) {
+            recusar(grupo, new IOException("Nenhum segmento do diário de tickets aberto"));
+            return;
+        }
+        List<TicketEvento> eventos = new ArrayList<>(grupo.size());
+        ByteBuffer[] buffers = new ByteBuffer[grupo.size()];
+        long bytes = 0;
+        long primeiraSequencia = proximaSequencia;
+        try {
+            for (int i = 0; i < grupo.size(); i++) {
+                TicketEvento evento = grupo.get(i).evento().comSequencia(proximaSequencia++);
+                eventos.add(evento);
+                buffers[i] = codificar(evento);
+                bytes += buffers[i].remaining();
+            }
+            long escritos = 0;
+            while (escritos < bytes) {
+                escritos += canal.write(buffers);
+            }
+            long inicio = System.nanoTime();
+            canal.force(false);
+            sincronizacao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            tamanhoAtual += bytes;
+        } catch (IOException ex) {
+            log.error("Falha ao gravar {} evento(s) no diário de tickets", grupo.size(), ex);
+            recusar(grupo, ex);
+            desfazer(primeiraSequencia);
+            return;
+        }
+        tamanhoDoGrupo.record(grupo.size());
+        destino.accept(eventos);
+        for (int i = 0; i < grupo.size(); i++) {
+            grupo.get(i).futuro().complete(eventos.get(i));
+        }
+        if (tamanhoAtual >= tamanhoSegmento) {
+            rotacionar();
+        }
+    }
+
+    private static void recusar(List<Pendente> grupo, IOException causa) {
+        UncheckedIOException erro = new UncheckedIOException("Falha ao gravar no diário de tickets", causa);
+        grupo.forEach(p -> p.futuro().completeExceptionally(erro));
+    }
+
+    /**
+     * Remove do segmento o que foi escrito do grupo recusado e passa a escrever num segmento novo. Depois
+     * de um {@code fsync} que falhou, o estado do arquivo em cache não é confiável para novas escritas.
+     *
+     * @param primeiraSequencia sequência do primeiro evento do grupo recusado.
+     */
+    private void desfazer(long primeiraSequencia) {
+        try {
+            canal.truncate(tamanhoAtual);
+            canal.force(false);
+        } catch (IOException ex) {
+            inutilizado = true;
+            log.error("Grupo recusado não pôde ser removido do diário de tickets; o diário não aceita mais eventos", ex);
+            fechar();
+            return;
+        }
+        // O grupo não está mais no disco, então as suas sequências podem ser reaproveitadas
+        proximaSequencia = primeiraSequencia;
+        rotacionar();
+    }
+
+    private void rotacionar() {
+        fechar();
+        reabrir();
+    }
+
+    private boolean reabrir() {
+        try {
+            abrirSegmento();
+            return true;
+        } catch (IOException ex) {
+            log.error("Falha ao abrir um novo segmento do diário de tickets", ex);
+            return false;
+        }
+    }
+
+    private void abrirSegmento() throws IOException {
+        Path arquivo = diretorio.resolve(String.format("%s%019d%s", PREFIXO, proximaSequencia, SUFIXO));
+        // Um segmento com este nome só pode conter registros incompletos, nunca confirmados
+        FileChannel novo = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            sincronizarDiretorio();
+        } catch (IOException ex) {
+            novo.close();
+            throw ex;
+        }
+        canal = novo;
+        tamanhoAtual = 0;
+        segmentos.put(proximaSequencia, arquivo);
+    }
+
+    /**
+     * Grava no disco a entrada do diretório de um segmento recém-criado; sem isso, uma queda pode levar
+     * o arquivo inteiro, com eventos já confirmados. No Windows um diretório não pode ser aberto, e o
+     * sistema de arquivos já grava a criação.
+     */
+    private void sincronizarDiretorio() throws IOException {
+        if (WINDOWS) {
+            return;
+        }
+        try (FileChannel canalDoDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canalDoDiretorio.force(true);
+        }
+    }
+
+    private void fechar() {
+        if (canal != null) {
+            try {
+                canal.close();
+            } catch (IOException ex) {
+                log.warn("Falha ao fechar o segmento do diário de tickets: {}", ex.getMessage());
+            }
+            canal = null;
+        }
+    }
+
+    private ByteBuffer codificar(TicketEvento evento) throws IOException {
+        registro.reset();
+        saida.writeByte(evento.tipo().ordinal());
+        saida.writeLong(evento.sequencia());
+        saida.writeUTF(evento.chave());
+        saida.writeUTF(evento.codigo());
+        saida.writeLong(evento.estacionamentoId());
+        saida.writeUTF(evento.placa());
+        saida.writeLong(evento.usuarioId() == null ? -1 : evento.usuarioId());
+        escreverData(evento.dataEntrada());
+        saida.writeBoolean(evento.dataSaida() != null);
+        if (evento.dataSaida() != null) {
+            escreverData(evento.dataSaida());
+            saida.writeLong(evento.valor() == null ? -1 : evento.valor());
+        }
+        byte[] conteudo = registro.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+        return ByteBuffer.allocate(CABECALHO + conteudo.length)
+                .putInt(conteudo.length)
+                .putInt((int) crc.getValue())
+                .put(conteudo)
+                .flip();
+    }
+
+    private void escreverData(LocalDateTime data) throws IOException {
+        saida.writeLong(data.toEpochSecond(ZoneOffset.UTC));
+        saida.writeInt(data.getNano());
+    }
+
+    private static List<TicketEvento> ler(Path arquivo) throws IOException {
+        List<TicketEvento> eventos = new ArrayList<>();
+        ByteBuffer conteudo = ByteBuffer.wrap(Files.readAllBytes(arquivo));
+        while (conteudo.remaining() >= CABECALHO) {
+            int tamanho = conteudo.getInt();
+            int esperado = conteudo.getInt();
+            if (tamanho <= 0 || tamanho > conteudo.remaining()) {
+                log.warn("Registro incompleto no fim do segmento {} do diário de tickets; ignorado", arquivo);
+                break;
+            }
+            byte[] registro = new byte[tamanho];
+            conteudo.get(registro);
+            CRC32 crc = new CRC32();
+            crc.update(registro);
+            if ((int) crc.getValue() != esperado) {
+                log.warn("Registro corrompido no segmento {} do diário de tickets; leitura do segmento interrompida", arquivo);
+                break;
+            }
+            try {
+                eventos.add(decodificar(new DataInputStream(new ByteArrayInputStream(registro))));
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Registro ilegível no segmento {} do diário de tickets: {}", arquivo, ex.getMessage());
+                break;
+            }
+        }
+        return eventos;
+    }
+
+    private static TicketEvento decodificar(DataInputStream entrada) throws IOException {
+        try {
+            TicketEvento.Tipo tipo = TicketEvento.Tipo.values()[entrada.readByte()];
+            long sequencia = entrada.readLong();
+            String chave = entrada.readUTF();
+            String codigo = entrada.readUTF();
+            long estacionamentoId = entrada.readLong();
+            String placa = entrada.readUTF();
+            long usuarioId = entrada.readLong();
+            LocalDateTime dataEntrada = lerData(entrada);
+            LocalDateTime dataSaida = entrada.readBoolean() ? lerData(entrada) : null;
+            // Saídas gravadas antes da tarifação não têm valor
+            long valor = dataSaida != null && entrada.available() >= Long.BYTES ? entrada.readLong() : -1;
+            return new TicketEvento(tipo, sequencia, chave, codigo, estacionamentoId, placa,
+                    usuarioId < 0 ? null : usuarioId, dataEntrada, dataSaida, valor < 0 ? null : valor);
+        } catch (EOFException ex) {
+            throw new IOException("Registro do diário de tickets truncado", ex);
+        }
+    }
+
+    private static LocalDateTime lerData(DataInputStream entrada) throws IOException {
+        return LocalDateTime.ofEpochSecond(entrada.readLong(), entrada.readInt(), ZoneOffset.UTC);
+    }
+
+    private static long primeiraSequencia(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+
+    private record Pendente(TicketEvento evento, CompletableFuture<TicketEvento> futuro) {
+    }
+}
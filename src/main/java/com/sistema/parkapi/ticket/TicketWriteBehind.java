@@ -0,0 +1,301 @@
+package com.sistema.parkapi.ticket;
+
+import com.sistema.parkapi.entity.Ticket;
+import com.sistema.parkapi.entity.TicketJournalCheckpoint;
+import com.sistema.parkapi.repository.TicketJournalCheckpointRepository;
+import com.sistema.parkapi.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava na base, em lotes, os eventos já duráveis no {@link TicketJournal}.
+ * <p>
+ * Uma única thread acumula eventos por até {@code park.tickets.write-behind.intervalo} ou até
+ * {@code park.tickets.write-behind.tamanho-lote} eventos e grava o lote em uma transação: as entradas
+ * com INSERTs em batch JDBC e as saídas com um batch de UPDATEs. Uma entrada e a saída do mesmo ticket
+ * no mesmo lote viram um único INSERT. Na mesma transação é gravado o checkpoint da instância, e após o
+ * commit os segmentos do diário já gravados são apagados.
+ * <p>
+ * A saída só é gravada num ticket ainda aberto na base. Uma saída que não altera nenhuma linha é
+ * conferida: se o ticket já estava encerrado, ela é descartada com um aviso; se a entrada ainda não está
+ * na base (registrada por outra instância, cujo lote não foi gravado), o lote é repetido por até
+ * {@code park.tickets.write-behind.espera-entrada}, e depois disso a saída é descartada com um erro. As
+ * saídas descartadas são contadas em {@code tickets.write-behind.saidas-descartadas}.
+ * <p>
+ * Como os eventos estão no diário, um lote nunca é descartado: uma falha é repetida com espera
+ * crescente até a base voltar, na ordem original. No desligamento, o que não puder ser gravado fica no
+ * diário e é gravado na próxima subida.
+ */
+@Slf4j
+@Component
+public class TicketWriteBehind implements Runnable {
+
+    /**
+     * Nome deste leitor no {@link TicketJournal}.
+     */
+    public static final String LEITOR = "tickets";
+
+    private static final String UPDATE_SAIDA = "UPDATE tickets SET data_saida = ?, chave_saida = ?, valor = ? " +
+            "WHERE codigo = ? AND data_saida IS NULL";
+    private static final long ESPERA_MAXIMA = TimeUnit.SECONDS.toMillis(30);
+    private static final int TENTATIVAS_NO_DESLIGAMENTO = 3;
+
+    private final TicketRepository ticketRepository;
+    private final TicketJournalCheckpointRepository checkpointRepository;
+    private final TicketJournal journal;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String instancia;
+    private final int tamanhoLote;
+    private final Duration intervalo;
+    private final Duration esperaEntrada;
+    private final LinkedBlockingQueue<TicketEvento> fila = new LinkedBlockingQueue<>();
+    private final Timer gravacao;
+    private final Counter gravados;
+    private final Counter descartadas;
+    private volatile boolean executando;
+    // Instante, em System.nanoTime(), até o qual saídas sem entrada na base fazem o lote ser repetido
+    private long limiteEsperaEntrada;
+    private boolean esperandoEntrada;
+    private Thread thread;
+
+    public TicketWriteBehind(TicketRepository ticketRepository,
+                             TicketJournalCheckpointRepository checkpointRepository,
+                             TicketJournal journal,
+                             EntityManager entityManager,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${park.tickets.journal.instancia:local}") String instancia,
+                             @Value("${park.tickets.write-behind.tamanho-lote:1000}") int tamanhoLote,
+                             @Value("${park.tickets.write-behind.intervalo:500ms}") Duration intervalo,
+                             @Value("${park.tickets.write-behind.espera-entrada:PT1M}") Duration esperaEntrada,
+                             MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.journal = journal;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.instancia = instancia;
+        this.tamanhoLote = tamanhoLote;
+        this.intervalo = intervalo;
+        this.esperaEntrada = esperaEntrada;
+        this.gravacao = Timer.builder("tickets.write-behind.gravacao").register(meterRegistry);
+        this.gravados = Counter.builder("tickets.write-behind.gravados").register(meterRegistry);
+        this.descartadas = Counter.builder("tickets.write-behind.saidas-descartadas")
+                .description("Saídas que não encerraram nenhum ticket na base")
+                .register(meterRegistry);
+        Gauge.builder("tickets.write-behind.pendentes", fila, LinkedBlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Última sequência do diário desta instância já gravada na base.
+     */
+    public long checkpoint() {
+        return checkpointRepository.findById(instancia).map(TicketJournalCheckpoint::getSequencia).orElse(0L);
+    }
+
+    public void iniciar() {
+        executando = true;
+        thread = new Thread(this, "tickets-write-behind");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Grava os eventos pendentes, com poucas tentativas, e encerra a thread.
+     */
+    public void encerrar() {
+        executando = false;
+        if (thread != null) {
+            try {
+                thread.join(Duration.ofSeconds(30).toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Enfileira eventos duráveis para gravação, na ordem de sequência.
+     */
+    public void enfileirar(List<TicketEvento> eventos) {
+        fila.addAll(eventos);
+    }
+
+    @Override
+    public void run() {
+        List<TicketEvento> lote = new ArrayList<>(tamanhoLote);
+        while (executando || !fila.isEmpty()) {
+            try {
+                acumular(lote);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!lote.isEmpty()) {
+                if (!gravar(lote)) {
+                    return;
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    /**
+     * Espera o primeiro evento e acumula os seguintes até o lote encher ou o intervalo acabar.
+     */
+    private void acumular(List<TicketEvento> lote) throws InterruptedException {
+        TicketEvento primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+        if (primeiro == null) {
+            return;
+        }
+        lote.add(primeiro);
+        long limite = System.nanoTime() + intervalo.toNanos();
+        while (lote.size() < tamanhoLote && executando) {
+            fila.drainTo(lote, tamanhoLote - lote.size());
+            long restante = limite - System.nanoTime();
+            if (lote.size() == tamanhoLote || restante <= 0) {
+                return;
+            }
+            TicketEvento proximo = fila.poll(restante, TimeUnit.NANOSECONDS);
+            if (proximo == null) {
+                return;
+            }
+            lote.add(proximo);
+        }
+        fila.drainTo(lote, tamanhoLote - lote.size());
+    }
+
+    /**
+     * Grava o lote, repetindo até conseguir.
+     *
+     * @return {@code false} se a aplicação está sendo desligada e o lote ficou só no diário.
+     */
+    private boolean gravar(List<TicketEvento> lote) {
+        long ultima = lote.get(lote.size() - 1).sequencia();
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                gravacao.record(() -> transactionTemplate.executeWithoutResult(status -> gravarNaTransacao(lote, ultima)));
+                gravados.increment(lote.size());
+                esperandoEntrada = false;
+                journal.descartarAte(LEITOR, ultima);
+                return true;
+            } catch (RuntimeException ex) {
+                if (!executando && tentativa >= TENTATIVAS_NO_DESLIGAMENTO) {
+                    log.error("Desligando com {} evento(s) de ticket não gravados; serão gravados a partir do diário na próxima subida",
+                            lote.size() + fila.size(), ex);
+                    return false;
+                }
+                log.warn("Falha ao gravar {} evento(s) de ticket (tentativa {}): {}", lote.size(), tentativa, ex.getMessage());
+                try {
+                    Thread.sleep(Math.min(ESPERA_MAXIMA, 100L << Math.min(tentativa, 16)));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void gravarNaTransacao(List<TicketEvento> lote, long ultima) {
+        Map<String, Ticket> novos = new LinkedHashMap<>();
+        List<TicketEvento> saidas = new ArrayList<>();
+        for (TicketEvento evento : lote) {
+            if (evento.tipo() == TicketEvento.Tipo.ENTRADA) {
+                novos.put(evento.codigo(), evento.toTicket());
+                continue;
+            }
+            Ticket novo = novos.get(evento.codigo());
+            if (novo != null) {
+                novo.setDataSaida(evento.dataSaida());
+                novo.setChaveSaida(evento.chave());
+                novo.setValor(evento.valor());
+            } else {
+                saidas.add(evento);
+            }
+        }
+        ticketRepository.saveAll(novos.values());
+        // Os INSERTs precisam estar na base antes dos UPDATEs de saída, que não passam pelo Hibernate
+        entityManager.flush();
+        if (!saidas.isEmpty()) {
+            int[][] contagens = jdbcTemplate.batchUpdate(UPDATE_SAIDA, saidas, saidas.size(), (ps, evento) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(evento.dataSaida()));
+                ps.setString(2, evento.chave());
+                ps.setObject(3, evento.valor(), Types.BIGINT);
+                ps.setString(4, evento.codigo());
+            });
+            List<TicketEvento> semLinha = new ArrayList<>();
+            int posicao = 0;
+            for (int[] grupo : contagens) {
+                for (int contagem : grupo) {
+                    // SUCCESS_NO_INFO (-2) não diz quantas linhas mudaram e é tratado como gravado
+                    if (contagem == 0) {
+                        semLinha.add(saidas.get(posicao));
+                    }
+                    posicao++;
+                }
+            }
+            if (!semLinha.isEmpty()) {
+                conferirSaidasSemLinha(semLinha);
+            }
+        }
+        checkpointRepository.save(new TicketJournalCheckpoint(instancia, ultima));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Separa as saídas que não encerraram nenhum ticket entre as de tickets já encerrados e as de
+     * tickets ainda não gravados. Enquanto houver entradas a esperar, falha a transação para que o lote
+     * seja repetido.
+     */
+    private void conferirSaidasSemLinha(List<TicketEvento> semLinha) {
+        String parametros = String.join(", ", Collections.nCopies(semLinha.size(), "?"));
+        Set<String> existentes = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT codigo FROM tickets WHERE codigo IN (" + parametros + ")", String.class,
+                semLinha.stream().map(TicketEvento::codigo).toArray()));
+        List<String> semEntrada = semLinha.stream().map(TicketEvento::codigo)
+                .filter(codigo -> !existentes.contains(codigo)).toList();
+        if (!semEntrada.isEmpty()) {
+            long agora = System.nanoTime();
+            if (!esperandoEntrada) {
+                esperandoEntrada = true;
+                limiteEsperaEntrada = agora + esperaEntrada.toNanos();
+            }
+            if (agora - limiteEsperaEntrada < 0) {
+                throw new IllegalStateException(String.format(
+                        "%d saída(s) de ticket cuja entrada ainda não está na base", semEntrada.size()));
+            }
+            log.error("Saídas descartadas após {}: a entrada dos tickets {} não chegou à base", esperaEntrada, semEntrada);
+            descartadas.increment(semEntrada.size());
+        }
+        for (String codigo : existentes) {
+            log.warn("Saída do ticket {} descartada: o ticket já estava encerrado na base", codigo);
+            descartadas.increment();
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.sistema.parkapi.web.controller;
 
 import com.sistema.parkapi.jwt.JwtToken;
-import com.sistema.parkapi.jwt.JwtUserDetailsService;
+import com.sistema.parkapi.service.AutenticacaoService;
+import com.sistema.parkapi.web.dto.RefreshTokenDto;
 import com.sistema.parkapi.web.dto.UsuarioLoginDto;
 import com.sistema.parkapi.web.exception.ErrorMessage;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,44 +11,44 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Slf4j
 @RequiredArgsConstructor
 @RestController
 @RequestMapping("/api/v1")
 public class AutenticacaoController {
 
-    private final JwtUserDetailsService detailsService;
-    private final AuthenticationManager authenticationManager;
+    private final AutenticacaoService autenticacaoService;
 
     @PostMapping("/auth")
-    public ResponseEntity<?> autenticar(@RequestBody @Valid UsuarioLoginDto dto, HttpServletRequest request) {
+    public CompletableFuture<ResponseEntity<?>> autenticar(@RequestBody @Valid UsuarioLoginDto dto, HttpServletRequest request) {
 
         log.info("Processo de autenticação pelo login {}", dto.getUsername());
 
-        try {
-            UsernamePasswordAuthenticationToken authenticationToken =
-                    new UsernamePasswordAuthenticationToken(dto.getUsername(), dto.getPassword());
-
-            authenticationManager.authenticate(authenticationToken);
-
-            JwtToken token = detailsService.getTokenAuthenticated(dto.getUsername());
+        return autenticacaoService.autenticar(dto.getUsername(), dto.getPassword(), request.getRemoteAddr())
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (!(cause instanceof AuthenticationException)) {
+                        throw new CompletionException(cause);
+                    }
+                    log.warn("Bad Credentials from username '{}'", dto.getUsername());
+                    return ResponseEntity.badRequest()
+                            .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, "Credentials Invalid"));
+                });
 
-            return ResponseEntity.ok(token);
-
-        } catch (AuthenticationException ex) {
-            log.warn("Bad Credentials from username '{}'", dto.getUsername());
-        }
-
-        return ResponseEntity.badRequest()
-                .body(new ErrorMessage(request, HttpStatus.BAD_REQUEST, "Credentials Invalid"));
+    }
 
+    @PostMapping("/auth/refresh")
+    public ResponseEntity<JwtToken> renovar(@RequestBody @Valid RefreshTokenDto dto) {
+        return ResponseEntity.ok(autenticacaoService.renovar(dto.getRefreshToken()));
     }
 }
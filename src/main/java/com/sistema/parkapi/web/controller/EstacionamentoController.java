@@ -0,0 +1,191 @@
+package com.sistema.parkapi.web.controller;
+
+import com.sistema.parkapi.entity.Estacionamento;
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.entity.Vaga;
+import com.sistema.parkapi.jwt.JwtUserDetails;
+import com.sistema.parkapi.service.EstacionamentoService;
+import com.sistema.parkapi.service.MovimentoService;
+import com.sistema.parkapi.service.OcupacaoBroadcaster;
+import com.sistema.parkapi.service.TarifaService;
+import com.sistema.parkapi.service.UsuarioService;
+import com.sistema.parkapi.web.dto.EstacionamentoCreateDto;
+import com.sistema.parkapi.web.dto.EstacionamentoResponseDto;
+import com.sistema.parkapi.web.dto.MovimentoResponseDto;
+import com.sistema.parkapi.web.dto.OcupacaoResponseDto;
+import com.sistema.parkapi.web.dto.TabelaTarifariaDto;
+import com.sistema.parkapi.web.dto.VagaResponseDto;
+import com.sistema.parkapi.web.dto.mapper.EstacionamentoMapper;
+import com.sistema.parkapi.web.dto.mapper.TabelaTarifariaMapper;
+import com.sistema.parkapi.web.exception.ErrorMessage;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Tag(name = "Estacionamentos", description = "Controlador do recurso de estacionamentos e vagas")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/estacionamentos")
+public class EstacionamentoController {
+
+    /**
+     * Intervalo dos comentários enviados no stream de ocupação, para que proxies não encerrem a conexão ociosa.
+     */
+    private static final Duration KEEPALIVE = Duration.ofSeconds(15);
+
+    private final EstacionamentoService estacionamentoService;
+    private final OcupacaoBroadcaster ocupacaoBroadcaster;
+    private final TarifaService tarifaService;
+    private final MovimentoService movimentoService;
+    private final UsuarioService usuarioService;
+
+    @Operation(summary = "Criar um novo estacionamento", description = "Recurso para criar um estacionamento com vagas numeradas de 1 a totalVagas", responses = {
+            @ApiResponse(responseCode = "201", description = "Recurso criado com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstacionamentoResponseDto.class))),
+            @ApiResponse(responseCode = "409", description = "Estacionamento já cadastrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "422", description = "Recursos não processados por dados de entrada inválidos",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public ResponseEntity<EstacionamentoResponseDto> create(@Valid @RequestBody EstacionamentoCreateDto createDto) {
+        Estacionamento estacionamento = estacionamentoService.salvar(EstacionamentoMapper.toEstacionamento(createDto));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(EstacionamentoMapper.toDto(estacionamento, estacionamento.getTotalVagas()));
+    }
+
+    @Operation(summary = "Recuperar um estacionamento pelo ID", description = "Recuperar um estacionamento e suas vagas livres", responses = {
+            @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = EstacionamentoResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Recurso não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<EstacionamentoResponseDto> getById(@PathVariable Long id) {
+        Estacionamento estacionamento = estacionamentoService.buscarPorId(id);
+        return ResponseEntity.ok(EstacionamentoMapper.toDto(estacionamento, estacionamentoService.contarVagasLivres(id)));
+    }
+
+    @Operation(summary = "Acompanhar a ocupação de um estacionamento", description = "Stream (Server-Sent Events) com a ocupação atual e cada mudança, agrupadas em poucas atualizações por segundo", responses = {
+            @ApiResponse(responseCode = "200", description = "Stream iniciado",
+                    content = @Content(mediaType = "text/event-stream", schema = @Schema(implementation = OcupacaoResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Recurso não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "503", description = "Limite de assinantes atingido",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @GetMapping(value = "/{id}/ocupacao", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<OcupacaoResponseDto>> acompanharOcupacao(@PathVariable Long id) {
+        estacionamentoService.verificarExistencia(id);
+        Flux<ServerSentEvent<OcupacaoResponseDto>> ocupacoes = ocupacaoBroadcaster.assinar(id)
+                .map(ocupacao -> ServerSentEvent.builder(EstacionamentoMapper.toDto(ocupacao)).event("ocupacao").build());
+        Flux<ServerSentEvent<OcupacaoResponseDto>> keepalive = Flux.interval(KEEPALIVE)
+                .onBackpressureDrop()
+                .map(i -> ServerSentEvent.<OcupacaoResponseDto>builder().comment("keepalive").build());
+        // Prefetch de 1: o merge não acumula ocupações antigas para um cliente lento
+        return Flux.merge(1, ocupacoes, keepalive);
+    }
+
+    @Operation(summary = "Definir a tabela tarifária", description = "Recurso para criar ou substituir a tabela tarifária de um estacionamento", responses = {
+            @ApiResponse(responseCode = "200", description = "Tabela gravada com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TabelaTarifariaDto.class))),
+            @ApiResponse(responseCode = "404", description = "Estacionamento não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "422", description = "Recursos não processados por dados de entrada inválidos",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/tarifa")
+    public ResponseEntity<TabelaTarifariaDto> definirTarifa(@PathVariable Long id, @Valid @RequestBody TabelaTarifariaDto dto) {
+        TabelaTarifaria tabela = tarifaService.salvar(TabelaTarifariaMapper.toTabelaTarifaria(id, dto));
+        return ResponseEntity.ok(TabelaTarifariaMapper.toDto(tabela));
+    }
+
+    @Operation(summary = "Recuperar a tabela tarifária", description = "Recuperar a tabela tarifária de um estacionamento", responses = {
+            @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TabelaTarifariaDto.class))),
+            @ApiResponse(responseCode = "404", description = "Recurso não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @GetMapping("/{id}/tarifa")
+    public ResponseEntity<TabelaTarifariaDto> getTarifa(@PathVariable Long id) {
+        return ResponseEntity.ok(TabelaTarifariaMapper.toDto(tarifaService.buscarPorEstacionamento(id)));
+    }
+
+    @Operation(summary = "Consultar o movimento de um estacionamento", description = "Entradas, saídas, pico de ocupação e receita por hora (até 31 dias) ou por dia (até 366 dias), no intervalo [inicio, fim)", responses = {
+            @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = MovimentoResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Período inválido",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "404", description = "Estacionamento não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/movimentos")
+    public ResponseEntity<List<MovimentoResponseDto>> getMovimentos(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime inicio,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fim,
+            @RequestParam(defaultValue = "HORA") MovimentoService.Agrupamento agrupamento) {
+        List<MovimentoResponseDto> movimentos = movimentoService.buscar(id, inicio, fim, agrupamento).stream()
+                .map(EstacionamentoMapper::toDto)
+                .toList();
+        return ResponseEntity.ok(movimentos);
+    }
+
+    @Operation(summary = "Alocar uma vaga", description = "Alocar ao cliente autenticado a vaga livre de menor número", responses = {
+            @ApiResponse(responseCode = "201", description = "Vaga alocada com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = VagaResponseDto.class))),
+            @ApiResponse(responseCode = "404", description = "Estacionamento não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "409", description = "Estacionamento sem vagas livres",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('CLIENTE')")
+    @PostMapping("/{id}/vagas")
+    public ResponseEntity<VagaResponseDto> alocarVaga(@PathVariable Long id, @AuthenticationPrincipal JwtUserDetails user) {
+        Vaga vaga = estacionamentoService.alocarVaga(id, usuarioId(user));
+        return ResponseEntity.status(HttpStatus.CREATED).body(EstacionamentoMapper.toDto(vaga));
+    }
+
+    @Operation(summary = "Liberar uma vaga", description = "Liberar uma vaga ocupada; clientes só liberam a própria vaga", responses = {
+            @ApiResponse(responseCode = "204", description = "Vaga liberada com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Void.class))),
+            @ApiResponse(responseCode = "404", description = "Vaga não ocupada",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENTE')")
+    @DeleteMapping("/{id}/vagas/{numero}")
+    public ResponseEntity<Void> liberarVaga(@PathVariable Long id, @PathVariable int numero,
+                                            @AuthenticationPrincipal JwtUserDetails user) {
+        Long ocupante = Usuario.Role.ROLE_ADMIN.name().equals(user.getRole()) ? null : usuarioId(user);
+        estacionamentoService.liberarVaga(id, numero, ocupante);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Id do usuário autenticado; com o principal montado a partir dos claims, o id vem do cache de usuários.
+     */
+    private Long usuarioId(JwtUserDetails user) {
+        return user.getId() != null ? user.getId() : usuarioService.buscarPorNome(user.getUsername()).getId();
+    }
+}
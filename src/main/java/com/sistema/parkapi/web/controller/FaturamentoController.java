@@ -0,0 +1,90 @@
+package com.sistema.parkapi.web.controller;
+
+import com.sistema.parkapi.entity.Assinatura;
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.faturamento.FaturamentoMensal;
+import com.sistema.parkapi.service.AssinaturaService;
+import com.sistema.parkapi.web.dto.AssinaturaDto;
+import com.sistema.parkapi.web.dto.ExecucaoFaturamentoDto;
+import com.sistema.parkapi.web.dto.mapper.FaturamentoMapper;
+import com.sistema.parkapi.web.exception.ErrorMessage;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@Tag(name = "Faturamento", description = "Assinaturas mensais e faturamento dos assinantes")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1")
+public class FaturamentoController {
+
+    private final AssinaturaService assinaturaService;
+    private final FaturamentoMensal faturamentoMensal;
+
+    @Operation(summary = "Definir a assinatura de um cliente", description = "Recurso para criar ou substituir o plano mensal de um usuário; valores em reais", responses = {
+            @ApiResponse(responseCode = "200", description = "Assinatura gravada com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssinaturaDto.class))),
+            @ApiResponse(responseCode = "404", description = "Usuário não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "422", description = "Recursos não processados por dados de entrada inválidos",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/usuarios/{id}/assinatura")
+    public ResponseEntity<AssinaturaDto> definirAssinatura(@PathVariable Long id, @Valid @RequestBody AssinaturaDto dto) {
+        Assinatura assinatura = assinaturaService.salvar(FaturamentoMapper.toAssinatura(id, dto));
+        return ResponseEntity.ok(FaturamentoMapper.toDto(assinatura));
+    }
+
+    @Operation(summary = "Recuperar a assinatura de um cliente", description = "Recuperar o plano mensal de um usuário", responses = {
+            @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = AssinaturaDto.class))),
+            @ApiResponse(responseCode = "404", description = "Recurso não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/usuarios/{id}/assinatura")
+    public ResponseEntity<AssinaturaDto> getAssinatura(@PathVariable Long id) {
+        return ResponseEntity.ok(FaturamentoMapper.toDto(assinaturaService.buscarPorUsuario(id)));
+    }
+
+    @Operation(summary = "Faturar um mês", description = "Inicia em segundo plano o faturamento dos assinantes de um mês encerrado (yyyy-MM); com simulacao=true, só calcula os totais. Uma execução interrompida é retomada do último checkpoint", responses = {
+            @ApiResponse(responseCode = "202", description = "Faturamento iniciado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExecucaoFaturamentoDto.class))),
+            @ApiResponse(responseCode = "400", description = "Mês ainda não encerrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "409", description = "Faturamento em execução ou mês já faturado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/faturamentos/{competencia}")
+    public ResponseEntity<ExecucaoFaturamentoDto> faturar(@PathVariable YearMonth competencia,
+                                                          @RequestParam(defaultValue = "false") boolean simulacao) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(FaturamentoMapper.toDto(faturamentoMensal.iniciar(competencia, simulacao)));
+    }
+
+    @Operation(summary = "Acompanhar o faturamento", description = "Situação e progresso do faturamento em execução ou do último executado nesta instância", responses = {
+            @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ExecucaoFaturamentoDto.class))),
+            @ApiResponse(responseCode = "404", description = "Nenhum faturamento executado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/faturamentos/execucao")
+    public ResponseEntity<ExecucaoFaturamentoDto> getExecucao() {
+        return faturamentoMensal.getExecucao()
+                .map(execucao -> ResponseEntity.ok(FaturamentoMapper.toDto(execucao)))
+                .orElseThrow(() -> new EntityNotFoundException("Nenhum faturamento executado nesta instância"));
+    }
+}
@@ -0,0 +1,29 @@
+package com.sistema.parkapi.web.controller;
+
+import com.sistema.parkapi.jwt.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+
+    /**
+     * Publica as chaves públicas de verificação dos tokens (JWKS). Os consumidores devem manter o
+     * documento em cache e buscá-lo novamente ao encontrar um {@code kid} desconhecido. A validade do
+     * cache é a antecedência mínima com que uma chave nova é publicada.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(keyRing.getValidadeDoJwks()).cachePublic())
+                .body(keyRing.jwks());
+    }
+}
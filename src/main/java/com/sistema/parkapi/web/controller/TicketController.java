@@ -0,0 +1,71 @@
+package com.sistema.parkapi.web.controller;
+
+import com.sistema.parkapi.service.TicketService;
+import com.sistema.parkapi.web.dto.TicketEntradaDto;
+import com.sistema.parkapi.web.dto.TicketResponseDto;
+import com.sistema.parkapi.web.dto.mapper.TicketMapper;
+import com.sistema.parkapi.web.exception.ErrorMessage;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+@Tag(name = "Tickets", description = "Entradas e saídas de veículos registradas pelas cancelas")
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("api/v1/tickets")
+public class TicketController {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final TicketService ticketService;
+
+    @Operation(summary = "Registrar a entrada de um veículo", description = "Abre um ticket. Chamadas repetidas com o mesmo Idempotency-Key recebem o mesmo ticket", responses = {
+            @ApiResponse(responseCode = "201", description = "Entrada registrada",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TicketResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Idempotency-Key ausente ou inválido",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "404", description = "Estacionamento ou cliente não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "422", description = "Dados de entrada inválidos ou Idempotency-Key já usado com outros dados",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "503", description = "Registro de tickets sobrecarregado; repita com o mesmo Idempotency-Key",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/entradas")
+    public CompletableFuture<ResponseEntity<TicketResponseDto>> registrarEntrada(@RequestHeader(IDEMPOTENCY_KEY) String chave,
+                                                                                @Valid @RequestBody TicketEntradaDto dto) {
+        return ticketService.registrarEntrada(chave, dto.getEstacionamentoId(), dto.getPlaca(), dto.getUsuarioId())
+                .thenApply(ticket -> ResponseEntity.status(HttpStatus.CREATED).body(TicketMapper.toDto(ticket)));
+    }
+
+    @Operation(summary = "Registrar a saída de um veículo", description = "Encerra o ticket. Chamadas repetidas com o mesmo Idempotency-Key recebem o mesmo ticket", responses = {
+            @ApiResponse(responseCode = "200", description = "Saída registrada",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = TicketResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Idempotency-Key ausente ou inválido",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "404", description = "Ticket não encontrado ou já encerrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key já usado com outro ticket",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "503", description = "Registro de tickets sobrecarregado; repita com o mesmo Idempotency-Key",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/{codigo}/saida")
+    public CompletableFuture<ResponseEntity<TicketResponseDto>> registrarSaida(@RequestHeader(IDEMPOTENCY_KEY) String chave,
+                                                                              @PathVariable String codigo) {
+        return ticketService.registrarSaida(chave, codigo)
+                .thenApply(ticket -> ResponseEntity.ok(TicketMapper.toDto(ticket)));
+    }
+}
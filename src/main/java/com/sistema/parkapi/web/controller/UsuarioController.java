@@ -1,8 +1,18 @@
 package com.sistema.parkapi.web.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sistema.parkapi.web.dto.UsuarioImportacaoResponseDto;
+import com.sistema.parkapi.web.dto.UsuarioPageDto;
 import com.sistema.parkapi.web.dto.UsuarioSenhaDto;
+import com.sistema.parkapi.web.dto.mapper.CursorMapper;
 import com.sistema.parkapi.web.exception.ErrorMessage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +21,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jdk.jfr.ContentType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.projection.UsuarioResumo;
+import com.sistema.parkapi.service.UsuarioImportacaoReader;
+import com.sistema.parkapi.service.UsuarioImportacaoService;
 import com.sistema.parkapi.service.UsuarioService;
 import com.sistema.parkapi.web.dto.UsuarioCreateDto;
 import com.sistema.parkapi.web.dto.UsuarioResponseDto;
@@ -29,7 +46,11 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("api/v1/usuarios")
 public class UsuarioController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UsuarioService usuarioService;
+    private final UsuarioImportacaoService importacaoService;
+    private final ObjectMapper objectMapper;
 
     @Operation(summary = "Criar um novo usuário", description = "Recurso para criar um novo usuário", responses = {
             @ApiResponse(responseCode = "201", description = "Recurso criado sucesso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioResponseDto.class))),
@@ -42,6 +63,25 @@ public class UsuarioController {
         return ResponseEntity.status(HttpStatus.CREATED).body(UsuarioMapper.toDto(user));
     }
 
+    @Operation(summary = "Importar usuários em massa", description = "Recurso para criar usuários a partir de um array JSON ou de um CSV (username,password)", responses = {
+            @ApiResponse(responseCode = "200", description = "Importação processada; o status de cada linha está no relatório",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioImportacaoResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Arquivo malformado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+            @ApiResponse(responseCode = "403", description = "Recurso restrito a administradores",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/importacao", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<UsuarioImportacaoResponseDto> importar(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                 InputStream body) throws IOException {
+        try (UsuarioImportacaoReader reader = MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                ? UsuarioImportacaoReader.json(body, objectMapper)
+                : UsuarioImportacaoReader.csv(body)) {
+            return ResponseEntity.ok(importacaoService.importar(reader));
+        }
+    }
+
     @Operation(summary = "Recuperar um usuário pelo ID", description = "Recuperar um usuário pelo ID", responses = {
             @ApiResponse(responseCode = "200", description = "Recurso recuperado com sucesso",
                         content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioResponseDto.class))),
@@ -50,7 +90,7 @@ public class UsuarioController {
     })
     @GetMapping("/{id}")
     public ResponseEntity<UsuarioResponseDto> getById(@PathVariable Long id) {
-        Usuario user = usuarioService.buscaPorId(id);
+        UsuarioResumo user = usuarioService.buscarResumoPorId(id);
         return ResponseEntity.ok(UsuarioMapper.toDto(user));
     }
 
@@ -69,15 +109,37 @@ public class UsuarioController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Listar todos os usuários", description = "Listar todos os usuários", responses = {
+    @Operation(summary = "Listar usuários paginados", description = "Listar usuários ordenados por id, paginados por cursor", responses = {
             @ApiResponse(responseCode = "200", description = "Usuários localizados com sucesso",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioResponseDto.class))),
-            @ApiResponse(responseCode = "404", description = "Recursos não encontrados",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = UsuarioPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorMessage.class))),
     })
     @GetMapping
-    public ResponseEntity<List<UsuarioResponseDto>> getAll() {
-        List<Usuario> users = usuarioService.buscarTodos();
-        return ResponseEntity.ok(UsuarioMapper.toListDto(users));
+    public ResponseEntity<UsuarioPageDto> getAll(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "50") int size) {
+        int tamanho = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<UsuarioResumo> users = usuarioService.buscarPagina(CursorMapper.toId(cursor), tamanho + 1);
+        return ResponseEntity.ok(UsuarioMapper.toPageDto(users, tamanho));
+    }
+
+    @Operation(summary = "Exportar todos os usuários", description = "Transmitir todos os usuários em NDJSON, um por linha", responses = {
+            @ApiResponse(responseCode = "200", description = "Usuários transmitidos com sucesso",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = UsuarioResponseDto.class))),
+    })
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        ObjectWriter writer = objectMapper.writerFor(UsuarioResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> usuarioService.percorrerTodos(usuario -> {
+            try {
+                writer.writeValue(out, UsuarioMapper.toDto(usuario));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
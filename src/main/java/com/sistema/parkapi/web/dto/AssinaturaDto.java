@@ -0,0 +1,34 @@
+package com.sistema.parkapi.web.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class AssinaturaDto {
+
+	@NotBlank
+	@Size(max = 50)
+	private String plano;
+
+	@NotNull
+	@DecimalMin("0.00")
+	@Digits(integer = 10, fraction = 2)
+	private BigDecimal mensalidade;
+
+	private boolean ativa;
+
+}
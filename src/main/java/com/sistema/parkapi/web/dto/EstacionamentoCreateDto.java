@@ -0,0 +1,28 @@
+package com.sistema.parkapi.web.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class EstacionamentoCreateDto {
+
+	@NotBlank
+	@Size(max = 100)
+	private String nome;
+
+	@Min(1)
+	@Max(100_000)
+	private int totalVagas;
+
+}
@@ -0,0 +1,17 @@
+package com.sistema.parkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class EstacionamentoResponseDto {
+
+	private Long id;
+	private String nome;
+	private int totalVagas;
+	private int vagasLivres;
+
+}
@@ -0,0 +1,30 @@
+package com.sistema.parkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class ExecucaoFaturamentoDto {
+
+	private YearMonth competencia;
+	private boolean simulacao;
+	private String estado;
+	private long ticketsProcessados;
+	private double progresso;
+	private long faturas;
+	private long quantidadeTickets;
+	private BigDecimal valorTickets;
+	private BigDecimal valorMensalidades;
+	private BigDecimal valorTotal;
+	private LocalDateTime inicio;
+	private LocalDateTime fim;
+	private String erro;
+
+}
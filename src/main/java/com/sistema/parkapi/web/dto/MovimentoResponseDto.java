@@ -0,0 +1,21 @@
+package com.sistema.parkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class MovimentoResponseDto {
+
+	private LocalDateTime inicio;
+	private long entradas;
+	private long saidas;
+	private long picoOcupacao;
+	private BigDecimal receita;
+
+}
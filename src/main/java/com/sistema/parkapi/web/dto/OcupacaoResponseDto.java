@@ -0,0 +1,16 @@
+package com.sistema.parkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class OcupacaoResponseDto {
+
+	private Long estacionamentoId;
+	private int vagasLivres;
+	private int totalVagas;
+
+}
@@ -0,0 +1,15 @@
+package com.sistema.parkapi.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDto {
+
+    @NotBlank
+    private String refreshToken;
+
+}
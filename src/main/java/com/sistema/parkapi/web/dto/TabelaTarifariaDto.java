@@ -0,0 +1,79 @@
+package com.sistema.parkapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * Tabela tarifária de um estacionamento, com os valores em reais.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class TabelaTarifariaDto {
+
+	@Min(0)
+	@Max(1440)
+	private int toleranciaMinutos;
+
+	@NotNull
+	@DecimalMin("0.00")
+	@Digits(integer = 10, fraction = 2)
+	private BigDecimal valorPrimeiraHora;
+
+	@Min(1)
+	@Max(1440)
+	private int minutosFracao;
+
+	@NotNull
+	@DecimalMin("0.00")
+	@Digits(integer = 10, fraction = 2)
+	private BigDecimal valorFracao;
+
+	@NotNull
+	@DecimalMin("0.00")
+	@Digits(integer = 10, fraction = 2)
+	private BigDecimal valorFracaoNoturna;
+
+	@NotNull
+	private LocalTime inicioNoturno;
+
+	@NotNull
+	private LocalTime fimNoturno;
+
+	/**
+	 * Teto por período de 24 horas; zero = sem teto.
+	 */
+	@NotNull
+	@DecimalMin("0.00")
+	@Digits(integer = 10, fraction = 2)
+	private BigDecimal tetoDiario;
+
+	@Min(0)
+	@Max(100)
+	private int descontoCliente;
+
+	@Min(0)
+	@Max(100)
+	private int descontoAdmin;
+
+	@JsonIgnore
+	@AssertTrue(message = "minutosFracao deve dividir o dia (1440 minutos)")
+	public boolean isFracaoDivideODia() {
+		return minutosFracao <= 0 || 1440 % minutosFracao == 0;
+	}
+}
@@ -0,0 +1,28 @@
+package com.sistema.parkapi.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class TicketEntradaDto {
+
+	@NotNull
+	private Long estacionamentoId;
+
+	@NotBlank
+	@Size(max = 10)
+	private String placa;
+
+	private Long usuarioId;
+
+}
@@ -0,0 +1,23 @@
+package com.sistema.parkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class TicketResponseDto {
+
+	private String codigo;
+	private Long estacionamentoId;
+	private String placa;
+	private Long usuarioId;
+	private LocalDateTime dataEntrada;
+	private LocalDateTime dataSaida;
+	private BigDecimal valor;
+
+}
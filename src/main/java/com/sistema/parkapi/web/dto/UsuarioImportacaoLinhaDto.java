@@ -0,0 +1,24 @@
+package com.sistema.parkapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UsuarioImportacaoLinhaDto {
+
+	public enum Status {
+		CRIADO, DUPLICADO, INVALIDO, ERRO
+	}
+
+	private int linha;
+	private String username;
+	private Status status;
+	private Long id;
+	private String mensagem;
+
+}
@@ -0,0 +1,19 @@
+package com.sistema.parkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class UsuarioImportacaoResponseDto {
+
+	private int total;
+	private int criados;
+	private int rejeitados;
+	private List<UsuarioImportacaoLinhaDto> linhas;
+
+}
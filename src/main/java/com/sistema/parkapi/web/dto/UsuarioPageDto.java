@@ -0,0 +1,19 @@
+package com.sistema.parkapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class UsuarioPageDto {
+
+	private List<UsuarioResponseDto> content;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
+
+}
@@ -0,0 +1,18 @@
+package com.sistema.parkapi.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @ToString
+public class VagaResponseDto {
+
+	private Long estacionamentoId;
+	private int numero;
+	private LocalDateTime dataOcupacao;
+
+}
@@ -0,0 +1,46 @@
+package com.sistema.parkapi.web.dto.mapper;
+
+import com.sistema.parkapi.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * A classe {@code CursorMapper} converte o último id de uma página em um cursor opaco e vice-versa.
+ * <p>
+ * O cursor é o id codificado em Base64 URL-safe, usado na paginação por keyset das listagens.
+ * </p>
+ */
+public class CursorMapper {
+
+	private CursorMapper() {
+	}
+
+	/**
+	 * Codifica o id informado como cursor.
+	 *
+	 * @param id o último id da página atual
+	 * @return o cursor para a próxima página
+	 */
+	public static String toCursor(Long id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.US_ASCII));
+	}
+
+	/**
+	 * Decodifica um cursor recebido do cliente.
+	 *
+	 * @param cursor o cursor recebido, ou {@code null} para a primeira página
+	 * @return o id a partir do qual a página começa, ou {@code null} para a primeira página
+	 * @throws InvalidCursorException se o cursor não for válido
+	 */
+	public static Long toId(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+		} catch (IllegalArgumentException ex) {
+			throw new InvalidCursorException(String.format("Cursor {%s} inválido", cursor));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.sistema.parkapi.web.dto.mapper;
+
+import com.sistema.parkapi.entity.Estacionamento;
+import com.sistema.parkapi.entity.Vaga;
+import com.sistema.parkapi.repository.projection.MovimentoPeriodo;
+import com.sistema.parkapi.service.OcupacaoEstacionamento;
+import com.sistema.parkapi.web.dto.EstacionamentoCreateDto;
+import com.sistema.parkapi.web.dto.EstacionamentoResponseDto;
+import com.sistema.parkapi.web.dto.MovimentoResponseDto;
+import com.sistema.parkapi.web.dto.OcupacaoResponseDto;
+import com.sistema.parkapi.web.dto.VagaResponseDto;
+
+/**
+ * Conversões entre as entidades {@code Estacionamento} e {@code Vaga}, a ocupação publicada em tempo real,
+ * o movimento dos painéis e seus DTOs, campo a campo.
+ */
+public class EstacionamentoMapper {
+
+	public static Estacionamento toEstacionamento(EstacionamentoCreateDto createDto) {
+		Estacionamento estacionamento = new Estacionamento();
+		estacionamento.setNome(createDto.getNome());
+		estacionamento.setTotalVagas(createDto.getTotalVagas());
+		return estacionamento;
+	}
+
+	public static EstacionamentoResponseDto toDto(Estacionamento estacionamento, int vagasLivres) {
+		return new EstacionamentoResponseDto(estacionamento.getId(), estacionamento.getNome(),
+				estacionamento.getTotalVagas(), vagasLivres);
+	}
+
+	public static VagaResponseDto toDto(Vaga vaga) {
+		return new VagaResponseDto(vaga.getEstacionamentoId(), vaga.getNumero(), vaga.getDataOcupacao());
+	}
+
+	public static OcupacaoResponseDto toDto(OcupacaoEstacionamento ocupacao) {
+		return new OcupacaoResponseDto(ocupacao.estacionamentoId(), ocupacao.vagasLivres(), ocupacao.totalVagas());
+	}
+
+	public static MovimentoResponseDto toDto(MovimentoPeriodo movimento) {
+		return new MovimentoResponseDto(movimento.inicio(), movimento.entradas(), movimento.saidas(),
+				movimento.picoOcupacao(), TabelaTarifariaMapper.toReais(movimento.receita()));
+	}
+}
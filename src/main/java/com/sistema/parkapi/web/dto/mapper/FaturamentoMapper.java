@@ -0,0 +1,36 @@
+package com.sistema.parkapi.web.dto.mapper;
+
+import com.sistema.parkapi.entity.Assinatura;
+import com.sistema.parkapi.faturamento.ExecucaoFaturamento;
+import com.sistema.parkapi.web.dto.AssinaturaDto;
+import com.sistema.parkapi.web.dto.ExecucaoFaturamentoDto;
+
+/**
+ * Conversões entre a entidade {@code Assinatura}, a situação do faturamento mensal e seus DTOs, com os
+ * valores em reais.
+ */
+public class FaturamentoMapper {
+
+	public static Assinatura toAssinatura(Long usuarioId, AssinaturaDto dto) {
+		Assinatura assinatura = new Assinatura();
+		assinatura.setUsuarioId(usuarioId);
+		assinatura.setPlano(dto.getPlano());
+		assinatura.setMensalidade(TabelaTarifariaMapper.toCentavos(dto.getMensalidade()));
+		assinatura.setAtiva(dto.isAtiva());
+		return assinatura;
+	}
+
+	public static AssinaturaDto toDto(Assinatura assinatura) {
+		return new AssinaturaDto(assinatura.getPlano(), TabelaTarifariaMapper.toReais(assinatura.getMensalidade()),
+				assinatura.isAtiva());
+	}
+
+	public static ExecucaoFaturamentoDto toDto(ExecucaoFaturamento execucao) {
+		return new ExecucaoFaturamentoDto(execucao.competencia(), execucao.simulacao(), execucao.estado().name(),
+				execucao.ticketsProcessados(), execucao.progresso(), execucao.faturas(), execucao.quantidadeTickets(),
+				TabelaTarifariaMapper.toReais(execucao.valorTickets()),
+				TabelaTarifariaMapper.toReais(execucao.valorMensalidades()),
+				TabelaTarifariaMapper.toReais(execucao.valorTickets() + execucao.valorMensalidades()),
+				execucao.inicio(), execucao.fim(), execucao.erro());
+	}
+}
@@ -0,0 +1,43 @@
+package com.sistema.parkapi.web.dto.mapper;
+
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import com.sistema.parkapi.web.dto.TabelaTarifariaDto;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversões entre a entidade {@code TabelaTarifaria}, com valores em centavos, e seu DTO, em reais.
+ */
+public class TabelaTarifariaMapper {
+
+	public static TabelaTarifaria toTabelaTarifaria(Long estacionamentoId, TabelaTarifariaDto dto) {
+		TabelaTarifaria tabela = new TabelaTarifaria();
+		tabela.setEstacionamentoId(estacionamentoId);
+		tabela.setToleranciaMinutos(dto.getToleranciaMinutos());
+		tabela.setValorPrimeiraHora(toCentavos(dto.getValorPrimeiraHora()));
+		tabela.setMinutosFracao(dto.getMinutosFracao());
+		tabela.setValorFracao(toCentavos(dto.getValorFracao()));
+		tabela.setValorFracaoNoturna(toCentavos(dto.getValorFracaoNoturna()));
+		tabela.setInicioNoturno(dto.getInicioNoturno());
+		tabela.setFimNoturno(dto.getFimNoturno());
+		tabela.setTetoDiario(toCentavos(dto.getTetoDiario()));
+		tabela.setDescontoCliente(dto.getDescontoCliente());
+		tabela.setDescontoAdmin(dto.getDescontoAdmin());
+		return tabela;
+	}
+
+	public static TabelaTarifariaDto toDto(TabelaTarifaria tabela) {
+		return new TabelaTarifariaDto(tabela.getToleranciaMinutos(), toReais(tabela.getValorPrimeiraHora()),
+				tabela.getMinutosFracao(), toReais(tabela.getValorFracao()), toReais(tabela.getValorFracaoNoturna()),
+				tabela.getInicioNoturno(), tabela.getFimNoturno(), toReais(tabela.getTetoDiario()),
+				tabela.getDescontoCliente(), tabela.getDescontoAdmin());
+	}
+
+	public static long toCentavos(BigDecimal reais) {
+		return reais.movePointRight(2).longValueExact();
+	}
+
+	public static BigDecimal toReais(long centavos) {
+		return BigDecimal.valueOf(centavos, 2);
+	}
+}
@@ -0,0 +1,16 @@
+package com.sistema.parkapi.web.dto.mapper;
+
+import com.sistema.parkapi.entity.Ticket;
+import com.sistema.parkapi.web.dto.TicketResponseDto;
+
+/**
+ * Conversão da entidade {@code Ticket} para seu DTO, campo a campo.
+ */
+public class TicketMapper {
+
+	public static TicketResponseDto toDto(Ticket ticket) {
+		return new TicketResponseDto(ticket.getCodigo(), ticket.getEstacionamentoId(), ticket.getPlaca(),
+				ticket.getUsuarioId(), ticket.getDataEntrada(), ticket.getDataSaida(),
+				ticket.getValor() == null ? null : TabelaTarifariaMapper.toReais(ticket.getValor()));
+	}
+}
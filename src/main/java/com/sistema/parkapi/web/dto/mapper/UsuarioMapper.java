@@ -1,14 +1,17 @@
 package com.sistema.parkapi.web.dto.mapper;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.PropertyMap;
-
 import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.projection.UsuarioResumo;
 import com.sistema.parkapi.web.dto.UsuarioCreateDto;
+import com.sistema.parkapi.web.dto.UsuarioPageDto;
 import com.sistema.parkapi.web.dto.UsuarioResponseDto;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * A classe {@code UsuarioMapper} fornece métodos estáticos para mapear entre objetos relacionados com usuário
@@ -16,12 +19,36 @@ import java.util.stream.Collectors;
  * <p>
  * Esta classe facilita a conversão entre a entidade {@code Usuario} e seus respectivos objetos de transferência de dados,
  * simplificando as operações de transformação de dados entre as camadas de serviço e apresentação.
+ * O mapeamento é feito campo a campo, sem reflexão, e os nomes das roles sem o prefixo "ROLE_" são
+ * calculados uma única vez.
+ * </p>
+ * <p>
+ * As conversões de listas e páginas são medidas no timer {@code usuario.mapper} (tag {@code operacao}).
  * </p>
  *
  * @author Pierri Alexander Vidmar
  */
 public class UsuarioMapper {
 
+	/**
+	 * Nome de cada role sem o prefixo "ROLE_", como exposto nos DTOs.
+	 */
+	private static final Map<Usuario.Role, String> ROLES = new EnumMap<>(Usuario.Role.class);
+
+	private static final Timer CONVERSAO_LISTA = Timer.builder("usuario.mapper")
+			.tag("operacao", "lista")
+			.register(Metrics.globalRegistry);
+
+	private static final Timer CONVERSAO_PAGINA = Timer.builder("usuario.mapper")
+			.tag("operacao", "pagina")
+			.register(Metrics.globalRegistry);
+
+	static {
+		for (Usuario.Role role : Usuario.Role.values()) {
+			ROLES.put(role, role.name().substring("ROLE_".length()));
+		}
+	}
+
 	/**
 	 * Converte um objeto {@code UsuarioCreateDto} em um objeto {@code Usuario}.
 	 *
@@ -29,7 +56,10 @@ public class UsuarioMapper {
 	 * @return um novo objeto {@code Usuario} convertido a partir do {@code UsuarioCreateDto} fornecido
 	 */
 	public static Usuario toUsuario(UsuarioCreateDto createDto) {
-		return new ModelMapper().map(createDto, Usuario.class);
+		Usuario usuario = new Usuario();
+		usuario.setUsername(createDto.getUsername());
+		usuario.setPassword(createDto.getPassword());
+		return usuario;
 	}
 
 	/**
@@ -39,26 +69,51 @@ public class UsuarioMapper {
 	 * @return um novo objeto {@code UsuarioResponseDto} contendo os dados mapeados do {@code Usuario} fornecido
 	 */
 	public static UsuarioResponseDto toDto(Usuario usuario) {
-		// Extrai o papel (role) do usuário e remove o prefixo "ROLE_"
-		String role = usuario.getRole().name().substring("ROLE_".length());
-
-		// Configuração personalizada para mapear a propriedade role
-		PropertyMap<Usuario, UsuarioResponseDto> props = new PropertyMap<Usuario,UsuarioResponseDto>() {
-			@Override
-			protected void configure() {
-				map().setRole(role);
-			}
-		};
-
-		// Cria um novo ModelMapper e adiciona as configurações personalizadas
-		ModelMapper mapper = new ModelMapper();
-		mapper.addMappings(props); 
+		return new UsuarioResponseDto(usuario.getId(), usuario.getUsername(), ROLES.get(usuario.getRole()));
+	}
 
-		// Retorna o objeto UsuarioResponseDto mapeado
-		return mapper.map(usuario, UsuarioResponseDto.class);
+	/**
+	 * Converte uma projeção {@code UsuarioResumo} em um objeto {@code UsuarioResponseDto}.
+	 *
+	 * @param resumo a projeção a ser convertida
+	 * @return um novo objeto {@code UsuarioResponseDto} contendo os dados da projeção
+	 */
+	public static UsuarioResponseDto toDto(UsuarioResumo resumo) {
+		return new UsuarioResponseDto(resumo.id(), resumo.username(), ROLES.get(resumo.role()));
 	}
 
 	public static List<UsuarioResponseDto> toListDto(List<Usuario> usuarios) {
-		return usuarios.stream().map(user -> toDto(user)).collect(Collectors.toList());
+		return CONVERSAO_LISTA.record(() -> {
+			List<UsuarioResponseDto> dtos = new ArrayList<>(usuarios.size());
+			for (Usuario usuario : usuarios) {
+				dtos.add(toDto(usuario));
+			}
+			return dtos;
+		});
+	}
+
+	/**
+	 * Converte uma página de usuários obtida por keyset em um {@code UsuarioPageDto}.
+	 * <p>
+	 * A página deve ter sido buscada com um registro além do tamanho solicitado: se esse registro
+	 * existir, ele é descartado e o cursor da próxima página é preenchido.
+	 * </p>
+	 *
+	 * @param usuarios os usuários buscados, com no máximo {@code tamanho + 1} elementos
+	 * @param tamanho o tamanho da página solicitada
+	 * @return a página convertida, com {@code nextCursor} nulo quando não há próxima página
+	 */
+	public static UsuarioPageDto toPageDto(List<UsuarioResumo> usuarios, int tamanho) {
+		Timer.Sample sample = Timer.start();
+		boolean temProxima = usuarios.size() > tamanho;
+		int quantidade = temProxima ? tamanho : usuarios.size();
+		List<UsuarioResponseDto> content = new ArrayList<>(quantidade);
+		for (int i = 0; i < quantidade; i++) {
+			content.add(toDto(usuarios.get(i)));
+		}
+		String nextCursor = temProxima ? CursorMapper.toCursor(usuarios.get(tamanho - 1).id()) : null;
+		UsuarioPageDto page = new UsuarioPageDto(content, nextCursor);
+		sample.stop(CONVERSAO_PAGINA);
+		return page;
 	}
 }
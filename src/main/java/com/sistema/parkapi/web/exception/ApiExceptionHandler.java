@@ -1,10 +1,24 @@
 package com.sistema.parkapi.web.exception;
 
+import com.sistema.parkapi.exception.CapacityExceededException;
 import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.exception.EstacionamentoLotadoException;
+import com.sistema.parkapi.exception.EstacionamentoNomeUniqueViolationException;
+import com.sistema.parkapi.exception.FaturamentoIndisponivelException;
+import com.sistema.parkapi.exception.IdempotencyKeyMismatchException;
+import com.sistema.parkapi.exception.InvalidCursorException;
+import com.sistema.parkapi.exception.InvalidIdempotencyKeyException;
+import com.sistema.parkapi.exception.InvalidImportFileException;
+import com.sistema.parkapi.exception.InvalidPeriodException;
+import com.sistema.parkapi.exception.InvalidRefreshTokenException;
+import com.sistema.parkapi.exception.LoginThrottledException;
 import com.sistema.parkapi.exception.UserNameUniqueViolationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.coyote.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -13,32 +27,78 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tratamento centralizado das exceções da API.
+ * <p>
+ * As exceções de negócio são esperadas e não capturam stack trace. O log de cada tipo de exceção é
+ * limitado a uma linha por intervalo ({@code park.api-errors.log-interval}), com a contagem das
+ * ocorrências suprimidas; todas as ocorrências são contadas em {@code api.errors}. Os erros com mensagem
+ * simples são serializados por {@link ErrorBody}, que reaproveita as partes constantes do JSON.
+ */
 @Slf4j
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+    private final ErrorLogLimiter logLimiter;
+    private final Map<Class<?>, Counter> contadores = new ConcurrentHashMap<>();
+
+    public ApiExceptionHandler(MeterRegistry meterRegistry,
+                               @Value("${park.api-errors.log-interval:10s}") Duration logInterval) {
+        this.meterRegistry = meterRegistry;
+        this.logLimiter = new ErrorLogLimiter(logInterval);
+    }
+
+    /**
+     * Conta a resposta de erro no contador {@code api.errors}, por status e tipo de exceção, e registra
+     * a ocorrência no log se o limite do tipo permitir.
+     * As tags vêm de conjuntos fechados (os status e exceções tratados aqui), mantendo a cardinalidade limitada.
+     */
+    private void registrar(HttpStatus status, Exception ex) {
+        contadores.computeIfAbsent(ex.getClass(), tipo -> Counter.builder("api.errors")
+                        .tag("status", String.valueOf(status.value()))
+                        .tag("exception", tipo.getSimpleName())
+                        .register(meterRegistry))
+                .increment();
+
+        long suprimidas = logLimiter.permitir(ex.getClass());
+        if (suprimidas < 0) {
+            return;
+        }
+        if (status.is5xxServerError()) {
+            log.error("Api Error - {} ({} ocorrências semelhantes suprimidas)", status.value(), suprimidas, ex);
+        } else {
+            log.warn("Api Error - {} ({} ocorrências semelhantes suprimidas)", status.value(), suprimidas, ex);
+        }
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
-    public ResponseEntity<ErrorMessage> entityNotFoundException(
+    public ResponseEntity<byte[]> entityNotFoundException(
             RuntimeException ex,
             HttpServletRequest request
     ) {
-        log.error("Api Error - ", ex);
+        registrar(HttpStatus.NOT_FOUND, ex);
         return ResponseEntity
                 .status(HttpStatus.NOT_FOUND)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(new ErrorMessage(request, HttpStatus.NOT_FOUND, ex.getMessage()));
+                .body(ErrorBody.of(request, HttpStatus.NOT_FOUND, ex.getMessage()));
     }
 
-    @ExceptionHandler(UserNameUniqueViolationException.class)
-    public ResponseEntity<ErrorMessage> MethodArgumentNotValidException(
+    @ExceptionHandler({UserNameUniqueViolationException.class, EstacionamentoNomeUniqueViolationException.class,
+            EstacionamentoLotadoException.class, FaturamentoIndisponivelException.class})
+    public ResponseEntity<byte[]> MethodArgumentNotValidException(
             RuntimeException ex,
             HttpServletRequest request
             ) {
-        log.error("Api Error - ", ex);
+        registrar(HttpStatus.CONFLICT, ex);
         return ResponseEntity
                 .status(HttpStatus.CONFLICT)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(new ErrorMessage(request, HttpStatus.CONFLICT, ex.getMessage()));
+                .body(ErrorBody.of(request, HttpStatus.CONFLICT, ex.getMessage()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -47,10 +107,61 @@ public class ApiExceptionHandler {
             HttpServletRequest request,
             BindingResult result
     ) {
-        log.error("Api Error - ", ex);
+        registrar(HttpStatus.UNPROCESSABLE_ENTITY, ex);
         return ResponseEntity
                 .status(HttpStatus.UNPROCESSABLE_ENTITY)
                 .contentType(MediaType.APPLICATION_JSON)
                 .body(new ErrorMessage(request, HttpStatus.UNPROCESSABLE_ENTITY, "Campo(s) inválido(s)", result));
     }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<byte[]> idempotencyKeyMismatchException(
+            RuntimeException ex,
+            HttpServletRequest request
+    ) {
+        registrar(HttpStatus.UNPROCESSABLE_ENTITY, ex);
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(request, HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage()));
+    }
+
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<byte[]> capacityExceededException(
+            RuntimeException ex,
+            HttpServletRequest request
+    ) {
+        registrar(HttpStatus.SERVICE_UNAVAILABLE, ex);
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(request, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<byte[]> loginThrottledException(
+            LoginThrottledException ex,
+            HttpServletRequest request
+    ) {
+        registrar(HttpStatus.TOO_MANY_REQUESTS, ex);
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(request, HttpStatus.TOO_MANY_REQUESTS, ex.getMessage()));
+    }
+
+    @ExceptionHandler({InvalidCursorException.class, InvalidImportFileException.class, InvalidRefreshTokenException.class,
+            InvalidIdempotencyKeyException.class, InvalidPeriodException.class})
+    public ResponseEntity<byte[]> badRequestException(
+            RuntimeException ex,
+            HttpServletRequest request
+    ) {
+        registrar(HttpStatus.BAD_REQUEST, ex);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ErrorBody.of(request, HttpStatus.BAD_REQUEST, ex.getMessage()));
+    }
 }
@@ -0,0 +1,80 @@
+package com.sistema.parkapi.web.exception;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Corpo JSON das respostas de erro com mensagem simples, no mesmo formato de {@link ErrorMessage} sem
+ * {@code errors}.
+ * <p>
+ * As partes constantes ({@code "status":404,"statusText":"Not Found"} e a pontuação entre os campos) são
+ * serializadas uma vez por status; por requisição são escapados apenas o caminho, o método e a
+ * mensagem, copiados para um único array do tamanho exato, sem passar pelo {@code ObjectMapper}.
+ */
+final class ErrorBody {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+    private static final byte[] INICIO = bytes("{\"path\":\"");
+    private static final byte[] METODO = bytes("\",\"method\":\"");
+    private static final byte[] NULO = bytes("null");
+    private static final byte[] ASPAS = bytes("\"");
+    private static final byte[] FIM = bytes("}");
+    private static final Map<HttpStatus, byte[]> STATUS = new EnumMap<>(HttpStatus.class);
+
+    static {
+        for (HttpStatus status : HttpStatus.values()) {
+            STATUS.put(status, bytes(String.format("\",\"status\":%d,\"statusText\":\"%s\",\"message\":",
+                    status.value(), new String(ENCODER.quoteAsString(status.getReasonPhrase())))));
+        }
+    }
+
+    private ErrorBody() {
+    }
+
+    /**
+     * Serializa o erro da requisição.
+     *
+     * @param request requisição que falhou.
+     * @param status  status da resposta.
+     * @param message mensagem do erro; pode ser nula.
+     * @return o JSON em UTF-8.
+     */
+    static byte[] of(HttpServletRequest request, HttpStatus status, String message) {
+        byte[] path = ENCODER.quoteAsUTF8(request.getRequestURI());
+        byte[] method = ENCODER.quoteAsUTF8(request.getMethod());
+        byte[] meio = STATUS.get(status);
+        byte[] mensagem = message == null ? NULO : ENCODER.quoteAsUTF8(message);
+        int aspas = message == null ? 0 : 2 * ASPAS.length;
+
+        byte[] json = new byte[INICIO.length + path.length + METODO.length + method.length + meio.length
+                + aspas + mensagem.length + FIM.length];
+        int posicao = copiar(INICIO, json, 0);
+        posicao = copiar(path, json, posicao);
+        posicao = copiar(METODO, json, posicao);
+        posicao = copiar(method, json, posicao);
+        posicao = copiar(meio, json, posicao);
+        if (message != null) {
+            posicao = copiar(ASPAS, json, posicao);
+        }
+        posicao = copiar(mensagem, json, posicao);
+        if (message != null) {
+            posicao = copiar(ASPAS, json, posicao);
+        }
+        copiar(FIM, json, posicao);
+        return json;
+    }
+
+    private static int copiar(byte[] origem, byte[] destino, int posicao) {
+        System.arraycopy(origem, 0, destino, posicao, origem.length);
+        return posicao + origem.length;
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
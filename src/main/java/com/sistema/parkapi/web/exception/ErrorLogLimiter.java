@@ -0,0 +1,51 @@
+package com.sistema.parkapi.web.exception;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita o registro em log das respostas de erro a uma ocorrência por tipo de exceção a cada intervalo.
+ * <p>
+ * As ocorrências suprimidas são contadas e informadas no registro seguinte do mesmo tipo, de modo que
+ * uma rajada de erros (por exemplo, um scanner buscando ids inexistentes) gera uma linha por intervalo
+ * em vez de uma linha, ou um stack trace, por requisição.
+ */
+final class ErrorLogLimiter {
+
+    private final long intervalo;
+    private final ConcurrentHashMap<Class<?>, Janela> janelas = new ConcurrentHashMap<>();
+
+    ErrorLogLimiter(Duration intervalo) {
+        this.intervalo = intervalo.toNanos();
+    }
+
+    /**
+     * Indica se a ocorrência deve ser registrada.
+     *
+     * @param tipo tipo da exceção.
+     * @return a quantidade de ocorrências suprimidas desde o último registro, ou {@code -1} se esta
+     * ocorrência também deve ser suprimida.
+     */
+    long permitir(Class<?> tipo) {
+        Janela janela = janelas.computeIfAbsent(tipo, t -> new Janela(System.nanoTime() - intervalo));
+        long agora = System.nanoTime();
+        long ultimo = janela.ultimoRegistro.get();
+        if (agora - ultimo >= intervalo && janela.ultimoRegistro.compareAndSet(ultimo, agora)) {
+            return janela.suprimidas.sumThenReset();
+        }
+        janela.suprimidas.increment();
+        return -1;
+    }
+
+    private static final class Janela {
+
+        private final AtomicLong ultimoRegistro;
+        private final LongAdder suprimidas = new LongAdder();
+
+        private Janela(long ultimoRegistro) {
+            this.ultimoRegistro = new AtomicLong(ultimoRegistro);
+        }
+    }
+}
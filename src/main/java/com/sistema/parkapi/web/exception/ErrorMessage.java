@@ -4,12 +4,12 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.Getter;
 import lombok.ToString;
-import org.modelmapper.internal.bytebuddy.implementation.bind.MethodDelegationBinder;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Getter
@@ -45,8 +45,10 @@ public class ErrorMessage {
     }
 
     private void addErrors(BindingResult result) {
-        this.errors = new HashMap<>();
-        for(FieldError fieldError : result.getFieldErrors()) {
+        List<FieldError> fieldErrors = result.getFieldErrors();
+        // Dimensionado para os erros existentes, sem redimensionamento durante o preenchimento
+        this.errors = new HashMap<>((int) (fieldErrors.size() / 0.75f) + 1);
+        for (FieldError fieldError : fieldErrors) {
             this.errors.put(fieldError.getField(), fieldError.getDefaultMessage());
         }
     }
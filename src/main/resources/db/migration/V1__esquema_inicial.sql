@@ -0,0 +1,60 @@
+-- Esquema inicial, equivalente ao que era gerado pelo Hibernate (ddl-auto=update).
+-- Idempotente: bases já existentes recebem o baseline na versão 0 e passam por esta migração sem alterações.
+
+CREATE SEQUENCE IF NOT EXISTS usuarios_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id               bigint       NOT NULL PRIMARY KEY,
+    username         varchar(100) NOT NULL,
+    password         varchar(200) NOT NULL,
+    role             varchar(25)  NOT NULL,
+    data_criacao     timestamp(6),
+    data_modificacao timestamp(6),
+    criado_por       varchar(255),
+    modificado_por   varchar(255)
+);
+
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id             bigint       NOT NULL PRIMARY KEY,
+    token_hash     varchar(43)  NOT NULL,
+    familia        varchar(36)  NOT NULL,
+    id_usuario     bigint       NOT NULL,
+    data_criacao   timestamp(6) NOT NULL,
+    data_expiracao timestamp(6) NOT NULL,
+    data_revogacao timestamp(6)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_familia ON refresh_tokens (familia);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_id_usuario ON refresh_tokens (id_usuario);
+
+CREATE TABLE IF NOT EXISTS jwt_chaves (
+    kid           varchar(36)  NOT NULL PRIMARY KEY,
+    algoritmo     varchar(10)  NOT NULL,
+    geracao       bigint       NOT NULL,
+    chave_publica varchar(512) NOT NULL,
+    chave_privada varchar(512) NOT NULL,
+    data_criacao  timestamp(6) NOT NULL,
+    data_ativacao timestamp(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_jwt_chaves_algoritmo_geracao ON jwt_chaves (algoritmo, geracao);
+
+-- Particionada por mês; as partições mensais são mantidas pela aplicação (AuditoriaSchema)
+CREATE TABLE IF NOT EXISTS auditoria_eventos (
+    tipo        varchar(30) NOT NULL,
+    username    varchar(100),
+    autor       varchar(100),
+    ip          varchar(45),
+    detalhe     varchar(255),
+    data_evento timestamp   NOT NULL
+) PARTITION BY RANGE (data_evento);
+
+CREATE TABLE IF NOT EXISTS auditoria_eventos_default PARTITION OF auditoria_eventos DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_auditoria_eventos_username ON auditoria_eventos (username, data_evento);
+
+-- Sequences recriadas sobre dados existentes continuam após o maior id
+SELECT setval('usuarios_seq', (SELECT max(id) FROM usuarios)) WHERE EXISTS (SELECT 1 FROM usuarios);
+SELECT setval('refresh_tokens_seq', (SELECT max(id) FROM refresh_tokens)) WHERE EXISTS (SELECT 1 FROM refresh_tokens);
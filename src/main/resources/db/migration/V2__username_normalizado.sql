@@ -0,0 +1,10 @@
+-- Username normalizado (minúsculas) para buscas por igualdade no índice único.
+-- O INCLUDE (role) permite responder a busca da role só pelo índice (index-only scan).
+
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS username_normalizado varchar(100);
+
+UPDATE usuarios SET username_normalizado = lower(username) WHERE username_normalizado IS NULL;
+
+ALTER TABLE usuarios ALTER COLUMN username_normalizado SET NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_usuarios_username_normalizado ON usuarios (username_normalizado) INCLUDE (role);
@@ -0,0 +1,28 @@
+-- Estacionamentos e vagas. A vaga está ocupada enquanto id_usuario estiver preenchido.
+
+CREATE SEQUENCE IF NOT EXISTS estacionamentos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS estacionamentos (
+    id               bigint       NOT NULL PRIMARY KEY,
+    nome             varchar(100) NOT NULL,
+    total_vagas      integer      NOT NULL,
+    data_criacao     timestamp(6),
+    data_modificacao timestamp(6),
+    criado_por       varchar(255),
+    modificado_por   varchar(255)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_estacionamentos_nome ON estacionamentos (nome);
+
+CREATE SEQUENCE IF NOT EXISTS vagas_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS vagas (
+    id                bigint       NOT NULL PRIMARY KEY,
+    id_estacionamento bigint       NOT NULL REFERENCES estacionamentos (id),
+    numero            integer      NOT NULL,
+    id_usuario        bigint       REFERENCES usuarios (id),
+    data_ocupacao     timestamp(6),
+    CONSTRAINT uk_vagas_estacionamento_numero UNIQUE (id_estacionamento, numero)
+);
+
+CREATE INDEX IF NOT EXISTS idx_vagas_id_usuario ON vagas (id_usuario);
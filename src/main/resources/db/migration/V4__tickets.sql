@@ -0,0 +1,26 @@
+-- Tickets de entrada e saída de veículos, gravados em lote a partir do diário local de cada instância.
+
+CREATE SEQUENCE IF NOT EXISTS tickets_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS tickets (
+    id                bigint       NOT NULL PRIMARY KEY,
+    codigo            varchar(36)  NOT NULL,
+    id_estacionamento bigint       NOT NULL REFERENCES estacionamentos (id),
+    placa             varchar(10)  NOT NULL,
+    id_usuario        bigint       REFERENCES usuarios (id),
+    data_entrada      timestamp(6) NOT NULL,
+    data_saida        timestamp(6),
+    chave_entrada     varchar(64)  NOT NULL,
+    chave_saida       varchar(64)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_tickets_codigo ON tickets (codigo);
+
+-- Reconstrução dos tickets abertos e da deduplicação na subida
+CREATE INDEX IF NOT EXISTS idx_tickets_data_entrada ON tickets (data_entrada);
+CREATE INDEX IF NOT EXISTS idx_tickets_data_saida ON tickets (data_saida);
+
+CREATE TABLE IF NOT EXISTS ticket_journal_checkpoints (
+    instancia varchar(100) NOT NULL PRIMARY KEY,
+    sequencia bigint       NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Tabela tarifária de cada estacionamento e valor cobrado na saída dos tickets. Valores em centavos.
+
+CREATE TABLE IF NOT EXISTS tabelas_tarifarias (
+    id_estacionamento    bigint  NOT NULL PRIMARY KEY REFERENCES estacionamentos (id),
+    tolerancia_minutos   integer NOT NULL,
+    valor_primeira_hora  bigint  NOT NULL,
+    minutos_fracao       integer NOT NULL,
+    valor_fracao         bigint  NOT NULL,
+    valor_fracao_noturna bigint  NOT NULL,
+    inicio_noturno       time    NOT NULL,
+    fim_noturno          time    NOT NULL,
+    teto_diario          bigint  NOT NULL,
+    desconto_cliente     integer NOT NULL,
+    desconto_admin       integer NOT NULL
+);
+
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS valor bigint;
@@ -0,0 +1,16 @@
+-- Movimento por estacionamento e hora local, mantido incrementalmente a partir dos tickets. Receita em centavos.
+
+CREATE SEQUENCE IF NOT EXISTS movimentos_horarios_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS movimentos_horarios (
+    id                bigint       NOT NULL PRIMARY KEY,
+    id_estacionamento bigint       NOT NULL REFERENCES estacionamentos (id),
+    hora              timestamp(6) NOT NULL,
+    entradas          bigint       NOT NULL,
+    saidas            bigint       NOT NULL,
+    pico_ocupacao     bigint       NOT NULL,
+    receita           bigint       NOT NULL
+);
+
+-- Atualização dos contadores e consultas dos painéis por estacionamento e intervalo de horas
+CREATE UNIQUE INDEX IF NOT EXISTS uk_movimentos_horarios_estacionamento_hora ON movimentos_horarios (id_estacionamento, hora);
@@ -0,0 +1,34 @@
+-- Assinaturas mensais, faturas dos assinantes e checkpoint do faturamento de cada competência. Valores em centavos.
+
+CREATE TABLE IF NOT EXISTS assinaturas (
+    id_usuario  bigint      NOT NULL PRIMARY KEY REFERENCES usuarios (id),
+    plano       varchar(50) NOT NULL,
+    mensalidade bigint      NOT NULL,
+    ativa       boolean     NOT NULL
+);
+
+CREATE SEQUENCE IF NOT EXISTS faturas_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS faturas (
+    id                 bigint       NOT NULL PRIMARY KEY,
+    id_usuario         bigint       NOT NULL REFERENCES usuarios (id),
+    competencia        date         NOT NULL,
+    mensalidade        bigint       NOT NULL,
+    quantidade_tickets bigint       NOT NULL,
+    valor_tickets      bigint       NOT NULL,
+    total              bigint,
+    estado             varchar(10)  NOT NULL,
+    data_emissao       timestamp(6)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_faturas_usuario_competencia ON faturas (id_usuario, competencia);
+CREATE INDEX IF NOT EXISTS idx_faturas_competencia ON faturas (competencia);
+
+CREATE TABLE IF NOT EXISTS faturamento_checkpoints (
+    competencia         date         NOT NULL PRIMARY KEY,
+    ultimo_ticket_id    bigint       NOT NULL,
+    tickets_processados bigint       NOT NULL,
+    concluido           boolean      NOT NULL,
+    data_atualizacao    timestamp(6) NOT NULL
+);
+
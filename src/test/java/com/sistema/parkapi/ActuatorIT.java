@@ -0,0 +1,54 @@
+package com.sistema.parkapi;
+
+import com.sistema.parkapi.jwt.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.endpoints.web.exposure.include=health,prometheus")
+@AutoConfigureObservability(tracing = false)
+@Sql(scripts = "/sql/usuarios/usuarios-insert.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = "/sql/usuarios/usuarios-delete.sql", executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+public class ActuatorIT {
+    @Autowired
+    WebTestClient testClient;
+
+    @Test
+    public void health_SemToken_RetornarStatus200() {
+        testClient.get().uri("/actuator/health")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    public void prometheus_SemToken_RetornarStatus403() {
+        testClient.get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void prometheus_ComTokenDeCliente_RetornarStatus403() {
+        testClient.get().uri("/actuator/prometheus")
+                .header(HttpHeaders.AUTHORIZATION, bearer("carlos@email.com", "CLIENTE"))
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+
+    @Test
+    public void prometheus_ComTokenDeAdmin_RetornarStatus200() {
+        testClient.get().uri("/actuator/prometheus")
+                .header(HttpHeaders.AUTHORIZATION, bearer("ana@email.com", "ADMIN"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private static String bearer(String username, String role) {
+        return JwtUtils.JWT_BEARER + JwtUtils.createToken(username, role).getToken();
+    }
+}
@@ -0,0 +1,13 @@
+package com.sistema.parkapi;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ParkApiApplicationTests {
+
+    @Test
+    void contextLoads() {
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.sistema.parkapi;
+
+import com.sistema.parkapi.repository.UsuarioRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica, no PostgreSQL com o esquema das migrações, que as consultas de autenticação usam o
+ * índice único do username normalizado em vez de varrer a tabela.
+ * <p>
+ * O SQL gerado pelo Hibernate é capturado por um {@link StatementInspector} e reexecutado com
+ * {@code EXPLAIN}. Requer Docker; sem ele o teste é ignorado.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "park.flyway.migrate-on-startup=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.sistema.parkapi.UsuarioQueryPlanIT$CapturaSql"
+})
+public class UsuarioQueryPlanIT {
+
+    private static final String INDICE = "uk_usuarios_username_normalizado";
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void popularUsuarios() {
+        jdbcTemplate.update("INSERT INTO usuarios (id, username, username_normalizado, password, role) " +
+                "SELECT i, 'Usuario' || i || '@email.com', 'usuario' || i || '@email.com', 'senha', " +
+                "CASE WHEN i % 100 = 0 THEN 'ROLE_ADMIN' ELSE 'ROLE_CLIENTE' END " +
+                "FROM generate_series(1, 10000) AS i");
+        jdbcTemplate.execute("VACUUM ANALYZE usuarios");
+    }
+
+    @BeforeEach
+    void limparCaptura() {
+        CapturaSql.SQLS.clear();
+    }
+
+    @Test
+    public void findByUsername_UsaIndiceDoUsernameNormalizado() {
+        assertThat(usuarioRepository.findByUsername("USUARIO5000@email.com")).isPresent();
+
+        assertThat(plano("usuario5000@email.com")).contains(INDICE).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    public void findRoleByUsername_UsaIndiceDoUsernameNormalizado() {
+        assertThat(usuarioRepository.findRoleByUsername("usuario4200@email.com")).isNotNull();
+
+        assertThat(plano("usuario4200@email.com")).contains(INDICE).doesNotContain("Seq Scan");
+    }
+
+    @Test
+    public void findCredencialByUsername_UsaIndiceDoUsernameNormalizado() {
+        assertThat(usuarioRepository.findCredencialByUsername("Usuario77@email.com")).isPresent();
+
+        assertThat(plano("usuario77@email.com")).contains(INDICE).doesNotContain("Seq Scan");
+    }
+
+    private String plano(String usernameNormalizado) {
+        String sql = CapturaSql.SQLS.stream()
+                .filter(s -> s.contains("usuarios"))
+                .reduce((primeiro, ultimo) -> ultimo)
+                .orElseThrow(() -> new AssertionError("Nenhuma consulta em usuarios foi capturada"));
+        List<String> linhas = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, usernameNormalizado);
+        return String.join("\n", linhas);
+    }
+
+    /**
+     * Guarda o SQL de cada comando preparado pelo Hibernate, sem alterá-lo.
+     */
+    public static class CapturaSql implements StatementInspector {
+
+        static final List<String> SQLS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQLS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sistema.parkapi.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteamento entre duas bases H2 locais, uma como primária e outra como réplica; cada uma
+ * responde com o próprio nome.
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    @BeforeEach
+    void setUp() {
+        criar(List.of(base("primaria"), base("replica")), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void transacaoSomenteLeitura_VaiParaReplica() {
+        String lida = leitura.execute(status -> origem());
+        String gravada = escrita.execute(status -> origem());
+
+        assertThat(lida).isEqualTo("replica");
+        assertThat(gravada).isEqualTo("primaria");
+        assertThat(origem()).isEqualTo("primaria");
+    }
+
+    @Test
+    public void replicaIndisponivel_LeituraVaiParaPrimaria() {
+        DataSource indisponivel = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("réplica fora do ar");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        routing.close();
+        criar(List.of(base("primaria"), indisponivel), Duration.ofSeconds(5));
+
+        String primeira = leitura.execute(status -> origem());
+        String segunda = leitura.execute(status -> origem());
+
+        assertThat(primeira).isEqualTo("primaria");
+        assertThat(segunda).isEqualTo("primaria");
+    }
+
+    @Test
+    public void escritaNaRequisicao_FixaLeiturasDaRequisicaoNaPrimaria() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        escrita.executeWithoutResult(status -> origem());
+
+        String mesmaRequisicao = leitura.execute(status -> origem());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String outraRequisicao = leitura.execute(status -> origem());
+
+        assertThat(mesmaRequisicao).isEqualTo("primaria");
+        assertThat(outraRequisicao).isEqualTo("replica");
+    }
+
+    @Test
+    public void escritaDoUsuario_FixaLeiturasDoUsuarioNaPrimaria() {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "ana@email.com", null, AuthorityUtils.createAuthorityList("ROLE_CLIENTE")));
+        escrita.executeWithoutResult(status -> origem());
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String doUsuario = leitura.execute(status -> origem());
+
+        SecurityContextHolder.clearContext();
+        String anonima = leitura.execute(status -> origem());
+
+        assertThat(doUsuario).isEqualTo("primaria");
+        assertThat(anonima).isEqualTo("replica");
+    }
+
+    @Test
+    public void semReadYourWrites_LeituraAposEscritaVaiParaReplica() {
+        routing.close();
+        criar(List.of(base("primaria"), base("replica")), Duration.ZERO);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        escrita.executeWithoutResult(status -> origem());
+
+        String lida = leitura.execute(status -> origem());
+
+        assertThat(lida).isEqualTo("replica");
+    }
+
+    @Test
+    public void credenciaisExplicitas_VaoParaPrimaria() {
+        String lida = leitura.execute(status -> {
+            try (Connection connection = routing.getConnection("sa", "")) {
+                return new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                        .queryForObject("SELECT nome FROM origem", String.class);
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertThat(lida).isEqualTo("primaria");
+    }
+
+    private void criar(List<DataSource> bases, Duration readYourWrites) {
+        routing = new ReplicaRoutingDataSource(bases.get(0), bases.subList(1, bases.size()),
+                Duration.ofMinutes(1), readYourWrites, new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    private String origem() {
+        return jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class);
+    }
+
+    private static DataSource base(String nome) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS origem (nome varchar(20))");
+        jdbc.update("DELETE FROM origem");
+        jdbc.update("INSERT INTO origem (nome) VALUES (?)", nome);
+        return dataSource;
+    }
+}
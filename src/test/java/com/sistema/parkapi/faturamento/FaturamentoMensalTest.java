@@ -0,0 +1,195 @@
+package com.sistema.parkapi.faturamento;
+
+import com.sistema.parkapi.exception.FaturamentoIndisponivelException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Lotes e checkpoints pequenos, para que poucos tickets passem por várias leituras e vários checkpoints.
+ * Cada teste usa uma competência afastada das outras, já que o cenário tem tickets nos meses vizinhos.
+ */
+@SpringBootTest(properties = {"park.faturamento.tamanho-lote=4", "park.faturamento.checkpoint-tickets=5",
+        "park.faturamento.paralelismo=2"})
+public class FaturamentoMensalTest {
+
+    private static final int TICKETS = 30;
+
+    @Autowired
+    FaturamentoMensal faturamento;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void iniciar_EmiteFaturasComOsTotaisDeCadaAssinante() {
+        YearMonth competencia = YearMonth.now().minusMonths(2);
+        long base = 1_000;
+        criarCenario(base, competencia);
+
+        ExecucaoFaturamento execucao = aguardar(faturamento.iniciar(competencia, false));
+
+        assertThat(execucao.estado()).isEqualTo(ExecucaoFaturamento.Estado.CONCLUIDA);
+        Map<Long, Map<String, Object>> faturas = faturas(competencia);
+        // Só clientes com assinatura ativa são faturados
+        assertThat(faturas.keySet()).contains(base + 1, base + 2).doesNotContain(base + 3, base + 4, base + 5);
+        long quantidade = 0;
+        long valor = 0;
+        for (Map.Entry<Long, Map<String, Object>> fatura : faturas.entrySet()) {
+            long[] esperado = somaIngenua(fatura.getKey(), competencia, Long.MAX_VALUE);
+            assertThat(fatura.getValue().get("ESTADO")).isEqualTo("EMITIDA");
+            assertThat(numero(fatura.getValue(), "QUANTIDADE_TICKETS")).isEqualTo(esperado[0]);
+            assertThat(numero(fatura.getValue(), "VALOR_TICKETS")).isEqualTo(esperado[1]);
+            assertThat(numero(fatura.getValue(), "TOTAL"))
+                    .isEqualTo(numero(fatura.getValue(), "MENSALIDADE") + esperado[1]);
+            quantidade += esperado[0];
+            valor += esperado[1];
+        }
+        assertThat(quantidade).isPositive();
+        assertThat(execucao.faturas()).isEqualTo(faturas.size());
+        assertThat(execucao.quantidadeTickets()).isEqualTo(quantidade);
+        assertThat(execucao.valorTickets()).isEqualTo(valor);
+
+        assertThatThrownBy(() -> faturamento.iniciar(competencia, false))
+                .isInstanceOf(FaturamentoIndisponivelException.class);
+    }
+
+    @Test
+    public void iniciar_ComCheckpointSalvo_RetomaSemSomarDeNovoOsTicketsJaProcessados() {
+        YearMonth competencia = YearMonth.now().minusMonths(5);
+        long base = 2_000;
+        criarCenario(base, competencia);
+        // Execução interrompida depois de somar os tickets até este id às faturas abertas
+        long ultimo = base * 100 + TICKETS / 2;
+        Date mes = Date.valueOf(competencia.atDay(1));
+        for (long usuario : new long[]{base + 1, base + 2}) {
+            long[] somado = somaIngenua(usuario, competencia, ultimo);
+            jdbcTemplate.update("INSERT INTO faturas (id, id_usuario, competencia, mensalidade, quantidade_tickets, " +
+                    "valor_tickets, estado) VALUES (?, ?, ?, ?, ?, ?, 'ABERTA')", usuario, usuario, mes,
+                    mensalidade(usuario, base), somado[0], somado[1]);
+        }
+        jdbcTemplate.update("INSERT INTO faturamento_checkpoints (competencia, ultimo_ticket_id, tickets_processados, " +
+                "concluido, data_atualizacao) VALUES (?, ?, ?, FALSE, ?)", mes, ultimo, TICKETS / 2,
+                Timestamp.valueOf(LocalDateTime.now()));
+
+        ExecucaoFaturamento execucao = aguardar(faturamento.iniciar(competencia, false));
+
+        assertThat(execucao.estado()).isEqualTo(ExecucaoFaturamento.Estado.CONCLUIDA);
+        // Os assinantes da retomada são os das faturas já abertas
+        Map<Long, Map<String, Object>> faturas = faturas(competencia);
+        assertThat(faturas.keySet()).containsExactlyInAnyOrder(base + 1, base + 2);
+        for (Map.Entry<Long, Map<String, Object>> fatura : faturas.entrySet()) {
+            long[] esperado = somaIngenua(fatura.getKey(), competencia, Long.MAX_VALUE);
+            assertThat(numero(fatura.getValue(), "QUANTIDADE_TICKETS")).isEqualTo(esperado[0]);
+            assertThat(numero(fatura.getValue(), "VALOR_TICKETS")).isEqualTo(esperado[1]);
+        }
+    }
+
+    @Test
+    public void iniciar_ComSimulacao_CalculaOsTotaisSemGravarNada() {
+        YearMonth competencia = YearMonth.now().minusMonths(8);
+        long base = 3_000;
+        criarCenario(base, competencia);
+
+        ExecucaoFaturamento execucao = aguardar(faturamento.iniciar(competencia, true));
+
+        assertThat(execucao.estado()).isEqualTo(ExecucaoFaturamento.Estado.CONCLUIDA);
+        long[] primeiro = somaIngenua(base + 1, competencia, Long.MAX_VALUE);
+        long[] segundo = somaIngenua(base + 2, competencia, Long.MAX_VALUE);
+        assertThat(execucao.quantidadeTickets()).isEqualTo(primeiro[0] + segundo[0]);
+        assertThat(execucao.valorTickets()).isEqualTo(primeiro[1] + segundo[1]);
+        assertThat(faturas(competencia)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM faturamento_checkpoints WHERE competencia = ?",
+                Long.class, Date.valueOf(competencia.atDay(1)))).isZero();
+    }
+
+    /**
+     * Clientes {@code base + 1} e {@code base + 2} com assinatura ativa, {@code base + 3} com assinatura
+     * inativa, {@code base + 4} administrador com assinatura e {@code base + 5} sem assinatura; tickets
+     * de todos no mês e alguns que não entram no faturamento.
+     */
+    private void criarCenario(long base, YearMonth competencia) {
+        for (long i = 1; i <= 5; i++) {
+            long id = base + i;
+            jdbcTemplate.update("INSERT INTO usuarios (id, username, username_normalizado, password, role) " +
+                    "VALUES (?, ?, ?, '123456', ?)", id, id + "@email.com", id + "@email.com",
+                    i == 4 ? "ROLE_ADMIN" : "ROLE_CLIENTE");
+            if (i <= 4) {
+                jdbcTemplate.update("INSERT INTO assinaturas (id_usuario, plano, mensalidade, ativa) VALUES (?, 'MENSAL', ?, ?)",
+                        id, mensalidade(id, base), i != 3);
+            }
+        }
+        LocalDateTime inicio = competencia.atDay(1).atTime(10, 0);
+        for (int i = 1; i <= TICKETS; i++) {
+            LocalDateTime saida = inicio.plusDays(i % 28);
+            ticket(base * 100 + i, base + 1 + i % 5, saida, 100L * i);
+        }
+        // Fora do mês, sem cliente ou ainda aberto: não entram
+        ticket(base * 100 + TICKETS + 1, base + 1, inicio.minusDays(1), 9_999L);
+        ticket(base * 100 + TICKETS + 2, base + 1, competencia.plusMonths(1).atDay(1).atStartOfDay(), 9_999L);
+        ticket(base * 100 + TICKETS + 3, null, inicio, 9_999L);
+        ticket(base * 100 + TICKETS + 4, base + 2, null, null);
+    }
+
+    private void ticket(long id, Long usuarioId, LocalDateTime saida, Long valor) {
+        LocalDateTime entrada = saida == null ? LocalDateTime.now() : saida.minusHours(2);
+        jdbcTemplate.update("INSERT INTO tickets (id, codigo, id_estacionamento, placa, id_usuario, data_entrada, " +
+                "data_saida, chave_entrada, valor) VALUES (?, ?, 1, 'ABC-1234', ?, ?, ?, ?, ?)", id, "fat-" + id,
+                usuarioId, Timestamp.valueOf(entrada), saida == null ? null : Timestamp.valueOf(saida), "fat-" + id, valor);
+    }
+
+    private static long mensalidade(long usuarioId, long base) {
+        return (usuarioId - base) * 1_000;
+    }
+
+    /**
+     * Quantidade e soma dos tickets do usuário encerrados na competência, com id até {@code ateId}.
+     */
+    private long[] somaIngenua(long usuarioId, YearMonth competencia, long ateId) {
+        return jdbcTemplate.queryForObject("SELECT count(*), coalesce(sum(valor), 0) FROM tickets " +
+                        "WHERE id_usuario = ? AND data_saida >= ? AND data_saida < ? AND id <= ?",
+                (rs, n) -> new long[]{rs.getLong(1), rs.getLong(2)}, usuarioId,
+                Timestamp.valueOf(competencia.atDay(1).atStartOfDay()),
+                Timestamp.valueOf(competencia.plusMonths(1).atDay(1).atStartOfDay()), ateId);
+    }
+
+    private Map<Long, Map<String, Object>> faturas(YearMonth competencia) {
+        List<Map<String, Object>> linhas = jdbcTemplate.queryForList("SELECT * FROM faturas WHERE competencia = ?",
+                Date.valueOf(competencia.atDay(1)));
+        return linhas.stream().collect(Collectors.toMap(l -> numero(l, "ID_USUARIO"), l -> l));
+    }
+
+    private static long numero(Map<String, Object> linha, String coluna) {
+        return ((Number) linha.get(coluna)).longValue();
+    }
+
+    private ExecucaoFaturamento aguardar(ExecucaoFaturamento iniciada) {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (true) {
+            ExecucaoFaturamento atual = faturamento.getExecucao().orElseThrow();
+            if (atual.estado() != ExecucaoFaturamento.Estado.EM_ANDAMENTO) {
+                assertThat(atual.competencia()).isEqualTo(iniciada.competencia());
+                return atual;
+            }
+            assertThat(System.nanoTime()).as("tempo esgotado").isLessThan(limite);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.sistema.parkapi.jwt;
+
+import com.sistema.parkapi.entity.Usuario;
+import com.sistema.parkapi.repository.projection.UsuarioCredencial;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtUserDetailsCacheTest {
+
+    @Test
+    public void get_ComFaltasConcorrentesDoMesmoUsuario_ConsultaUmaUnicaVez() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtUserDetailsCache cache = new JwtUserDetailsCache(100, Duration.ofSeconds(5), registry);
+        AtomicInteger consultas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        int chamadas = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(chamadas);
+        try {
+            List<CompletableFuture<UsuarioCredencial>> respostas = new ArrayList<>();
+            for (int i = 0; i < chamadas; i++) {
+                respostas.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                    return cache.get("Ana@Email.com", username -> {
+                        consultas.incrementAndGet();
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return new UsuarioCredencial(100L, username, "hash", Usuario.Role.ROLE_ADMIN);
+                    });
+                }, executor));
+            }
+            largada.countDown();
+            respostas.forEach(CompletableFuture::join);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(consultas.get()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "jwt.usuarios").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+
+        cache.invalidate("ana@email.com");
+        cache.get("ana@email.com", username -> {
+            consultas.incrementAndGet();
+            return new UsuarioCredencial(100L, username, "hash", Usuario.Role.ROLE_ADMIN);
+        });
+        assertThat(consultas.get()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,40 @@
+package com.sistema.parkapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlocadorDeVagasTest {
+
+    @Test
+    public void substituir_DevolveVagasLiberadasEmOutraInstancia() {
+        AlocadorDeVagas alocador = new AlocadorDeVagas(new SimpleMeterRegistry());
+        alocador.registrar(1L, 3);
+        for (int i = 0; i < 3; i++) {
+            alocador.reservar(1L);
+        }
+        assertThat(alocador.reservar(1L)).isZero();
+
+        // Na base, a vaga 2 foi liberada por outra instância
+        alocador.substituir(1L, List.of(1, 3));
+
+        assertThat(alocador.livres(1L)).isEqualTo(1);
+        assertThat(alocador.capacidade(1L)).isEqualTo(3);
+        assertThat(alocador.reservar(1L)).isEqualTo(2);
+        assertThat(alocador.reservar(1L)).isZero();
+    }
+
+    @Test
+    public void registrar_ComVagasOcupadas_MantemOPrimeiroMapaRegistrado() {
+        AlocadorDeVagas alocador = new AlocadorDeVagas(new SimpleMeterRegistry());
+
+        assertThat(alocador.registrar(1L, 3, List.of(1, 3))).isTrue();
+        assertThat(alocador.registrar(1L, 3, List.of())).isFalse();
+
+        assertThat(alocador.livres(1L)).isEqualTo(1);
+        assertThat(alocador.reservar(1L)).isEqualTo(2);
+    }
+}
@@ -0,0 +1,133 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.entity.Estacionamento;
+import com.sistema.parkapi.entity.Vaga;
+import com.sistema.parkapi.exception.EstacionamentoLotadoException;
+import com.sistema.parkapi.repository.VagaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class EstacionamentoServiceTest {
+
+    private static final int VAGAS = 40;
+    private static final long OUTRA_INSTANCIA = 1_000_000;
+
+    @Autowired
+    EstacionamentoService estacionamentoService;
+    @Autowired
+    VagaRepository vagaRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    /**
+     * Alocações concorrentes nesta instância, com ocupações gravadas direto na base (outra instância) e
+     * o mapa em memória sendo substituído pelo da base ao mesmo tempo.
+     */
+    @Test
+    public void alocarVaga_ConcorrenteComOutraInstanciaERessincronizacao_NuncaEntregaAMesmaVagaDuasVezes()
+            throws Exception {
+        Estacionamento estacionamento = new Estacionamento();
+        estacionamento.setNome("Vagas " + UUID.randomUUID());
+        estacionamento.setTotalVagas(VAGAS);
+        Long id = estacionamentoService.salvar(estacionamento).getId();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Vaga -> ocupante, para cada vaga entregue por qualquer das instâncias
+        Map<Integer, Long> entregues = new ConcurrentHashMap<>();
+        List<String> duplicadas = new ArrayList<>();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 2);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicBoolean alocando = new AtomicBoolean(true);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long primeiroUsuario = t * 100L + 1;
+                tarefas.add(executor.submit(() -> {
+                    largada.await();
+                    for (long usuario = primeiroUsuario; usuario < primeiroUsuario + 10; usuario++) {
+                        try {
+                            Vaga vaga = estacionamentoService.alocarVaga(id, usuario);
+                            registrar(entregues, duplicadas, vaga.getNumero(), usuario);
+                        } catch (EstacionamentoLotadoException ex) {
+                            // Esperado depois que as vagas acabam
+                        }
+                    }
+                    return null;
+                }));
+            }
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                for (long usuario = OUTRA_INSTANCIA; usuario < OUTRA_INSTANCIA + 20; usuario++) {
+                    int numero = ThreadLocalRandom.current().nextInt(1, VAGAS + 1);
+                    long ocupante = usuario;
+                    Integer ocupadas = transacao.execute(status ->
+                            vagaRepository.ocuparSeLivre(id, numero, ocupante, LocalDateTime.now()));
+                    if (ocupadas != null && ocupadas == 1) {
+                        registrar(entregues, duplicadas, numero, usuario);
+                    }
+                }
+                return null;
+            }));
+            Future<?> ressincronizacao = executor.submit(() -> {
+                largada.await();
+                while (alocando.get()) {
+                    estacionamentoService.ressincronizar();
+                }
+                return null;
+            });
+            largada.countDown();
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            alocando.set(false);
+            ressincronizacao.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(duplicadas).isEmpty();
+        Map<Integer, Long> ocupantes = new HashMap<>();
+        jdbcTemplate.query("SELECT numero, id_usuario FROM vagas WHERE id_estacionamento = ? AND id_usuario IS NOT NULL",
+                rs -> {
+                    ocupantes.put(rs.getInt(1), rs.getLong(2));
+                }, id);
+        // Cada vaga entregue está com quem a recebeu, e nenhuma vaga ocupada ficou sem entrega
+        assertThat(ocupantes).isEqualTo(entregues);
+        // As alocações desta instância continuam até o estacionamento lotar
+        assertThat(ocupantes).hasSize(VAGAS);
+        assertThat(estacionamentoService.contarVagasLivres(id)).isZero();
+    }
+
+    private static void registrar(Map<Integer, Long> entregues, List<String> duplicadas, int numero, long usuario) {
+        Long anterior = entregues.putIfAbsent(numero, usuario);
+        if (anterior != null) {
+            synchronized (duplicadas) {
+                duplicadas.add(String.format("vaga %d: %d e %d", numero, anterior, usuario));
+            }
+        }
+    }
+}
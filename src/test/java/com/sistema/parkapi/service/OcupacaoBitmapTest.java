@@ -0,0 +1,132 @@
+package com.sistema.parkapi.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OcupacaoBitmapTest {
+
+    private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+    @Test
+    public void ocupar_EntregaVagasEmOrdemAteLotar() {
+        OcupacaoBitmap bitmap = new OcupacaoBitmap(130);
+
+        for (int numero = 1; numero <= 130; numero++) {
+            assertThat(bitmap.ocupar()).isEqualTo(numero);
+        }
+        assertThat(bitmap.ocupar()).isZero();
+        assertThat(bitmap.livres()).isZero();
+
+        assertThat(bitmap.liberar(70)).isTrue();
+        assertThat(bitmap.liberar(70)).isFalse();
+        assertThat(bitmap.livres()).isEqualTo(1);
+        assertThat(bitmap.ocupar()).isEqualTo(70);
+    }
+
+    @Test
+    public void ocuparConcorrente_NuncaEntregaAMesmaVagaDuasVezes() throws Exception {
+        int capacidade = 50_000;
+        OcupacaoBitmap bitmap = new OcupacaoBitmap(capacidade);
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<List<Integer>>> resultados = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                resultados.add(executor.submit(() -> {
+                    List<Integer> ocupadas = new ArrayList<>();
+                    largada.await();
+                    int numero;
+                    while ((numero = bitmap.ocupar()) != 0) {
+                        ocupadas.add(numero);
+                    }
+                    return ocupadas;
+                }));
+            }
+            largada.countDown();
+
+            BitSet vistas = new BitSet(capacidade + 1);
+            int total = 0;
+            for (Future<List<Integer>> resultado : resultados) {
+                for (int numero : resultado.get(1, TimeUnit.MINUTES)) {
+                    assertThat(vistas.get(numero)).as("vaga %d entregue duas vezes", numero).isFalse();
+                    vistas.set(numero);
+                    total++;
+                }
+            }
+            assertThat(total).isEqualTo(capacidade);
+            assertThat(vistas.nextClearBit(1)).isEqualTo(capacidade + 1);
+            assertThat(bitmap.livres()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void ocuparELiberarConcorrente_CadaVagaTemUmUnicoOcupante() throws Exception {
+        int capacidade = 300;
+        int operacoesPorThread = 200_000;
+        OcupacaoBitmap bitmap = new OcupacaoBitmap(capacidade);
+        AtomicIntegerArray ocupantes = new AtomicIntegerArray(capacidade + 1);
+        AtomicLong duplas = new AtomicLong();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> resultados = new ArrayList<>();
+            for (int t = 1; t <= THREADS; t++) {
+                int thread = t;
+                resultados.add(executor.submit(() -> {
+                    List<Integer> minhas = new ArrayList<>();
+                    largada.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operacoesPorThread; i++) {
+                        if (minhas.isEmpty() || (minhas.size() < 40 && random.nextBoolean())) {
+                            int numero = bitmap.ocupar();
+                            if (numero != 0) {
+                                if (!ocupantes.compareAndSet(numero, 0, thread)) {
+                                    duplas.incrementAndGet();
+                                }
+                                minhas.add(numero);
+                            }
+                        } else {
+                            int numero = minhas.remove(random.nextInt(minhas.size()));
+                            ocupantes.set(numero, 0);
+                            assertThat(bitmap.liberar(numero)).isTrue();
+                        }
+                    }
+                    for (int numero : minhas) {
+                        ocupantes.set(numero, 0);
+                        bitmap.liberar(numero);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(duplas.get()).isZero();
+        assertThat(bitmap.livres()).isEqualTo(capacidade);
+        // Nenhuma vaga ficou escondida pelo resumo de palavras cheias
+        for (int numero = 1; numero <= capacidade; numero++) {
+            assertThat(bitmap.ocupar()).isEqualTo(numero);
+        }
+        assertThat(bitmap.ocupar()).isZero();
+    }
+}
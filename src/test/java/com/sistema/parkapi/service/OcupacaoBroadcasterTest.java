@@ -0,0 +1,32 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.exception.CapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OcupacaoBroadcasterTest {
+
+    @Test
+    public void assinar_AcimaDoLimite_LancaCapacityExceededAteUmAssinanteSair() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AlocadorDeVagas alocador = new AlocadorDeVagas(registry);
+        alocador.registrar(1L, 3);
+        OcupacaoBroadcaster broadcaster = new OcupacaoBroadcaster(alocador, 4, 1, registry);
+        try {
+            // A vaga é reservada na chamada, antes de o fluxo ser assinado
+            Disposable assinatura = broadcaster.assinar(1L).subscribe();
+            assertThatThrownBy(() -> broadcaster.assinar(1L)).isInstanceOf(CapacityExceededException.class);
+            assertThat(registry.get("ocupacao.stream.assinantes").gauge().value()).isEqualTo(1);
+
+            assinatura.dispose();
+            assertThat(registry.get("ocupacao.stream.assinantes").gauge().value()).isZero();
+            assertThat(broadcaster.assinar(1L).blockFirst().vagasLivres()).isEqualTo(3);
+        } finally {
+            broadcaster.destroy();
+        }
+    }
+}
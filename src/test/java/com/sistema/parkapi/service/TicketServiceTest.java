@@ -0,0 +1,180 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.entity.Estacionamento;
+import com.sistema.parkapi.entity.Ticket;
+import com.sistema.parkapi.exception.EntityNotFoundException;
+import com.sistema.parkapi.exception.IdempotencyKeyMismatchException;
+import com.sistema.parkapi.repository.TicketRepository;
+import com.sistema.parkapi.ticket.TicketEvento;
+import com.sistema.parkapi.ticket.TicketJournal;
+import com.sistema.parkapi.ticket.TicketWriteBehind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class TicketServiceTest {
+
+    @Autowired
+    TicketService ticketService;
+    @Autowired
+    EstacionamentoService estacionamentoService;
+    @Autowired
+    TicketRepository ticketRepository;
+    @Autowired
+    TicketJournal journal;
+    @Autowired
+    TicketWriteBehind writeBehind;
+    @Autowired
+    MovimentoAgregador movimentos;
+
+    Long estacionamentoId;
+
+    @BeforeEach
+    public void criarEstacionamento() {
+        Estacionamento estacionamento = new Estacionamento();
+        estacionamento.setNome("Tickets " + UUID.randomUUID());
+        estacionamento.setTotalVagas(10);
+        estacionamentoId = estacionamentoService.salvar(estacionamento).getId();
+    }
+
+    @Test
+    public void registrarEntrada_ComMesmaChaveConcorrente_AbreUmUnicoTicket() throws Exception {
+        String chave = UUID.randomUUID().toString();
+        int chamadas = 8;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(chamadas);
+        try {
+            List<CompletableFuture<Ticket>> respostas = new ArrayList<>();
+            for (int i = 0; i < chamadas; i++) {
+                respostas.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        largada.await();
+                    } catch (InterruptedException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                    return ticketService.registrarEntrada(chave, estacionamentoId, "ABC-1234", null).join();
+                }, executor));
+            }
+            largada.countDown();
+
+            assertThat(respostas.stream().map(CompletableFuture::join).map(Ticket::getCodigo).distinct()).hasSize(1);
+        } finally {
+            executor.shutdown();
+        }
+        aguardar(() -> !comChaveDeEntrada(chave).isEmpty());
+        assertThat(comChaveDeEntrada(chave)).hasSize(1);
+    }
+
+    @Test
+    public void registrarEntrada_ComMesmaChaveEOutrosDados_LancaIdempotencyKeyMismatch() {
+        String chave = UUID.randomUUID().toString();
+        Ticket ticket = ticketService.registrarEntrada(chave, estacionamentoId, "ABC-1234", null).join();
+
+        assertThat(ticketService.registrarEntrada(chave, estacionamentoId, "ABC-1234", null).join().getCodigo())
+                .isEqualTo(ticket.getCodigo());
+        assertThatThrownBy(() -> ticketService.registrarEntrada(chave, estacionamentoId, "XYZ-9876", null))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+
+        String chaveSaida = UUID.randomUUID().toString();
+        ticketService.registrarSaida(chaveSaida, ticket.getCodigo()).join();
+        assertThatThrownBy(() -> ticketService.registrarSaida(chaveSaida, UUID.randomUUID().toString()))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @Test
+    public void registrarSaida_DeTicketAbertoEmOutraInstancia_EncerraOTicketDaBase() {
+        // Entrada gravada na base pelo write-behind de outra instância, depois da subida desta
+        Ticket entrada = new Ticket();
+        entrada.setCodigo(UUID.randomUUID().toString());
+        entrada.setEstacionamentoId(estacionamentoId);
+        entrada.setPlaca("GHI-9012");
+        entrada.setDataEntrada(LocalDateTime.now().minusHours(1));
+        entrada.setChaveEntrada(UUID.randomUUID().toString());
+        ticketRepository.save(entrada);
+
+        Ticket saida = ticketService.registrarSaida(UUID.randomUUID().toString(), entrada.getCodigo()).join();
+
+        assertThat(saida.getDataSaida()).isNotNull();
+        assertThatThrownBy(() -> ticketService.registrarSaida(UUID.randomUUID().toString(), entrada.getCodigo()))
+                .isInstanceOf(EntityNotFoundException.class);
+        aguardar(() -> comCodigo(entrada.getCodigo()).get(0).getDataSaida() != null);
+        assertThat(comCodigo(entrada.getCodigo()).get(0).getValor()).isEqualTo(saida.getValor());
+    }
+
+    @Test
+    public void start_ReproduzDiarioSemDuplicarNemPerderTickets() {
+        String chave = UUID.randomUUID().toString();
+        ticketService.stop();
+
+        // Eventos no disco, mas não gravados na base: queda logo depois do fsync
+        journal.abrir(Map.of(TicketWriteBehind.LEITOR, writeBehind.checkpoint(),
+                MovimentoAgregador.LEITOR, movimentos.checkpoint().orElse(writeBehind.checkpoint())));
+        journal.iniciar(duraveis -> {
+        });
+        TicketEvento primeira = journal.anexar(TicketEvento.entrada(chave + "-1", UUID.randomUUID().toString(),
+                estacionamentoId, "ABC-1234", null, LocalDateTime.now())).join();
+        TicketEvento segunda = journal.anexar(TicketEvento.entrada(chave + "-2", UUID.randomUUID().toString(),
+                estacionamentoId, "DEF-5678", null, LocalDateTime.now())).join();
+        TicketEvento saida = journal.anexar(TicketEvento.saida(chave + "-3", primeira.toTicket(),
+                LocalDateTime.now(), 500)).join();
+        journal.encerrar();
+
+        ticketService.start();
+        aguardar(() -> writeBehind.checkpoint() >= saida.sequencia());
+
+        assertThat(comCodigo(primeira.codigo())).singleElement()
+                .satisfies(ticket -> assertThat(ticket.getDataSaida()).isNotNull());
+        assertThat(comCodigo(segunda.codigo())).singleElement()
+                .satisfies(ticket -> assertThat(ticket.getDataSaida()).isNull());
+        // As chaves do diário continuam valendo para repetições
+        assertThat(ticketService.registrarEntrada(chave + "-2", estacionamentoId, "DEF-5678", null).join().getCodigo())
+                .isEqualTo(segunda.codigo());
+        assertThat(ticketService.registrarSaida(chave + "-3", primeira.codigo()).join().getValor()).isEqualTo(500L);
+
+        // Uma nova subida parte do checkpoint e não grava os eventos de novo
+        ticketService.stop();
+        ticketService.start();
+        assertThat(comCodigo(primeira.codigo())).hasSize(1);
+        assertThat(comCodigo(segunda.codigo())).hasSize(1);
+        assertThat(ticketService.registrarSaida(UUID.randomUUID().toString(), segunda.codigo()).join().getDataSaida())
+                .isNotNull();
+    }
+
+    private List<Ticket> comChaveDeEntrada(String chave) {
+        return ticketRepository.findAll().stream().filter(t -> chave.equals(t.getChaveEntrada())).toList();
+    }
+
+    private List<Ticket> comCodigo(String codigo) {
+        return ticketRepository.findAll().stream().filter(t -> codigo.equals(t.getCodigo())).toList();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) {
+        long limite = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo esgotado").isLessThan(limite);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
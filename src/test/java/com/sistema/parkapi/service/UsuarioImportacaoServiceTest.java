@@ -0,0 +1,49 @@
+package com.sistema.parkapi.service;
+
+import com.sistema.parkapi.repository.UsuarioRepository;
+import com.sistema.parkapi.web.dto.UsuarioImportacaoLinhaDto;
+import com.sistema.parkapi.web.dto.UsuarioImportacaoLinhaDto.Status;
+import com.sistema.parkapi.web.dto.UsuarioImportacaoResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class UsuarioImportacaoServiceTest {
+
+    @Autowired
+    UsuarioImportacaoService importacaoService;
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void importar_BlocoComLinhaRejeitadaPelaBase_SoALinhaRejeitadaFicaComErro() throws Exception {
+        String prefixo = UUID.randomUUID().toString().substring(0, 8);
+        // Email válido para o DTO, mas acima das 100 posições da coluna username
+        String longo = prefixo + "@" + "a".repeat(60) + "." + "b".repeat(40) + ".com";
+        List<String> usernames = List.of(prefixo + "1@email.com", prefixo + "2@email.com", longo,
+                prefixo + "4@email.com", prefixo + "5@email.com");
+        String csv = "username,password\n" + String.join(",123456\n", usernames) + ",123456\n";
+
+        UsuarioImportacaoResponseDto resposta;
+        try (UsuarioImportacaoReader reader = UsuarioImportacaoReader.csv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            resposta = importacaoService.importar(reader);
+        }
+
+        assertThat(resposta.getCriados()).isEqualTo(4);
+        assertThat(resposta.getLinhas()).extracting(UsuarioImportacaoLinhaDto::getStatus)
+                .containsExactly(Status.CRIADO, Status.CRIADO, Status.ERRO, Status.CRIADO, Status.CRIADO);
+        assertThat(resposta.getLinhas()).filteredOn(l -> l.getStatus() == Status.CRIADO)
+                .allSatisfy(l -> assertThat(l.getId()).isNotNull());
+        assertThat(usuarioRepository.findUsernamesNormalizadosIn(usernames))
+                .containsExactlyInAnyOrder(usernames.get(0), usernames.get(1), usernames.get(3), usernames.get(4));
+    }
+}
@@ -0,0 +1,136 @@
+package com.sistema.parkapi.tarifa;
+
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import com.sistema.parkapi.entity.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Compara a {@link TarifaCompilada} com a {@link TarifaReferencia} em tabelas e permanências
+ * aleatórias. A semente é fixa; uma divergência informa a semente, a tabela e a permanência.
+ */
+public class TarifaCompiladaTest {
+
+    private static final ZoneId SAO_PAULO = ZoneId.of("America/Sao_Paulo");
+    private static final FusoCompilado FUSO = FusoCompilado.compilar(SAO_PAULO, 2000, 2100);
+    private static final int[] FRACOES = {1, 5, 10, 15, 20, 30, 45, 60, 90, 120, 180, 1440};
+    private static final Usuario.Role[] ROLES = {null, Usuario.Role.ROLE_CLIENTE, Usuario.Role.ROLE_ADMIN};
+
+    @Test
+    public void calcular_ExemploDaTabelaPadrao() {
+        TabelaTarifaria tabela = tabela(15, 1000, 15, 250, 400, LocalTime.of(20, 0), LocalTime.of(6, 0), 6000, 10, 0);
+        TarifaCompilada tarifa = TarifaCompilada.compilar(tabela, FUSO);
+        LocalDateTime entrada = LocalDateTime.of(2024, 3, 10, 18, 0);
+
+        // Dentro da tolerância
+        assertThat(tarifa.calcular(entrada, entrada.plusMinutes(15), null)).isZero();
+        // Primeira hora
+        assertThat(tarifa.calcular(entrada, entrada.plusMinutes(16), null)).isEqualTo(1000);
+        // Primeira hora + 4 frações diurnas (19:00-20:00) + 1 fração noturna iniciada às 20:00
+        assertThat(tarifa.calcular(entrada, entrada.plusHours(2).plusSeconds(1), null)).isEqualTo(1000 + 4 * 250 + 400);
+        // Teto diário e desconto de cliente
+        assertThat(tarifa.calcular(entrada, entrada.plusHours(23), null)).isEqualTo(6000);
+        assertThat(tarifa.calcular(entrada, entrada.plusHours(23), Usuario.Role.ROLE_CLIENTE)).isEqualTo(5400);
+        assertThatThrownBy(() -> tarifa.calcular(entrada, entrada.minusSeconds(1), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void calcular_AtravessandoOHorarioDeVerao_IgualAReferencia() {
+        TabelaTarifaria tabela = tabela(0, 700, 30, 300, 500, LocalTime.of(22, 0), LocalTime.of(5, 0), 0, 0, 0);
+        TarifaCompilada tarifa = TarifaCompilada.compilar(tabela, FUSO);
+        TarifaReferencia referencia = new TarifaReferencia(tabela, SAO_PAULO);
+        // Início (04/11/2018 00:00 não existe) e fim (17/02/2019 00:00 acontece duas vezes) do último horário de verão
+        LocalDateTime[] entradas = {
+                LocalDateTime.of(2018, 11, 3, 21, 10), LocalDateTime.of(2018, 11, 4, 0, 30),
+                LocalDateTime.of(2019, 2, 16, 22, 45), LocalDateTime.of(2019, 2, 16, 23, 30)};
+        for (LocalDateTime entrada : entradas) {
+            for (int minutos = 0; minutos <= 3 * 1440; minutos += 7) {
+                LocalDateTime saida = entrada.plusMinutes(minutos);
+                assertThat(resultado(() -> tarifa.calcular(entrada, saida, null)))
+                        .as("%s -> %s", entrada, saida)
+                        .isEqualTo(resultado(() -> referencia.calcular(entrada, saida, null)));
+            }
+        }
+    }
+
+    @Test
+    public void calcular_TabelasEPermanenciasAleatorias_IgualAReferencia() {
+        long semente = 20_231_023L;
+        SplittableRandom random = new SplittableRandom(semente);
+        for (int t = 0; t < 300; t++) {
+            TabelaTarifaria tabela = tabelaAleatoria(random);
+            TarifaCompilada tarifa = TarifaCompilada.compilar(tabela, FUSO);
+            TarifaReferencia referencia = new TarifaReferencia(tabela, SAO_PAULO);
+            for (int i = 0; i < 100; i++) {
+                LocalDateTime entrada = LocalDateTime.of(2015, 1, 1, 0, 0).plusSeconds(random.nextLong(6L * 365 * 86_400));
+                LocalDateTime saida = entrada.plusSeconds(duracaoAleatoria(random));
+                Usuario.Role role = ROLES[random.nextInt(ROLES.length)];
+                assertThat(resultado(() -> tarifa.calcular(entrada, saida, role)))
+                        .as("semente %d, tabela %d (%s), %s -> %s, %s", semente, t, descrever(tabela), entrada, saida, role)
+                        .isEqualTo(resultado(() -> referencia.calcular(entrada, saida, role)));
+            }
+        }
+    }
+
+    /**
+     * Valor calculado ou a recusa da permanência: somar minutos a uma hora local dentro de uma transição
+     * do fuso pode produzir uma saída anterior à entrada, e as duas implementações devem recusá-la.
+     */
+    private static Object resultado(Supplier<Long> calculo) {
+        try {
+            return calculo.get();
+        } catch (IllegalArgumentException ex) {
+            return "recusada: " + ex.getMessage();
+        }
+    }
+
+    private static long duracaoAleatoria(SplittableRandom random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> random.nextLong(2 * 3_600);
+            case 1 -> random.nextLong(86_400);
+            case 2 -> random.nextLong(4 * 86_400);
+            default -> random.nextLong(40 * 86_400);
+        };
+    }
+
+    private static TabelaTarifaria tabelaAleatoria(SplittableRandom random) {
+        return tabela(random.nextInt(31), random.nextLong(3_000), FRACOES[random.nextInt(FRACOES.length)],
+                random.nextLong(1_000), random.nextLong(1_500),
+                LocalTime.of(random.nextInt(24), random.nextInt(60)), LocalTime.of(random.nextInt(24), random.nextInt(60)),
+                random.nextBoolean() ? 0 : random.nextLong(20_000), random.nextInt(101), random.nextInt(101));
+    }
+
+    private static TabelaTarifaria tabela(int tolerancia, long primeiraHora, int minutosFracao, long fracao,
+                                          long fracaoNoturna, LocalTime inicioNoturno, LocalTime fimNoturno,
+                                          long tetoDiario, int descontoCliente, int descontoAdmin) {
+        TabelaTarifaria tabela = new TabelaTarifaria();
+        tabela.setEstacionamentoId(1L);
+        tabela.setToleranciaMinutos(tolerancia);
+        tabela.setValorPrimeiraHora(primeiraHora);
+        tabela.setMinutosFracao(minutosFracao);
+        tabela.setValorFracao(fracao);
+        tabela.setValorFracaoNoturna(fracaoNoturna);
+        tabela.setInicioNoturno(inicioNoturno);
+        tabela.setFimNoturno(fimNoturno);
+        tabela.setTetoDiario(tetoDiario);
+        tabela.setDescontoCliente(descontoCliente);
+        tabela.setDescontoAdmin(descontoAdmin);
+        return tabela;
+    }
+
+    private static String descrever(TabelaTarifaria t) {
+        return String.format("tolerancia=%d, primeiraHora=%d, fracao=%dmin/%d/%d, noturno=%s-%s, teto=%d, descontos=%d/%d",
+                t.getToleranciaMinutos(), t.getValorPrimeiraHora(), t.getMinutosFracao(), t.getValorFracao(),
+                t.getValorFracaoNoturna(), t.getInicioNoturno(), t.getFimNoturno(), t.getTetoDiario(),
+                t.getDescontoCliente(), t.getDescontoAdmin());
+    }
+}
@@ -0,0 +1,69 @@
+package com.sistema.parkapi.tarifa;
+
+import com.sistema.parkapi.entity.TabelaTarifaria;
+import com.sistema.parkapi.entity.Usuario;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementação direta das regras da {@link TabelaTarifaria}, fração por fração, com {@code java.time}.
+ * Lenta e sem otimização alguma; serve de oráculo para a {@link TarifaCompilada}.
+ */
+public class TarifaReferencia {
+
+    private final TabelaTarifaria tabela;
+    private final ZoneId zona;
+
+    public TarifaReferencia(TabelaTarifaria tabela, ZoneId zona) {
+        this.tabela = tabela;
+        this.zona = zona;
+    }
+
+    public long calcular(LocalDateTime entrada, LocalDateTime saida, Usuario.Role role) {
+        Instant inicio = entrada.truncatedTo(ChronoUnit.SECONDS).atZone(zona).toInstant();
+        Instant fim = saida.truncatedTo(ChronoUnit.SECONDS).atZone(zona).toInstant();
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("Saída anterior à entrada");
+        }
+        if (Duration.between(inicio, fim).compareTo(Duration.ofMinutes(tabela.getToleranciaMinutos())) <= 0) {
+            return 0;
+        }
+
+        // Cobrança de cada período de 24 horas contado da entrada
+        Map<Long, Long> periodos = new HashMap<>();
+        periodos.put(0L, tabela.getValorPrimeiraHora());
+        Duration fracao = Duration.ofMinutes(tabela.getMinutosFracao());
+        for (Instant f = inicio.plus(Duration.ofHours(1)); f.isBefore(fim); f = f.plus(fracao)) {
+            long periodo = Duration.between(inicio, f).toDays();
+            long valor = isNoturno(f.atZone(zona).toLocalTime()) ? tabela.getValorFracaoNoturna() : tabela.getValorFracao();
+            periodos.merge(periodo, valor, Long::sum);
+        }
+
+        long total = 0;
+        for (long valor : periodos.values()) {
+            total += tabela.getTetoDiario() > 0 ? Math.min(valor, tabela.getTetoDiario()) : valor;
+        }
+        int desconto = role == null ? 0
+                : role == Usuario.Role.ROLE_CLIENTE ? tabela.getDescontoCliente() : tabela.getDescontoAdmin();
+        return total - total * desconto / 100;
+    }
+
+    private boolean isNoturno(LocalTime hora) {
+        LocalTime minuto = hora.truncatedTo(ChronoUnit.MINUTES);
+        LocalTime inicio = tabela.getInicioNoturno().truncatedTo(ChronoUnit.MINUTES);
+        LocalTime fim = tabela.getFimNoturno().truncatedTo(ChronoUnit.MINUTES);
+        if (inicio.equals(fim)) {
+            return false;
+        }
+        return inicio.isBefore(fim)
+                ? !minuto.isBefore(inicio) && minuto.isBefore(fim)
+                : !minuto.isBefore(inicio) || minuto.isBefore(fim);
+    }
+}
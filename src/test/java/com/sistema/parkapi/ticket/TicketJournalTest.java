@@ -0,0 +1,136 @@
+package com.sistema.parkapi.ticket;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TicketJournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    public void abrir_DevolveEventosPosterioresAoCheckpoint() {
+        List<TicketEvento> duraveis = new CopyOnWriteArrayList<>();
+        TicketJournal journal = novo(DataSize.ofMegabytes(1));
+        assertThat(journal.abrir(Map.of("a", 0L))).isEmpty();
+        journal.iniciar(duraveis::addAll);
+        for (int i = 1; i <= 3; i++) {
+            assertThat(journal.anexar(evento(i)).join().sequencia()).isEqualTo(i);
+        }
+        journal.encerrar();
+        assertThat(duraveis).extracting(TicketEvento::chave).containsExactly("k1", "k2", "k3");
+
+        assertThat(novo(DataSize.ofMegabytes(1)).abrir(Map.of("a", 0L)))
+                .extracting(TicketEvento::sequencia).containsExactly(1L, 2L, 3L);
+        assertThat(novo(DataSize.ofMegabytes(1)).abrir(Map.of("a", 2L)))
+                .extracting(TicketEvento::chave).containsExactly("k3");
+    }
+
+    @Test
+    public void abrir_IgnoraRegistroIncompletoNoFimENaoReaproveitaSequencia() throws IOException {
+        gravar(2);
+        // Queda no meio da escrita: cabeçalho de um registro de 100 bytes com só 10 deles no disco
+        ByteBuffer parcial = ByteBuffer.allocate(18).putInt(100).putInt(0);
+        Files.write(segmentos().get(0), parcial.array(), StandardOpenOption.APPEND);
+
+        TicketJournal journal = novo(DataSize.ofMegabytes(1));
+        assertThat(journal.abrir(Map.of("a", 0L))).extracting(TicketEvento::chave).containsExactly("k1", "k2");
+        journal.iniciar(eventos -> {
+        });
+        assertThat(journal.anexar(evento(3)).join().sequencia()).isEqualTo(3);
+        journal.encerrar();
+
+        assertThat(novo(DataSize.ofMegabytes(1)).abrir(Map.of("a", 0L)))
+                .extracting(TicketEvento::sequencia).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void abrir_IgnoraRegistroComCrcInvalido() throws IOException {
+        gravar(2);
+        Path segmento = segmentos().get(0);
+        byte[] conteudo = Files.readAllBytes(segmento);
+        conteudo[conteudo.length - 1] ^= 0x7F;
+        Files.write(segmento, conteudo);
+
+        assertThat(novo(DataSize.ofMegabytes(1)).abrir(Map.of("a", 0L)))
+                .extracting(TicketEvento::chave).containsExactly("k1");
+    }
+
+    @Test
+    public void descartarAte_ApagaSegmentosConfirmadosPorTodosOsLeitores() throws IOException {
+        // Cada grupo ultrapassa o tamanho do segmento e fecha o seu próprio arquivo
+        TicketJournal journal = novo(DataSize.ofBytes(1));
+        journal.abrir(Map.of("a", 0L, "b", 0L));
+        journal.iniciar(eventos -> {
+        });
+        for (int i = 1; i <= 3; i++) {
+            journal.anexar(evento(i)).join();
+        }
+        // O grupo é confirmado antes da rotação do segmento
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (nomes().size() < 4 && System.nanoTime() < limite) {
+            Thread.onSpinWait();
+        }
+        assertThat(nomes()).containsExactly(nome(1), nome(2), nome(3), nome(4));
+
+        journal.descartarAte("a", 3);
+        assertThat(nomes()).hasSize(4);
+
+        journal.descartarAte("b", 2);
+        assertThat(nomes()).containsExactly(nome(3), nome(4));
+
+        // O segmento aberto fica mesmo com tudo confirmado
+        journal.descartarAte("b", 3);
+        assertThat(nomes()).containsExactly(nome(4));
+        journal.encerrar();
+    }
+
+    private void gravar(int quantidade) {
+        TicketJournal journal = novo(DataSize.ofMegabytes(1));
+        journal.abrir(Map.of("a", 0L));
+        journal.iniciar(eventos -> {
+        });
+        for (int i = 1; i <= quantidade; i++) {
+            journal.anexar(evento(i)).join();
+        }
+        journal.encerrar();
+    }
+
+    private TicketJournal novo(DataSize tamanhoSegmento) {
+        return new TicketJournal(diretorio, tamanhoSegmento, 100, new SimpleMeterRegistry());
+    }
+
+    private static TicketEvento evento(int i) {
+        return TicketEvento.entrada("k" + i, "T" + i, 1L, "ABC-123" + i, 1L, LocalDateTime.of(2024, 1, 1, 8, i));
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.sorted().toList();
+        }
+    }
+
+    private List<String> nomes() throws IOException {
+        return segmentos().stream().map(a -> a.getFileName().toString()).toList();
+    }
+
+    private static String nome(long sequencia) {
+        return String.format("tickets-%019d.journal", sequencia);
+    }
+}
@@ -0,0 +1,52 @@
+package com.sistema.parkapi.web.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * O corpo montado a partir das partes pré-serializadas deve ser idêntico ao do {@link ErrorMessage}
+ * serializado pelo Jackson.
+ */
+public class ErrorBodyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void mensagemSimples_IgualAoErrorMessage() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/usuarios/999");
+
+        assertThat(json(request, HttpStatus.NOT_FOUND, "Usuário id = 999 não encontrado"))
+                .isEqualTo(jackson(request, HttpStatus.NOT_FOUND, "Usuário id = 999 não encontrado"));
+    }
+
+    @Test
+    public void caracteresEspeciais_EscapadosComoNoJackson() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/estacionamentos/\"x\"\\");
+        String mensagem = "Nome {\"Central\"} já cadastrado\n\t<script>\u0001";
+
+        assertThat(json(request, HttpStatus.CONFLICT, mensagem))
+                .isEqualTo(jackson(request, HttpStatus.CONFLICT, mensagem));
+    }
+
+    @Test
+    public void mensagemNula_SerializadaComoNull() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/v1/tickets/abc");
+
+        assertThat(json(request, HttpStatus.BAD_REQUEST, null))
+                .isEqualTo(jackson(request, HttpStatus.BAD_REQUEST, null));
+    }
+
+    private static String json(MockHttpServletRequest request, HttpStatus status, String mensagem) {
+        return new String(ErrorBody.of(request, status, mensagem), StandardCharsets.UTF_8);
+    }
+
+    private String jackson(MockHttpServletRequest request, HttpStatus status, String mensagem) throws Exception {
+        return objectMapper.writeValueAsString(new ErrorMessage(request, status, mensagem));
+    }
+}
@@ -1,3 +1,3 @@
-insert into USUARIOS (id, username, password, role) VALUES (100, 'ana@email.com', '123456', 'ROLE_ADMIN');
-INSERT INTO USUARIOS (id, username, password, role) VALUES (101, 'carlos@email.com', 'abcdef', 'ROLE_CLIENTE');
-INSERT INTO USUARIOS (id, username, password, role) VALUES (102, 'maria@email.com', '123123', 'ROLE_CLIENTE');
+insert into USUARIOS (id, username, username_normalizado, password, role) VALUES (100, 'ana@email.com', 'ana@email.com', '123456', 'ROLE_ADMIN');
+INSERT INTO USUARIOS (id, username, username_normalizado, password, role) VALUES (101, 'carlos@email.com', 'carlos@email.com', 'abcdef', 'ROLE_CLIENTE');
+INSERT INTO USUARIOS (id, username, username_normalizado, password, role) VALUES (102, 'maria@email.com', 'maria@email.com', '123123', 'ROLE_CLIENTE');